@@ -0,0 +1,53 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.JobSeekerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application for the database-backed benchmarks, on an in-memory H2 database instead of
+ * PostgreSQL.
+ *
+ * Everything else (second-level cache, BCrypt cost, search index, SQL proxy) is configured as
+ * in application.properties, so the benchmarks measure the code as it runs in production minus the
+ * network round trip to the database. Fill the database with BenchmarkDataset.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application on its own empty in-memory database.
+     *
+     * @param name the name of the database, unique per application started in the same JVM
+     * @param properties further properties, e.g. "search.engine=database"
+     * @return the started application
+     */
+    static ConfigurableApplicationContext start(String name, String... properties) {
+        // Devtools would restart the application in a new class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // Passed as command-line arguments, which take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.sql.init.mode=never", // db/schema.sql is written for PostgreSQL
+                // The reconciliations use PostgreSQL upserts; BenchmarkDataset fills the tables instead
+                "stats.reconcile.on-startup=false",
+                "listing.reconcile.on-startup=false",
+                "security.session-token.allow-random-key=true", // One node, no keys to configure
+                "server.port=0",
+                "logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(JobSeekerApplication.class)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,163 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.entity.*;
+import com.itschool.job_seeker.model.UserCredentials;
+import com.itschool.job_seeker.repository.JobListingViewRepository;
+import com.itschool.job_seeker.services.JobSearchIndexService;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic dataset for the database-backed benchmarks.
+ *
+ * The same seed always produces the same recruiters, job posts, job seekers, applications and saves,
+ * so runs on different commits measure the same data. Posting dates are spread over the 60 days
+ * before the run, so the date filters match the same share of job posts every time.
+ */
+final class BenchmarkDataset {
+
+    // Password of every seeded user
+    static final String PASSWORD = "benchmark";
+
+    private static final String[] TITLES = {"Java Developer", "Frontend Developer", "Backend Developer",
+            "Data Engineer", "QA Engineer", "DevOps Engineer", "Product Manager", "UX Designer",
+            "Android Developer", "Business Analyst"};
+    private static final String[] LEVELS = {"Junior", "Mid", "Senior", "Lead"};
+    private static final String[][] LOCATIONS = {{"Cluj-Napoca", "Cluj", "Romania"}, {"Bucharest", "Ilfov", "Romania"},
+            {"Iasi", "Iasi", "Romania"}, {"Timisoara", "Timis", "Romania"}, {"Brasov", "Brasov", "Romania"},
+            {"Oradea", "Bihor", "Romania"}, {"Budapest", "Pest", "Hungary"}, {"Vienna", "Vienna", "Austria"},
+            {"Berlin", "Berlin", "Germany"}, {"Munich", "Bavaria", "Germany"}};
+    private static final String[] TYPES = {"Full-Time", "Part-Time", "Freelance"};
+    private static final String[] REMOTE = {"Remote-Only", "Office-Only", "Hybrid"};
+
+    // Applications and saves per job seeker
+    private static final int ACTIVITY_PER_SEEKER = 5;
+
+    private final List<UserCredentials> jobSeekers;
+
+    private BenchmarkDataset(List<UserCredentials> jobSeekers) {
+        this.jobSeekers = jobSeekers;
+    }
+
+    /**
+     * Fills the database of a started application, then rebuilds its listing table and search index.
+     *
+     * There are a tenth as many recruiters and half as many job seekers as job posts; every job
+     * seeker applied to and saved a few job posts.
+     *
+     * @param context the application started with BenchmarkApplication
+     * @param jobPosts the number of job posts
+     * @param seed the seed of the random choices
+     * @return the dataset, to log users in
+     */
+    static BenchmarkDataset seed(ApplicationContext context, int jobPosts, long seed) {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        // One hash for every user: hashing thousands of passwords at the configured cost would take minutes
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<UserCredentials> jobSeekers = new ArrayList<>();
+
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            UsersType recruiterType = persist(entityManager, new UsersType(null, "Recruiter", null));
+            UsersType jobSeekerType = persist(entityManager, new UsersType(null, "Job Seeker", null));
+
+            List<JobLocation> locations = new ArrayList<>();
+            for (String[] location : LOCATIONS) {
+                locations.add(persist(entityManager, new JobLocation(null, location[0], location[1], location[2])));
+            }
+            List<JobCompany> companies = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, jobPosts / 20); i++) {
+                companies.add(persist(entityManager, new JobCompany(null, "Company " + i, "")));
+            }
+            List<Users> recruiters = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, jobPosts / 10); i++) {
+                Users recruiter = persist(entityManager, user("recruiter" + i, passwordHash, recruiterType, now));
+                persist(entityManager, new RecruiterProfile(recruiter));
+                recruiters.add(recruiter);
+            }
+
+            List<JobPostActivity> jobs = new ArrayList<>(jobPosts);
+            for (int i = 0; i < jobPosts; i++) {
+                String title = LEVELS[random.nextInt(LEVELS.length)] + " " + TITLES[random.nextInt(TITLES.length)];
+                Date postedDate = new Date(now - random.nextLong(TimeUnit.DAYS.toMillis(60)));
+                jobs.add(persist(entityManager, new JobPostActivity(null, recruiters.get(random.nextInt(recruiters.size())),
+                        locations.get(random.nextInt(locations.size())), companies.get(random.nextInt(companies.size())),
+                        null, null, "Description of " + title, title, TYPES[random.nextInt(TYPES.length)],
+                        String.valueOf(1000 + random.nextInt(50) * 100), REMOTE[random.nextInt(REMOTE.length)], postedDate)));
+            }
+
+            for (int i = 0; i < Math.max(1, jobPosts / 2); i++) {
+                Users user = persist(entityManager, user("seeker" + i, passwordHash, jobSeekerType, now));
+                JobSeekerProfile profile = new JobSeekerProfile(user);
+                profile.setFirstName("Seeker");
+                profile.setLastName(String.valueOf(i));
+                persist(entityManager, profile);
+                jobSeekers.add(new UserCredentials(user.getUserId(), user.getEmail(), passwordHash, true, "Job Seeker"));
+
+                for (JobPostActivity job : pick(jobs, random)) {
+                    persist(entityManager, new JobSeekerApply(null, profile, job, new Date(now), null));
+                }
+                for (JobPostActivity job : pick(jobs, random)) {
+                    persist(entityManager, new JobSeekerSave(null, profile, job));
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+
+        // The listing rows are inserted in one statement (the PostgreSQL upsert of the reconciliation does not run on H2)
+        context.getBean(JdbcTemplate.class).update(JobListingViewRepository.UPSERT);
+        context.getBean(JobSearchIndexService.class).rebuild();
+        return new BenchmarkDataset(jobSeekers);
+    }
+
+    /**
+     * Returns the number of seeded job seekers.
+     */
+    int jobSeekerCount() {
+        return jobSeekers.size();
+    }
+
+    /**
+     * Returns the login details of a seeded job seeker, as stored in the security context after login.
+     *
+     * @param index the index of the job seeker, from 0 to jobSeekerCount() - 1
+     */
+    CustomUserDetails jobSeeker(int index) {
+        return new CustomUserDetails(jobSeekers.get(index));
+    }
+
+    private static Users user(String name, String passwordHash, UsersType type, long now) {
+        return new Users(null, name + "@example.com", passwordHash, true, new Date(now), type);
+    }
+
+    // Picks distinct job posts for the applications or saves of one job seeker, in a repeatable order
+    private static List<JobPostActivity> pick(List<JobPostActivity> jobs, Random random) {
+        Set<Integer> picked = new LinkedHashSet<>();
+        int count = Math.min(ACTIVITY_PER_SEEKER, jobs.size());
+        while (picked.size() < count) {
+            picked.add(random.nextInt(jobs.size()));
+        }
+        return picked.stream().map(jobs::get).toList();
+    }
+
+    private static <T> T persist(EntityManager entityManager, T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,90 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.repository.StoredBlobRepository;
+import com.itschool.job_seeker.services.impl.BlobStoreServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures storing an upload in the blob store: new content (hashed, then written) and content that
+ * is already stored (hashed only).
+ *
+ * The reference counts are kept in the database; here the repository does nothing, so only the
+ * hashing and the file writes are measured. Each new blob is deleted after its operation so the run
+ * does not fill the disk.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="-f 1 -prof gc BlobStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobStoreBenchmark {
+
+    // Upload sizes: a profile photo and a resume
+    @Param({"65536", "1048576"})
+    private int size;
+
+    private Path uploadDir;
+    private BlobStoreServiceImpl blobStore;
+    private byte[] content;
+    private long uploads;
+    private String lastNewBlob;
+
+    @Setup
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("blob-benchmark");
+        StoredBlobRepository repository = (StoredBlobRepository) Proxy.newProxyInstance(
+                StoredBlobRepository.class.getClassLoader(), new Class<?>[]{StoredBlobRepository.class},
+                (proxy, method, args) -> method.getReturnType() == int.class ? 0 : null);
+        blobStore = new BlobStoreServiceImpl(repository, uploadDir.toString(), Duration.ofHours(1), new SimpleMeterRegistry());
+
+        content = new byte[size];
+        new Random(42).nextBytes(content);
+        blobStore.store(upload(content)); // The known content
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteNewBlob() throws IOException {
+        if (lastNewBlob != null) {
+            Files.deleteIfExists(blobStore.resolve(lastNewBlob));
+            lastNewBlob = null;
+        }
+    }
+
+    @Benchmark
+    public String storeNew() throws IOException {
+        // A different first 8 bytes make new content with every operation
+        byte[] newContent = content.clone();
+        ByteBuffer.wrap(newContent).putLong(++uploads);
+        lastNewBlob = blobStore.store(upload(newContent));
+        return lastNewBlob;
+    }
+
+    @Benchmark
+    public String storeKnown() throws IOException {
+        return blobStore.store(upload(content));
+    }
+
+    private static MockMultipartFile upload(byte[] bytes) {
+        return new MockMultipartFile("pdf", "resume.pdf", "application/pdf", bytes);
+    }
+}
@@ -0,0 +1,192 @@
+package com.itschool.job_seeker.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the dashboard against a running instance of the application.
+ *
+ * Each simulated user logs in once, then requests the dashboard again as soon as the previous
+ * response has arrived, for the given duration (after a warm-up of a fifth of it). Throughput,
+ * latency percentiles and errors are printed at the end. Run it once against the application
+ * started normally and once with the virtual profile to compare the two execution modes:
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.itschool.job_seeker.benchmark.DashboardLoadTest
+ *     -Djmh.args="http://localhost:8080 seeker@example.com password 500 60"
+ *
+ * Arguments: base URL, username, password, concurrent users (default 200), duration in seconds
+ * (default 60), path (default /dashboard/).
+ *
+ * Without a database at hand, "embedded platform" or "embedded virtual" in place of the base URL,
+ * username and password starts the application in this JVM with BenchmarkApplication, in that
+ * execution mode, seeds it with BenchmarkDataset and logs in as one of its job seekers:
+ *
+ *     -Djmh.args="embedded virtual 500 60"
+ */
+public class DashboardLoadTest {
+
+    // Job posts seeded in embedded mode
+    private static final int EMBEDDED_JOB_POSTS = 2_000;
+
+    // Logins hash the password at the configured BCrypt cost and the application refuses those that
+    // wait longer than security.password.max-wait, so the users log in a few at a time
+    private static final Semaphore LOGINS = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("embedded")) {
+            boolean virtualThreads = args[1].equals("virtual");
+            // The pool settings of the virtual profile, which BenchmarkApplication does not activate
+            try (ConfigurableApplicationContext context = BenchmarkApplication.start("dashboard",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "spring.datasource.hikari.maximum-pool-size=20",
+                    "spring.datasource.hikari.minimum-idle=20")) {
+                BenchmarkDataset.seed(context, EMBEDDED_JOB_POSTS, 42);
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                System.out.println(virtualThreads ? "virtual threads" : "platform threads");
+                run(baseUrl, "seeker0@example.com", BenchmarkDataset.PASSWORD, Arrays.copyOfRange(args, 2, args.length));
+            }
+            return;
+        }
+        if (args.length < 3) {
+            System.err.println("Usage: DashboardLoadTest <baseUrl> <username> <password> [users] [seconds] [path]");
+            System.err.println("       DashboardLoadTest embedded <platform|virtual> [users] [seconds] [path]");
+            System.exit(1);
+        }
+        run(args[0].replaceAll("/$", ""), args[1], args[2], Arrays.copyOfRange(args, 3, args.length));
+    }
+
+    /**
+     * Runs the load test against a started application and prints the results.
+     *
+     * @param options concurrent users, duration in seconds and path, each optional
+     */
+    private static void run(String baseUrl, String username, String password, String[] options) throws Exception {
+        int users = options.length > 0 ? Integer.parseInt(options[0]) : 200;
+        int seconds = options.length > 1 ? Integer.parseInt(options[1]) : 60;
+        String path = options.length > 2 ? options[2] : "/dashboard/";
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(seconds).toNanos() / 5;
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        // The simulated users are virtual threads, so the load generator itself is not the bottleneck
+        List<Future<long[]>> results = new ArrayList<>(users);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                results.add(executor.submit(() -> runUser(baseUrl, username, password, path, warmupEnd, end, errors)));
+            }
+        }
+
+        // Merge the latencies measured after the warm-up
+        List<long[]> perUser = new ArrayList<>(users);
+        int total = 0;
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            perUser.add(latencies);
+            total += latencies.length;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] userLatencies : perUser) {
+            System.arraycopy(userLatencies, 0, latencies, offset, userLatencies.length);
+            offset += userLatencies.length;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%s%s, %d users, %d s%n", baseUrl, path, users, seconds);
+        System.out.printf("requests: %d, errors: %d, throughput: %.1f req/s%n",
+                total, errors.get(), total / (double) seconds);
+        System.out.printf("latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                percentile(latencies, 100));
+    }
+
+    /**
+     * Logs one user in and requests the page in a loop until the end of the test.
+     *
+     * @return the latencies in nanoseconds of the successful requests made after the warm-up
+     */
+    private static long[] runUser(String baseUrl, String username, String password, String path,
+                                  long warmupEnd, long end, AtomicLong errors) throws InterruptedException {
+        // One client per user so that each keeps its own session cookie
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpRequest page = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+
+        long[] latencies = new long[1024];
+        int count = 0;
+        try {
+            HttpResponse<Void> loginResponse;
+            LOGINS.acquire();
+            try {
+                loginResponse = client.send(login, HttpResponse.BodyHandlers.discarding());
+            } finally {
+                LOGINS.release();
+            }
+            String location = loginResponse.headers().firstValue("Location").orElse("");
+            if (loginResponse.statusCode() != 302 || location.contains("error")) {
+                errors.incrementAndGet();
+                return new long[0];
+            }
+
+            while (System.nanoTime() < end) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(page, HttpResponse.BodyHandlers.discarding());
+                    long latency = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else if (start >= warmupEnd) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = latency;
+                    }
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * Returns a percentile of sorted latencies, in milliseconds.
+     */
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,404 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.util.DimensionKeys;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a database with a production-sized synthetic dataset: locations, companies, recruiters, job
+ * seekers with their skills, job posts, applications and saves, in the numbers asked for.
+ *
+ * The same seed always produces the same rows. Like on a real job board, a few cities, titles, skills
+ * and companies are far more frequent than the rest (Zipf distributions), and applications and saves
+ * follow a power law over the job posts: a few posts get thousands, most get a handful. Every row
+ * points to rows generated before it, and a job seeker applies to (and saves) a job post at most once,
+ * as the (userId, job) unique constraints require.
+ *
+ * On PostgreSQL the rows are streamed with COPY (hundreds of thousands of rows per second); on other
+ * databases they are inserted in JDBC batches. The schema must exist: start the application once on
+ * the database, then stop it while the generator runs (the new IDs follow the highest ones in use).
+ * job_listing_view, job_post_stats and the search index are rebuilt when the application starts again.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.itschool.job_seeker.benchmark.DataGenerator
+ *     -Djmh.args="jdbc:postgresql://localhost:5432/jobportal postgres secret jobs=1000000 seed=7"
+ *
+ * Arguments: JDBC URL, username and password (without them: an in-memory H2 database, to try the
+ * generator out), then any of the targets as name=value: jobs (default 100000), recruiters (jobs / 10),
+ * companies (jobs / 20), locations (1000), seekers (jobs), applications (seekers * 10), saves
+ * (seekers * 5), skills (seekers * 3), seed (42), zipf (skew of cities, titles, skills and companies, 1.0),
+ * popularity (skew of the applications and saves over the job posts, 0.8). Every user's password is
+ * "password".
+ */
+public class DataGenerator {
+
+    static final String PASSWORD = "password";
+
+    private static final String[] TITLES = {"Java Developer", "Frontend Developer", "Backend Developer",
+            "Full Stack Developer", "Data Engineer", "Data Scientist", "QA Engineer", "DevOps Engineer",
+            "Product Manager", "UX Designer", "Android Developer", "iOS Developer", "Business Analyst",
+            "Project Manager", "Python Developer", ".NET Developer", "Scrum Master", "Security Engineer",
+            "Site Reliability Engineer", "Technical Writer", "Support Engineer", "Sales Manager",
+            "Accountant", "HR Specialist", "Marketing Specialist"};
+    private static final String[] LEVELS = {"Mid", "Senior", "Junior", "Lead", "Principal"};
+    private static final String[][] CITIES = {{"Bucharest", "Ilfov", "Romania"}, {"Cluj-Napoca", "Cluj", "Romania"},
+            {"Iasi", "Iasi", "Romania"}, {"Timisoara", "Timis", "Romania"}, {"Brasov", "Brasov", "Romania"},
+            {"Budapest", "Pest", "Hungary"}, {"Berlin", "Berlin", "Germany"}, {"Vienna", "Vienna", "Austria"},
+            {"Oradea", "Bihor", "Romania"}, {"Munich", "Bavaria", "Germany"}};
+    private static final String[] COUNTRIES = {"Romania", "Germany", "Hungary", "Austria", "Poland", "Italy"};
+    private static final String[] SKILLS = {"Java", "SQL", "JavaScript", "Spring", "Git", "Python", "Docker",
+            "React", "English", "Kubernetes", "TypeScript", "AWS", "Linux", "Angular", "C#", "Excel", "Go",
+            "PostgreSQL", "Kotlin", "Scrum", "Figma", "Terraform", "Kafka", "Swift", "German"};
+    private static final String[] FIRST_NAMES = {"Andrei", "Maria", "Alexandru", "Elena", "Mihai", "Ioana",
+            "Stefan", "Ana", "David", "Sofia", "Matei", "Daria", "Luca", "Irina", "Radu", "Laura"};
+    private static final String[] LAST_NAMES = {"Popescu", "Ionescu", "Popa", "Pop", "Radu", "Dumitru",
+            "Stan", "Stoica", "Gheorghe", "Matei", "Ciobanu", "Rusu", "Munteanu", "Constantin"};
+    private static final String[] TYPES = {"Full-Time", "Part-Time", "Freelance", "Internship"};
+    private static final String[] REMOTE = {"Office-Only", "Hybrid", "Remote-Only"};
+    private static final String[] EXPERIENCE = {"Beginner", "Intermediate", "Advanced"};
+
+    // Job posts are spread over the year before the run
+    private static final long POSTING_WINDOW = TimeUnit.DAYS.toMillis(365);
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length == 2 && !arg.startsWith("jdbc:")) {
+                options.put(option[0], option[1]);
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() != 0 && positional.size() != 3) {
+            System.err.println("Usage: DataGenerator [<jdbcUrl> <username> <password>] [jobs=N] [recruiters=N] [companies=N] "
+                    + "[locations=N] [seekers=N] [applications=N] [saves=N] [skills=N] [seed=N] [zipf=X] [popularity=X]");
+            System.exit(1);
+        }
+        Targets targets = Targets.of(options);
+
+        if (!positional.isEmpty()) {
+            try (Connection connection = DriverManager.getConnection(positional.get(0), positional.get(1), positional.get(2))) {
+                generate(connection, targets);
+            }
+            return;
+        }
+        // The application creates the schema of its in-memory database
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start("datagen");
+             Connection connection = context.getBean(DataSource.class).getConnection()) {
+            generate(connection, targets);
+        }
+    }
+
+    /**
+     * The number of rows to generate per table, and the shape of the distributions.
+     */
+    record Targets(int jobs, int recruiters, int companies, int locations, int seekers, long applications,
+                   long saves, long skills, long seed, double zipf, double popularity) {
+
+        static Targets of(Map<String, String> options) {
+            int jobs = Integer.parseInt(options.getOrDefault("jobs", "100000"));
+            int seekers = Integer.parseInt(options.getOrDefault("seekers", String.valueOf(jobs)));
+            return new Targets(jobs,
+                    Integer.parseInt(options.getOrDefault("recruiters", String.valueOf(Math.max(1, jobs / 10)))),
+                    Integer.parseInt(options.getOrDefault("companies", String.valueOf(Math.max(1, jobs / 20)))),
+                    Integer.parseInt(options.getOrDefault("locations", "1000")),
+                    seekers,
+                    Long.parseLong(options.getOrDefault("applications", String.valueOf(seekers * 10L))),
+                    Long.parseLong(options.getOrDefault("saves", String.valueOf(seekers * 5L))),
+                    Long.parseLong(options.getOrDefault("skills", String.valueOf(seekers * 3L))),
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    Double.parseDouble(options.getOrDefault("zipf", "1.0")),
+                    Double.parseDouble(options.getOrDefault("popularity", "0.8")));
+        }
+    }
+
+    /**
+     * Generates the dataset into the database, one table after the other, each committed on its own.
+     *
+     * @param connection the connection to the database, whose schema the application created
+     * @param targets the row counts and distributions
+     */
+    static void generate(Connection connection, Targets targets) throws SQLException {
+        if (targets.jobs() < 1 || targets.recruiters() < 1 || targets.companies() < 1 || targets.locations() < 1) {
+            throw new IllegalArgumentException("jobs, recruiters, companies and locations must be at least 1");
+        }
+        connection.setAutoCommit(false);
+        long now = System.currentTimeMillis();
+        // One hash for every user, at the lowest cost: it is raised to the configured one at the first login
+        String passwordHash = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD);
+        long recruiterType = userType(connection, "Recruiter");
+        long jobSeekerType = userType(connection, "Job Seeker");
+        ZipfSampler locationSampler = new ZipfSampler(targets.locations(), targets.zipf());
+
+        // Locations: the real cities first, then a long tail of made-up ones. Locations and companies are
+        // unique by normalized key, so the ones an earlier run (or the application) wrote are reused
+        long nextLocation = maxId(connection, "job_location", "id") + 1;
+        Map<String, Long> existingLocations = normalizedKeys(connection, "job_location");
+        String[][] locations = new String[targets.locations()][];
+        long[] locationIds = new long[targets.locations()];
+        Random random = new Random(targets.seed());
+        try (Load load = new Load(connection, "job_location", "id", "city", "county", "country", "normalized_key")) {
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = i < CITIES.length ? CITIES[i]
+                        : new String[]{"City " + i, "County " + (i % 40), COUNTRIES[i % COUNTRIES.length]};
+                String key = DimensionKeys.location(locations[i][0], locations[i][1], locations[i][2]);
+                Long existing = existingLocations.get(key);
+                if (existing != null) {
+                    locationIds[i] = existing;
+                } else {
+                    locationIds[i] = nextLocation++;
+                    load.row(locationIds[i], locations[i][0], locations[i][1], locations[i][2], key);
+                }
+            }
+        }
+
+        long firstCompany = maxId(connection, "job_company", "id") + 1;
+        long nextCompany = firstCompany;
+        Map<String, Long> existingCompanies = normalizedKeys(connection, "job_company");
+        long[] companyIds = new long[targets.companies()];
+        try (Load load = new Load(connection, "job_company", "id", "name", "logo", "normalized_key")) {
+            for (int i = 0; i < companyIds.length; i++) {
+                String name = "Company " + (firstCompany + i);
+                Long existing = existingCompanies.get(DimensionKeys.company(name));
+                if (existing != null) {
+                    companyIds[i] = existing;
+                } else {
+                    companyIds[i] = nextCompany++;
+                    load.row(companyIds[i], name, "", DimensionKeys.company(name));
+                }
+            }
+        }
+
+        // Users: the recruiters, then the job seekers, with consecutive IDs
+        long firstRecruiter = maxId(connection, "users", "user_id") + 1;
+        long firstJobSeeker = firstRecruiter + targets.recruiters();
+        Timestamp registered = new Timestamp(now);
+        try (Load load = new Load(connection, "users", "user_id", "email", "password", "is_active",
+                "registration_date", "user_type_id")) {
+            for (long id = firstRecruiter; id < firstJobSeeker + targets.seekers(); id++) {
+                boolean recruiter = id < firstJobSeeker;
+                load.row(id, (recruiter ? "recruiter" : "seeker") + id + "@example.com", passwordHash, true,
+                        registered, recruiter ? recruiterType : jobSeekerType);
+            }
+        }
+        try (Load load = new Load(connection, "recruiter_profile", "user_account_id", "first_name", "last_name",
+                "city", "county", "country", "company")) {
+            for (int i = 0; i < targets.recruiters(); i++) {
+                String[] location = locations[locationSampler.sample(random)];
+                load.row(firstRecruiter + i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], location[0], location[1], location[2],
+                        "Company " + (firstCompany + random.nextInt(targets.companies())));
+            }
+        }
+        try (Load load = new Load(connection, "job_seeker_profile", "user_account_id", "first_name", "last_name",
+                "city", "county", "country", "work_authorization", "employment_type")) {
+            for (int i = 0; i < targets.seekers(); i++) {
+                String[] location = locations[locationSampler.sample(random)];
+                load.row(firstJobSeeker + i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], location[0], location[1], location[2],
+                        location[2], TYPES[random.nextInt(TYPES.length)]);
+            }
+        }
+
+        long firstSkill = maxId(connection, "skills", "id") + 1;
+        ZipfSampler skillSampler = new ZipfSampler(SKILLS.length, targets.zipf());
+        try (Load load = new Load(connection, "skills", "id", "name", "experience_level", "years_of_experience",
+                "job_seeker_profile")) {
+            long id = firstSkill;
+            for (int i = 0; i < targets.seekers(); i++) {
+                for (long k = share(i, targets.skills(), targets.seekers()); k > 0; k--) {
+                    load.row(id++, SKILLS[skillSampler.sample(random)], EXPERIENCE[random.nextInt(EXPERIENCE.length)],
+                            String.valueOf(1 + random.nextInt(10)), firstJobSeeker + i);
+                }
+            }
+        }
+
+        // Job posts, remembering when each was posted so it is applied to afterwards
+        long firstJob = maxId(connection, "job_post_activity", "job_post_id") + 1;
+        long[] postedDates = new long[targets.jobs()];
+        ZipfSampler titleSampler = new ZipfSampler(TITLES.length * LEVELS.length, targets.zipf());
+        ZipfSampler companySampler = new ZipfSampler(targets.companies(), targets.zipf());
+        try (Load load = new Load(connection, "job_post_activity", "job_post_id", "posted_by_id", "job_location_id",
+                "job_company_id", "description_of_job", "job_title", "job_type", "salary", "remote",
+                "posted_date")) {
+            for (int i = 0; i < targets.jobs(); i++) {
+                int titleRank = titleSampler.sample(random);
+                String title = LEVELS[titleRank % LEVELS.length] + " " + TITLES[titleRank / LEVELS.length];
+                postedDates[i] = now - random.nextLong(POSTING_WINDOW);
+                load.row(firstJob + i, firstRecruiter + random.nextInt(targets.recruiters()),
+                        locationIds[locationSampler.sample(random)], companyIds[companySampler.sample(random)],
+                        "Description of " + title, title, TYPES[random.nextInt(TYPES.length)],
+                        String.valueOf(1000 + random.nextInt(90) * 100), REMOTE[random.nextInt(REMOTE.length)],
+                        new Timestamp(postedDates[i]));
+            }
+        }
+
+        // Which job posts are popular is random, not the first ones generated
+        int[] byPopularity = shuffledIndexes(targets.jobs(), random);
+        ZipfSampler popularitySampler = new ZipfSampler(targets.jobs(), targets.popularity());
+        long firstApply = maxId(connection, "job_seeker_apply", "id") + 1;
+        try (Load load = new Load(connection, "job_seeker_apply", "id", "user_id", "job", "apply_date")) {
+            long id = firstApply;
+            for (int i = 0; i < targets.seekers(); i++) {
+                for (int job : pickJobs(share(i, targets.applications(), targets.seekers()), byPopularity, popularitySampler, random)) {
+                    long applied = postedDates[job] + random.nextLong(now - postedDates[job] + 1);
+                    load.row(id++, firstJobSeeker + i, firstJob + job, new Timestamp(applied));
+                }
+            }
+        }
+        long firstSave = maxId(connection, "job_seeker_save", "id") + 1;
+        try (Load load = new Load(connection, "job_seeker_save", "id", "user_id", "job")) {
+            long id = firstSave;
+            for (int i = 0; i < targets.seekers(); i++) {
+                for (int job : pickJobs(share(i, targets.saves(), targets.seekers()), byPopularity, popularitySampler, random)) {
+                    load.row(id++, firstJobSeeker + i, firstJob + job);
+                }
+            }
+        }
+
+        restartIdentities(connection);
+        connection.commit();
+        System.out.println("Users' password: " + PASSWORD);
+    }
+
+    // The share of a total going to the given job seeker, so the shares add up to the total exactly
+    private static long share(int index, long total, int count) {
+        return (index + 1) * total / count - index * total / count;
+    }
+
+    // Distinct job posts for one job seeker: popular ones are drawn more often, but only kept once
+    private static Set<Integer> pickJobs(long count, int[] byPopularity, ZipfSampler sampler, Random random) {
+        // At most half of the job posts, so the draws do not keep hitting ones already picked
+        int target = (int) Math.min(count, Math.max(1, byPopularity.length / 2));
+        Set<Integer> picked = new HashSet<>(target * 2);
+        while (picked.size() < target) {
+            picked.add(byPopularity[sampler.sample(random)]);
+        }
+        return picked;
+    }
+
+    private static int[] shuffledIndexes(int count, Random random) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) { // Fisher-Yates
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    // The ID of a user type, created when the database has none of that name
+    private static long userType(Connection connection, String name) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT user_type_id FROM users_type WHERE user_type_name = ?")) {
+            select.setString(1, name);
+            try (ResultSet resultSet = select.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong(1);
+                }
+            }
+        }
+        long id = maxId(connection, "users_type", "user_type_id") + 1;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users_type (user_type_id, user_type_name) VALUES (?, ?)")) {
+            insert.setLong(1, id);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        }
+        return id;
+    }
+
+    private static long maxId(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    // normalized_key -> id of a dimension table
+    private static Map<String, Long> normalizedKeys(Connection connection, String table) throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT normalized_key, id FROM " + table +
+                     " WHERE normalized_key IS NOT NULL")) {
+            while (resultSet.next()) {
+                ids.put(resultSet.getString(1), resultSet.getLong(2));
+            }
+        }
+        return ids;
+    }
+
+    // The IDs were given explicitly: move the identity columns and sequences past them
+    private static void restartIdentities(Connection connection) throws SQLException {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        String[][] identities = {{"users_type", "user_type_id"}, {"job_location", "id"}, {"job_company", "id"},
+                {"users", "user_id"}, {"skills", "id"}, {"job_post_activity", "job_post_id"}};
+        try (Statement statement = connection.createStatement()) {
+            for (String[] identity : identities) {
+                long next = maxId(connection, identity[0], identity[1]) + 1;
+                statement.execute(postgres
+                        ? "SELECT setval(pg_get_serial_sequence('" + identity[0] + "', '" + identity[1] + "'), " + next + ", false)"
+                        : "ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1] + " RESTART WITH " + next);
+            }
+            // Hibernate allocates 50 sequence values at a time (see db/schema.sql)
+            for (String table : new String[]{"job_seeker_apply", "job_seeker_save"}) {
+                long next = maxId(connection, table, "id") + 50;
+                statement.execute(postgres
+                        ? "SELECT setval('" + table + "_seq', " + next + ")"
+                        : "ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+            }
+        }
+    }
+
+    /**
+     * The rows of one table: written, committed and reported with their rate when closed.
+     */
+    private static final class Load implements AutoCloseable {
+
+        private final Connection connection;
+        private final String table;
+        private final TableWriter writer;
+        private final long start = System.nanoTime();
+        private long rows;
+
+        Load(Connection connection, String table, String... columns) throws SQLException {
+            this.connection = connection;
+            this.table = table;
+            this.writer = TableWriter.open(connection, table, columns);
+        }
+
+        void row(Object... values) throws SQLException {
+            writer.row(values);
+            rows++;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            writer.close();
+            connection.commit();
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            System.out.printf("%-20s %,12d rows %8.1f s %,12.0f rows/s%n", table, rows, seconds, rows / seconds);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.controller.JobPostActivityController;
+import com.itschool.job_seeker.model.JobPostActivityDTO;
+import com.itschool.job_seeker.services.JobPostActivityService;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the job post read paths on the seeded dataset: the unpaginated search and getAll with
+ * their DTO mapping, and the job seeker dashboard (one page of job posts flagged as applied/saved),
+ * once with each search engine.
+ *
+ * Reports throughput and the latency distribution (p50 to p99.99); the gc profiler, on by default in
+ * the benchmark profile, adds the allocation rate per operation.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="-f 1 -prof gc JobSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JobSearchBenchmark {
+
+    private static final List<String> TYPES = List.of("Full-Time", "Part-Time", "Freelance");
+    private static final List<String> REMOTE = List.of("Remote-Only", "Office-Only", "Hybrid");
+
+    @Param({"index", "database"})
+    private String engine;
+
+    @Param("5000")
+    private int jobPosts;
+
+    private ConfigurableApplicationContext context;
+    private JobPostActivityService jobPostActivityService;
+    private JobPostActivityController jobPostActivityController;
+    private Authentication jobSeeker;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("search-" + engine, "search.engine=" + engine);
+        BenchmarkDataset dataset = BenchmarkDataset.seed(context, jobPosts, 42);
+        jobPostActivityService = context.getBean(JobPostActivityService.class);
+        jobPostActivityController = context.getBean(JobPostActivityController.class);
+
+        CustomUserDetails userDetails = dataset.jobSeeker(0);
+        jobSeeker = UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<JobPostActivityDTO> search() {
+        return jobPostActivityService.search("Developer", "Cluj", TYPES, REMOTE, null);
+    }
+
+    @Benchmark
+    public List<JobPostActivityDTO> getAll() {
+        return jobPostActivityService.getAll();
+    }
+
+    @Benchmark
+    public Model dashboard() {
+        return dashboard(null, null);
+    }
+
+    @Benchmark
+    public Model dashboardSearch() {
+        return dashboard("Developer", "Cluj");
+    }
+
+    /**
+     * Calls the dashboard handler the way a request from the job seeker would, with a fresh request
+     * scope so the profile lookup is not shared between operations.
+     */
+    private Model dashboard(String job, String location) {
+        ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+        SecurityContextHolder.getContext().setAuthentication(jobSeeker);
+        try {
+            Model model = new ExtendedModelMap();
+            jobPostActivityController.searchJobs(model, job, location, null, null, null, null, null, null,
+                    false, false, false, null, null);
+            return model;
+        } finally {
+            request.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
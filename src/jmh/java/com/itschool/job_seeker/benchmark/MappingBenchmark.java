@@ -0,0 +1,112 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.entity.JobCompany;
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.entity.JobSeekerProfile;
+import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.entity.UsersType;
+import com.itschool.job_seeker.mapper.JobPostActivityMapper;
+import com.itschool.job_seeker.mapper.JobSeekerProfileMapper;
+import com.itschool.job_seeker.model.JobPostActivityDTO;
+import com.itschool.job_seeker.model.JobPostSummary;
+import com.itschool.job_seeker.model.JobSeekerProfileDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ModelMapper conversion with the hand-written mappers when a list view
+ * of job posts (and profiles) is converted, at 10k rows per operation by default.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="MappingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param("10000")
+    private int rows;
+
+    // Configured the same way as the ModelMapper bean in AppConfig
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final JobPostActivityMapper jobPostActivityMapper = new JobPostActivityMapper();
+    private final JobSeekerProfileMapper jobSeekerProfileMapper = new JobSeekerProfileMapper();
+
+    private List<JobPostActivity> jobPosts;
+    private List<JobSeekerProfile> profiles;
+
+    @Setup
+    public void setUp() {
+        UsersType recruiterType = new UsersType(1L, "Recruiter", null);
+        UsersType seekerType = new UsersType(2L, "Job Seeker", null);
+        jobPosts = new ArrayList<>(rows);
+        profiles = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            long id = i + 1;
+            Users recruiter = new Users(id, "recruiter" + i + "@example.com", "secret", true, new Date(), recruiterType);
+            JobLocation location = new JobLocation(id % 50, "City " + (i % 50), "County " + (i % 20), "Country " + (i % 5));
+            JobCompany company = new JobCompany(id % 200, "Company " + (i % 200), "");
+            jobPosts.add(new JobPostActivity(id, recruiter, location, company, null, null,
+                    "Description of job " + i, "Job title " + i, "Full-Time", "1000", "Remote-Only", new Date()));
+
+            Users seeker = new Users(id, "seeker" + i + "@example.com", "secret", true, new Date(), seekerType);
+            profiles.add(new JobSeekerProfile(id, seeker, "First", "Last", "City", "County", "Country",
+                    "Yes", "Full-Time", "resume.pdf", "photo.png", List.of()));
+        }
+    }
+
+    @Benchmark
+    public List<JobPostActivityDTO> jobPostsModelMapper() {
+        List<JobPostActivityDTO> result = new ArrayList<>(rows);
+        for (JobPostActivity jobPost : jobPosts) {
+            result.add(modelMapper.map(jobPost, JobPostActivityDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<JobPostActivityDTO> jobPostsMapper() {
+        List<JobPostActivityDTO> result = new ArrayList<>(rows);
+        for (JobPostActivity jobPost : jobPosts) {
+            result.add(jobPostActivityMapper.toDTO(jobPost));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<JobPostSummary> jobPostsSummary() {
+        List<JobPostSummary> result = new ArrayList<>(rows);
+        for (JobPostActivity jobPost : jobPosts) {
+            result.add(jobPostActivityMapper.toSummary(jobPost));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<JobSeekerProfileDTO> profilesModelMapper() {
+        List<JobSeekerProfileDTO> result = new ArrayList<>(rows);
+        for (JobSeekerProfile profile : profiles) {
+            result.add(modelMapper.map(profile, JobSeekerProfileDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<JobSeekerProfileDTO> profilesMapper() {
+        List<JobSeekerProfileDTO> result = new ArrayList<>(rows);
+        for (JobSeekerProfile profile : profiles) {
+            result.add(jobSeekerProfileMapper.toDTO(profile));
+        }
+        return result;
+    }
+}
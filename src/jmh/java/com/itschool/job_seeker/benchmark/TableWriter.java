@@ -0,0 +1,162 @@
+package com.itschool.job_seeker.benchmark;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+
+/**
+ * Streams rows into one table as fast as the database accepts them: COPY FROM STDIN on PostgreSQL,
+ * JDBC batches of INSERT statements on any other database (e.g. the embedded H2 of the benchmarks).
+ *
+ * Values are Long, Integer, Boolean, String, Timestamp or null, in the order of the columns. Closing
+ * the writer sends the rows still buffered; the caller commits.
+ */
+interface TableWriter extends AutoCloseable {
+
+    /**
+     * Opens a writer for the given columns of a table.
+     *
+     * @param connection the connection, with auto-commit off
+     * @param table the table name
+     * @param columns the column names
+     * @return a COPY writer on PostgreSQL, a batch writer otherwise
+     */
+    static TableWriter open(Connection connection, String table, String... columns) throws SQLException {
+        String columnList = String.join(", ", columns);
+        if (connection.isWrapperFor(PGConnection.class)) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " (" + columnList + ") FROM STDIN");
+            return new CopyWriter(copyIn);
+        }
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        return new BatchWriter(connection.prepareStatement(
+                "INSERT INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")"));
+    }
+
+    /**
+     * Adds one row.
+     */
+    void row(Object... values) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * Writes the rows in COPY's text format, sent in chunks of about 1 MB.
+     */
+    final class CopyWriter implements TableWriter {
+
+        private static final int CHUNK = 1 << 20;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(CHUNK + 4096);
+
+        private CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                append(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= CHUNK) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+
+        private void append(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+            } else if (value instanceof Boolean bool) {
+                buffer.append(bool ? 't' : 'f');
+            } else if (value instanceof String text) {
+                // Backslash, tab and line breaks are the only characters with a meaning in the text format
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    switch (c) {
+                        case '\\' -> buffer.append("\\\\");
+                        case '\t' -> buffer.append("\\t");
+                        case '\n' -> buffer.append("\\n");
+                        case '\r' -> buffer.append("\\r");
+                        default -> buffer.append(c);
+                    }
+                }
+            } else {
+                buffer.append(value); // Numbers, and timestamps as yyyy-mm-dd hh:mm:ss.fff
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (!buffer.isEmpty()) {
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Inserts the rows with a prepared statement, executed every 5000 rows.
+     */
+    final class BatchWriter implements TableWriter {
+
+        private static final int BATCH_SIZE = 5000;
+
+        private final PreparedStatement statement;
+        private int pending;
+
+        private BatchWriter(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Timestamp timestamp) {
+                    statement.setTimestamp(i + 1, timestamp);
+                } else {
+                    statement.setObject(i + 1, values[i]);
+                }
+            }
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
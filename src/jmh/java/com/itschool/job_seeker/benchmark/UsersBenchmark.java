@@ -0,0 +1,100 @@
+package com.itschool.job_seeker.benchmark;
+
+import com.itschool.job_seeker.model.UsersDTO;
+import com.itschool.job_seeker.services.UsersService;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the user paths on the seeded dataset: the UsersServiceImpl conversions behind a lookup and
+ * a registration (which hashes the password at the configured BCrypt cost), the password check of a
+ * login, and the authority check made on every dashboard request.
+ *
+ * Reports throughput and the latency distribution; the gc profiler adds the allocation rate.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="-f 1 -prof gc UsersBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UsersBenchmark {
+
+    private static final SimpleGrantedAuthority RECRUITER = new SimpleGrantedAuthority("Recruiter");
+
+    @Param("5000")
+    private int jobPosts;
+
+    private ConfigurableApplicationContext context;
+    private UsersService usersService;
+    private EntityManagerFactory entityManagerFactory;
+    private PasswordEncoder passwordEncoder;
+    private BenchmarkDataset dataset;
+    private CustomUserDetails jobSeeker;
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("users");
+        dataset = BenchmarkDataset.seed(context, jobPosts, 42);
+        usersService = context.getBean(UsersService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        passwordEncoder = context.getBean(PasswordEncoder.class);
+        jobSeeker = dataset.jobSeeker(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<UsersDTO> findUserByEmail() {
+        int index = Math.floorMod(lookups.getAndIncrement(), dataset.jobSeekerCount());
+        return usersService.findUserByEmail(dataset.jobSeeker(index).getUsername());
+    }
+
+    @Benchmark
+    public UsersDTO addUser() {
+        UsersDTO usersDTO = new UsersDTO();
+        usersDTO.setEmail("registered" + registrations.incrementAndGet() + "@example.com");
+        usersDTO.setPassword(BenchmarkDataset.PASSWORD);
+        usersDTO.setUserTypeId(2L); // Job Seeker
+
+        // Like the registration request (open-in-view), the whole call shares one persistence context
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return usersService.addUser(usersDTO);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+
+    @Benchmark
+    public boolean passwordMatches() {
+        return passwordEncoder.matches(BenchmarkDataset.PASSWORD, jobSeeker.getPassword());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean isRecruiter() {
+        return jobSeeker.getAuthorities().contains(RECRUITER);
+    }
+}
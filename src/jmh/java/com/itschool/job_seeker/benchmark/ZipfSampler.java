@@ -0,0 +1,47 @@
+package com.itschool.job_seeker.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks 0..n-1 with Zipf probabilities: rank k is chosen in proportion to 1 / (k + 1)^exponent.
+ *
+ * With an exponent around 1 a few values take most of the draws and a long tail takes the rest, as
+ * cities, job titles and job post popularity do on a real job board. The cumulative distribution is
+ * computed once (8 bytes per rank) and each draw is a binary search in it.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    /**
+     * @param n the number of ranks, at least 1
+     * @param exponent the skew: 0 draws uniformly, higher values concentrate the draws on the first ranks
+     */
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1, was " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random the source of randomness, seeded by the caller for repeatable draws
+     * @return a rank from 0 to n - 1
+     */
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // Not found (the usual case): binarySearch returns -(insertion point) - 1
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
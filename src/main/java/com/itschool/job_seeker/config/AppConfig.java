@@ -3,8 +3,10 @@ package com.itschool.job_seeker.config;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling // Enables background jobs such as the search index consistency check
 public class AppConfig {
 
     /**
@@ -0,0 +1,51 @@
+package com.itschool.job_seeker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component // Periodically logs how well each second-level cache region is doing
+public class CacheStatisticsReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheStatisticsReporter.class);
+
+    private final Statistics statistics;
+    private final boolean enabled;
+
+    // Constructor for obtaining the Hibernate statistics of the persistence unit
+    public CacheStatisticsReporter(EntityManagerFactory entityManagerFactory,
+                                   @Value("${cache.statistics.enabled:false}") boolean enabled) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Logs the hit, miss and put counts and the hit ratio of every second-level cache region.
+     *
+     * The counts are cumulative since startup. Nothing is logged unless cache.statistics.enabled is
+     * set (the dev profile) and Hibernate collects statistics (metrics.hibernate.enabled).
+     */
+    @Scheduled(fixedDelayString = "${cache.statistics.log-interval:PT5M}", initialDelayString = "${cache.statistics.log-interval:PT5M}")
+    public void report() {
+        if (!enabled || !statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            long lookups = hits + misses;
+            log.info("Cache region {}: {} hits, {} misses, {} puts, hit ratio {}%", region, hits, misses,
+                    regionStatistics.getPutCount(), lookups == 0 ? 0 : hits * 100 / lookups);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.itschool.job_seeker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component // Bounded, expiring cache of the user details DaoAuthenticationProvider loads at login
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    // Constructor for injecting the size limit and the time to live of the entries
+    public CaffeineUserCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                             @Value("${security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl) // Bounds how long a change made outside the application goes unnoticed
+                .build();
+    }
+
+    /**
+     * Returns the cached details of a user.
+     *
+     * @param username the email of the user
+     * @return the cached user details, or null if not cached
+     */
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    /**
+     * Caches the details of a user who has just been loaded.
+     *
+     * @param user the user details to cache
+     */
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    /**
+     * Removes a user from the cache, so that the next login reads the current credentials.
+     *
+     * @param username the email of the user
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+}
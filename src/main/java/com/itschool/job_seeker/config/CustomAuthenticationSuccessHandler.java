@@ -3,6 +3,8 @@ package com.itschool.job_seeker.config;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
@@ -13,6 +15,8 @@ import java.io.IOException;
 @Component // Indicates that this class is a Spring-managed component
 public class CustomAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(CustomAuthenticationSuccessHandler.class);
+
     /**
      * This method is called when user authentication is successful.
      *
@@ -28,7 +32,7 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal(); // Get the principal (user details)
         String username = userDetails.getUsername(); // Retrieve the username of the authenticated user
-        System.out.println("The username is " + username + " is logged in"); // Log the successful login
+        log.debug("User {} logged in", username); // Log the successful login
 
         // Check if the user has the "Job Seeker" role
         boolean hasJobSeekerRole = authentication.getAuthorities().stream()
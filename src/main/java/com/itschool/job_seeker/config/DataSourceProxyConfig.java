@@ -0,0 +1,44 @@
+package com.itschool.job_seeker.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Wraps the application's DataSource in a datasource-proxy that feeds the SQL logs.
+     *
+     * The slow query log (sql.log.slow-threshold) and the sampled SQL log (sql.log.sample-rate) are
+     * written by SqlLoggingListener. When both are turned off the DataSource is left unwrapped, so
+     * the proxy costs nothing.
+     *
+     * @param environment the environment holding the sql.log settings
+     * @return the post-processor wrapping DataSource beans
+     */
+    @Bean
+    public static BeanPostProcessor sqlLoggingDataSourcePostProcessor(Environment environment) {
+        Duration slowThreshold = environment.getProperty("sql.log.slow-threshold", Duration.class, Duration.ZERO);
+        double sampleRate = environment.getProperty("sql.log.sample-rate", Double.class, 0.0);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || (slowThreshold.isZero() && sampleRate <= 0)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new SqlLoggingListener(slowThreshold, sampleRate))
+                        .build();
+            }
+        };
+    }
+}
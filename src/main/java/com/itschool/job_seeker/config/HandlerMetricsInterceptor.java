@@ -0,0 +1,80 @@
+package com.itschool.job_seeker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+@Component // Records the latency, queries and entity loads of every controller handler
+public class HandlerMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String REQUESTS = "app.handler.requests";
+    public static final String QUERIES = "app.handler.queries";
+    public static final String ENTITY_LOADS = "app.handler.entity.loads";
+
+    private static final String START_ATTR = HandlerMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final HibernateRequestStatistics hibernateRequestStatistics;
+
+    // Constructor for injecting the meter registry and the per-request Hibernate counters
+    public HandlerMetricsInterceptor(MeterRegistry meterRegistry, HibernateRequestStatistics hibernateRequestStatistics) {
+        this.meterRegistry = meterRegistry;
+        this.hibernateRequestStatistics = hibernateRequestStatistics;
+    }
+
+    /**
+     * Notes the start time of a controller request and starts counting its queries and entity loads.
+     * Static resources and other non-controller handlers are not measured.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTR, System.nanoTime());
+            hibernateRequestStatistics.reset();
+        }
+        return true;
+    }
+
+    /**
+     * Records the measurements of the finished request, view rendering included, under the name of
+     * its handler (e.g. "JobPostActivityController.searchJobs").
+     *
+     * The latency is published as a histogram, so p50/p95/p99 can be computed in Prometheus
+     * (histogram_quantile) for one instance or across all of them.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(START_ATTR) instanceof Long start)) {
+            return;
+        }
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        Timer.builder(REQUESTS)
+                .description("Latency of the controller handlers")
+                .tag("handler", name)
+                .tag("outcome", ex != null || response.getStatus() >= 500 ? "error" : "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(QUERIES)
+                .description("SQL statements sent per request")
+                .tag("handler", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(hibernateRequestStatistics.getQueries());
+        DistributionSummary.builder(ENTITY_LOADS)
+                .description("Entities loaded per request")
+                .tag("handler", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(hibernateRequestStatistics.getEntityLoads());
+    }
+}
@@ -0,0 +1,68 @@
+package com.itschool.job_seeker.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads, per thread.
+ *
+ * Hibernate's own statistics are totals for the whole application, so they cannot tell which request
+ * sent which queries. A request runs on one thread from its handler to its view, so counting per
+ * thread between reset() and the end of the request gives that request's numbers (see
+ * HandlerMetricsInterceptor). Registered with Hibernate as both its interceptor and its statement
+ * inspector (see MetricsConfig).
+ */
+@Component
+public class HibernateRequestStatistics implements Interceptor, StatementInspector {
+
+    // Statements prepared and entities loaded by the current thread since its last reset
+    private final transient ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Starts counting from zero for the current thread.
+     */
+    public void reset() {
+        long[] current = counts.get();
+        current[0] = 0;
+        current[1] = 0;
+    }
+
+    /**
+     * Returns the number of SQL statements the current thread prepared since its last reset.
+     *
+     * @return the statement count
+     */
+    public long getQueries() {
+        return counts.get()[0];
+    }
+
+    /**
+     * Returns the number of entities the current thread loaded since its last reset, from the
+     * database or the second-level cache.
+     *
+     * @return the entity load count
+     */
+    public long getEntityLoads() {
+        return counts.get()[1];
+    }
+
+    /**
+     * Counts a statement about to be prepared, leaving its SQL unchanged.
+     */
+    @Override
+    public String inspect(String sql) {
+        counts.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Counts an entity being loaded, leaving its state unchanged.
+     */
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        counts.get()[1]++;
+        return false;
+    }
+}
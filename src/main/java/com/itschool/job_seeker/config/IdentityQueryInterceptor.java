@@ -0,0 +1,45 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.util.RequestIdentity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+@Component // Reports how many identity queries each request made
+public class IdentityQueryInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Identity-Queries";
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityQueryInterceptor.class);
+
+    private final RequestIdentity requestIdentity;
+
+    // Constructor for injecting the request-scoped identity memo
+    public IdentityQueryInterceptor(RequestIdentity requestIdentity) {
+        this.requestIdentity = requestIdentity;
+    }
+
+    /**
+     * Adds the identity query count as a response header once the handler has run, before the
+     * view is rendered and the response is committed.
+     */
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        response.setHeader(HEADER, String.valueOf(requestIdentity.getIdentityQueries()));
+    }
+
+    /**
+     * Logs the identity query count of the finished request.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        log.debug("{} {} made {} identity queries", request.getMethod(), request.getRequestURI(),
+                requestIdentity.getIdentityQueries());
+    }
+}
@@ -0,0 +1,60 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.services.PhotoVariantService;
+import com.itschool.job_seeker.services.ResumeDownloadService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics of the application, exported with the ones of Spring Boot at /actuator/prometheus.
+ *
+ * Spring Boot already times the HTTP requests, the repository methods, the connection pool and
+ * Hibernate (see the management.* properties). Added here: the per-request Hibernate counts used by
+ * HandlerMetricsInterceptor, and the queues of the bounded background pools.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Registers HibernateRequestStatistics as Hibernate's interceptor and statement inspector.
+     *
+     * @param hibernateRequestStatistics the per-thread counters
+     * @return the customizer adding them to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateRequestStatisticsCustomizer(HibernateRequestStatistics hibernateRequestStatistics) {
+        return properties -> {
+            properties.put(AvailableSettings.INTERCEPTOR, hibernateRequestStatistics);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, hibernateRequestStatistics);
+        };
+    }
+
+    /**
+     * Publishes how busy the bounded pools are: password hashing, photo resizing and resume downloads.
+     * A queue that keeps growing means the pool is the bottleneck.
+     *
+     * @return the binder registering the gauges
+     */
+    @Bean
+    public MeterBinder backgroundPoolMetrics(PooledPasswordEncoder passwordEncoder, PhotoVariantService photoVariantService,
+                                             ResumeDownloadService resumeDownloadService) {
+        return registry -> {
+            Gauge.builder("app.password.hashing.queued", passwordEncoder, PooledPasswordEncoder::getQueueDepth)
+                    .description("Password hashes waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("app.password.hashing.active", passwordEncoder, PooledPasswordEncoder::getActiveCount)
+                    .description("Password hashes being computed")
+                    .register(registry);
+            Gauge.builder("app.photo.variants.pending", photoVariantService, PhotoVariantService::getPending)
+                    .description("Photos waiting to be resized")
+                    .register(registry);
+            Gauge.builder("app.resume.downloads.active", resumeDownloadService, ResumeDownloadService::getActiveDownloads)
+                    .description("Resume downloads being served")
+                    .register(registry);
+        };
+    }
+}
@@ -1,11 +1,21 @@
 package com.itschool.job_seeker.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration // This annotation indicates that the class can be used by the Spring IoC container as a source of bean definitions.
 public class MvcConfig implements WebMvcConfigurer {
@@ -13,24 +23,99 @@ public class MvcConfig implements WebMvcConfigurer {
     // Constant that defines the directory where uploaded files are stored
     private static final String UPLOAD_DIR = "photos";
 
+    // URL patterns of the static assets (also bypassed by the security filter chain)
+    public static final String[] STATIC_RESOURCES = {
+            "/webjars/**",
+            "/assets/**",
+            "/css/**",
+            "/fonts/**",
+            "/js/**",
+            "/summernote/**",
+            "/*.css",
+            "/*.js",
+            "/*.js.map",
+            "/favicon.ico"
+    };
+
+    private final HandlerMetricsInterceptor handlerMetricsInterceptor;
+    private final IdentityQueryInterceptor identityQueryInterceptor;
+    private final StaticResourceCacheInterceptor staticResourceCacheInterceptor;
+    private final PhotoVariantResourceResolver photoVariantResourceResolver;
+
+    // Constructor for injecting the interceptors and the photo variant resolver
+    public MvcConfig(HandlerMetricsInterceptor handlerMetricsInterceptor, IdentityQueryInterceptor identityQueryInterceptor,
+                     StaticResourceCacheInterceptor staticResourceCacheInterceptor,
+                     PhotoVariantResourceResolver photoVariantResourceResolver) {
+        this.handlerMetricsInterceptor = handlerMetricsInterceptor;
+        this.identityQueryInterceptor = identityQueryInterceptor;
+        this.staticResourceCacheInterceptor = staticResourceCacheInterceptor;
+        this.photoVariantResourceResolver = photoVariantResourceResolver;
+    }
+
+    /**
+     * Registers the interceptor recording the latency and query counts of each controller handler
+     * (first, so its measurement covers the others), the one that reports the number of identity
+     * queries of each request in the X-Identity-Queries response header, and the one setting the
+     * Cache-Control of static assets.
+     *
+     * @param registry the registry to add the interceptors to
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(handlerMetricsInterceptor);
+        registry.addInterceptor(identityQueryInterceptor);
+        registry.addInterceptor(staticResourceCacheInterceptor).addPathPatterns(STATIC_RESOURCES);
+    }
+
     /**
      * Adds resource handlers for serving static resources.
      *
      * This method is called by the Spring framework to allow custom configuration of resource handling.
+     * They replace Spring Boot's default handlers (spring.web.resources.add-mappings=false).
      *
      * @param registry the registry to add resource handler to
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        exposeStaticResources(registry);
         // Call the method to expose the upload directory for serving static files
         exposeDirectory(UPLOAD_DIR, registry);
     }
 
+    /**
+     * Exposes the static assets and the webjars under content-versioned URLs.
+     *
+     * Templates link assets with @{...}, which the ResourceUrlEncodingFilter rewrites to the
+     * versioned URL (e.g. /css/styles-3f2a...e1.css); url(...) links inside CSS files are rewritten
+     * too. Versioned responses are cached for a year as immutable, plain URLs are revalidated with
+     * their ETag (see StaticResourceCacheInterceptor). Files precompressed at build time (.br, .gz) are served to clients that accept them.
+     *
+     * @param registry the resource handler registry to which the resource handlers will be added
+     */
+    private void exposeStaticResources(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/")
+                .setEtagGenerator(MvcConfig::eTag)
+                .resourceChain(true) // Resolved paths and versions are cached
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer()); // A WebJars resolver is added last, so webjar paths need no version
+
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setEtagGenerator(MvcConfig::eTag)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
     /**
      * Exposes a directory to serve static resources located in the specified upload directory.
      *
      * This method registers a resource handler that allows serving files from a directory on the server
-     * via the web application.
+     * via the web application. Blobs are named after their content, so they are cached for a year;
+     * files from before the blob store can be replaced under the same name and are revalidated.
      *
      * @param uploadDir the directory to expose (e.g., "photos")
      * @param registry the resource handler registry to which the resource handler will be added
@@ -39,10 +124,39 @@ public class MvcConfig implements WebMvcConfigurer {
         // Convert the uploadDir string to a Path object for better path handling
         Path path = Paths.get(uploadDir);
 
+        // Content-addressed blobs and their variants, private as they are only served to signed-in users
+        registry.addResourceHandler("/" + uploadDir + "/blobs/**")
+                .addResourceLocations("file:" + path.toAbsolutePath() + "/blobs/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .setEtagGenerator(MvcConfig::eTag)
+                .resourceChain(false) // Variants appear after the upload, so resolved paths are not cached
+                .addResolver(photoVariantResourceResolver) // Falls back to the original photo until its variant exists
+                .addResolver(new PathResourceResolver());
+
         // Register the resource handler to serve files from the specified directory.
         // This configuration matches requests made to URLs starting with "/photos/**" and serves
         // the corresponding files located in the upload directory on the server.
         registry.addResourceHandler("/" + uploadDir + "/**") // URL pattern to match requests
-                .addResourceLocations("file:" + path.toAbsolutePath() + "/"); // Actual location of the files on the server
+                .addResourceLocations("file:" + path.toAbsolutePath() + "/") // Actual location of the files on the server
+                .setCacheControl(CacheControl.noCache().cachePrivate())
+                .setEtagGenerator(MvcConfig::eTag);
+    }
+
+    /**
+     * Returns the strong ETag of a resource: the content version for versioned resources, otherwise
+     * one derived from the size and modification time, like the resume downloads.
+     *
+     * @param resource the resolved resource
+     * @return the ETag, or null if the resource cannot be read
+     */
+    private static String eTag(Resource resource) {
+        if (resource instanceof HttpResource httpResource && httpResource.getResponseHeaders().getETag() != null) {
+            return httpResource.getResponseHeaders().getETag();
+        }
+        try {
+            return "\"" + Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
     }
 }
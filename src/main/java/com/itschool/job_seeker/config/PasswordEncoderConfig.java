@@ -0,0 +1,125 @@
+package com.itschool.job_seeker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration // Defines how passwords are hashed: the algorithm, its cost and the pool running it
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final String BCRYPT = "bcrypt";
+
+    /**
+     * Configures the password encoder for encoding and verifying passwords.
+     *
+     * New hashes are BCrypt with the configured cost and carry an id prefix ("{bcrypt}$2a$12$...").
+     * Hashes from before this, without a prefix, are still verified as BCrypt. Hashes with another
+     * id or a lower cost are replaced at the next successful login (see
+     * CustomUserDetailServiceImpl.updatePassword). All hashing runs on a bounded pool.
+     *
+     * The cost is pinned in configuration so that every node hashes alike. A cost of 0 calibrates
+     * it on this machine at startup instead, which is meant for finding the value to pin: nodes
+     * calibrating on their own may each pick another cost.
+     *
+     * @param strength the BCrypt cost, or 0 to calibrate it
+     * @param targetHashTime how long one hash should take on this machine, when calibrating
+     * @param minStrength the lowest BCrypt cost to use, whatever the calibration finds
+     * @param maxStrength the highest BCrypt cost to use
+     * @param threads the number of hashing threads, 0 for one per processor
+     * @param queueCapacity the number of hashes that may wait for a thread
+     * @param maxWait how long a login waits for its hash before failing
+     * @return the configured PasswordEncoder
+     */
+    @Bean
+    public PooledPasswordEncoder passwordEncoder(@Value("${security.password.strength:12}") int strength,
+                                                 @Value("${security.password.target-hash-time:PT0.1S}") Duration targetHashTime,
+                                                 @Value("${security.password.min-strength:10}") int minStrength,
+                                                 @Value("${security.password.max-strength:14}") int maxStrength,
+                                                 @Value("${security.password.threads:0}") int threads,
+                                                 @Value("${security.password.queue-capacity:200}") int queueCapacity,
+                                                 @Value("${security.password.max-wait:PT5S}") Duration maxWait) {
+        if (strength <= 0) {
+            strength = calibrateStrength(targetHashTime, minStrength, maxStrength);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new CostAwareBCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder()); // Hashes without an id prefix
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PooledPasswordEncoder(delegating, poolSize, queueCapacity, maxWait);
+    }
+
+    /**
+     * Finds the BCrypt cost whose hash time is closest to the target without going under it.
+     *
+     * The time of one hash at the minimum cost is measured (best of a few, after a warm-up); each
+     * extra cost step doubles it.
+     *
+     * @param target the target time of one hash
+     * @param minStrength the lowest cost to return
+     * @param maxStrength the highest cost to return
+     * @return the calibrated cost
+     */
+    static int calibrateStrength(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode("warm-up");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long time = best;
+        while (time < target.toNanos() && strength < maxStrength) {
+            strength++;
+            time *= 2;
+        }
+        log.info("BCrypt cost calibrated to {} ({} ms per hash at cost {}, target {} ms); "
+                        + "pin it with security.password.strength so that every node uses the same cost",
+                strength, best / 1_000_000, minStrength, target.toMillis());
+        return strength;
+    }
+
+    /**
+     * BCrypt encoder that asks for a rehash when a stored hash has a lower cost than the current one.
+     *
+     * Hashes with a higher cost are kept: they are at least as strong, and rehashing them down
+     * would undo a raise made on purpose, or make nodes with different costs rehash a user back
+     * and forth.
+     */
+    static class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int strength;
+
+        CostAwareBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            // BCrypt hashes look like $2a$12$..., the cost being the two digits after the version
+            if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$') {
+                return super.upgradeEncoding(encodedPassword);
+            }
+            try {
+                return Integer.parseInt(encodedPassword.substring(4, 6)) < strength;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
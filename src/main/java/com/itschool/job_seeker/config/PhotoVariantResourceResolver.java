@@ -0,0 +1,61 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.services.PhotoVariantService;
+import com.itschool.job_seeker.util.BlobKeys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+
+@Component // Answers requests for photo variants that are not generated yet with the original photo
+public class PhotoVariantResourceResolver extends AbstractResourceResolver {
+
+    private final PhotoVariantService photoVariantService;
+
+    // Constructor for injecting the pipeline that generates the variants
+    public PhotoVariantResourceResolver(PhotoVariantService photoVariantService) {
+        this.photoVariantService = photoVariantService;
+    }
+
+    /**
+     * Resolves a file under /photos/blobs. A missing variant is queued for generation (it may have been
+     * skipped while the pipeline was busy) and the original photo is served in the meantime, marked
+     * as not cacheable so that the browser asks again for the variant. The original of a photo
+     * whose variants could not be created is served as it is, cacheable like any other photo.
+     */
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource != null) {
+            return resource;
+        }
+        String original = BlobKeys.originalOfVariant(requestPath);
+        if (original == null) {
+            return null;
+        }
+        // The original sits next to its variants: drop the ".{size}.jpg" suffix
+        String originalPath = requestPath.substring(0, requestPath.lastIndexOf(original) + original.length());
+        Resource fallback = chain.resolveResource(request, originalPath, locations);
+        if (fallback == null || photoVariantService.hasFailed(original)) {
+            return fallback; // No variant will come, the original is what this photo looks like
+        }
+        photoVariantService.submit(original);
+        return new ResponseHeaderResource(fallback, HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+    }
+
+    /**
+     * Resolves public URL paths unchanged.
+     */
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
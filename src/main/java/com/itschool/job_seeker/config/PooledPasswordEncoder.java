@@ -0,0 +1,163 @@
+package com.itschool.job_seeker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Password encoder running every hash on a dedicated, bounded pool of threads.
+ *
+ * However many logins arrive at once, at most as many hashes as there are pool threads run in
+ * parallel, so request handling keeps CPU to work with. Requests wait in a bounded queue; when it
+ * is full, or a hash waits longer than the maximum wait, the login fails fast with an
+ * AuthenticationServiceException instead of piling up.
+ *
+ * The pool uses platform threads in virtual-thread mode too. Hashing is pure CPU work that never
+ * blocks, so on a virtual thread it would keep its carrier thread, one of the few that every
+ * virtual-thread request runs on, for the whole hash; platform threads are time-sliced by the OS
+ * against the carriers instead. The waiting login thread, virtual or not, only parks on the future.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final AtomicLong rejected = new AtomicLong(); // Hashes refused since the last report
+
+    // Constructor taking the encoder doing the work and the limits of the pool
+    public PooledPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Hashes a password on the hashing pool.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its hash on the hashing pool.
+     *
+     * @param rawPassword the password to check
+     * @param encodedPassword the stored hash
+     * @return true if the password matches
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Tells whether a stored hash should be replaced; cheap, so it runs on the calling thread.
+     *
+     * @param encodedPassword the stored hash
+     * @return true if the hash uses another algorithm or cost than the current one
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Returns the number of hashes waiting for a pool thread.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of hashes being computed.
+     *
+     * @return the number of busy pool threads
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Logs the state of the pool while it is under pressure, i.e. when hashes are queued or were refused.
+     */
+    @Scheduled(fixedDelayString = "${security.password.log-interval:PT1M}")
+    public void report() {
+        long refused = rejected.getAndSet(0);
+        int queued = getQueueDepth();
+        if (queued > 0 || refused > 0) {
+            log.warn("Password hashing pool: {} busy, {} queued, {} refused since the last report",
+                    getActiveCount(), queued, refused);
+        }
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     *
+     * @param task the task to run
+     * @return the result of the task
+     * @throws AuthenticationServiceException if the pool is saturated or the wait is too long
+     */
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("Password hashing is overloaded, try again later");
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("Password hashing is overloaded, try again later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing the password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops the pool when the application shuts down.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
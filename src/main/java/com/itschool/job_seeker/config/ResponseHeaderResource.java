@@ -0,0 +1,110 @@
+package com.itschool.job_seeker.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A resolved resource with extra response headers.
+ *
+ * The resource handler writes the headers of an HttpResource after its own, so a resolver can use
+ * this wrapper to override e.g. the Cache-Control of a single response. Headers of the wrapped
+ * resource (such as Content-Encoding or a version ETag) are kept.
+ */
+public class ResponseHeaderResource implements Resource, HttpResource {
+
+    private final Resource resource;
+    private final HttpHeaders headers;
+
+    // Constructor wrapping a resource with one extra header
+    public ResponseHeaderResource(Resource resource, String headerName, String headerValue) {
+        this.resource = resource;
+        this.headers = new HttpHeaders();
+        this.headers.set(headerName, headerValue);
+    }
+
+    /**
+     * Returns the headers of the wrapped resource, with the extra header added or replaced.
+     */
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        HttpHeaders result = new HttpHeaders();
+        if (resource instanceof HttpResource httpResource) {
+            result.putAll(httpResource.getResponseHeaders());
+        }
+        result.putAll(headers);
+        return result;
+    }
+
+    @Override
+    public boolean exists() {
+        return resource.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return resource.isReadable();
+    }
+
+    @Override
+    public boolean isFile() {
+        return resource.isFile();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return resource.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return resource.getURI();
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return resource.getFile();
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        return resource.readableChannel();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return resource.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return resource.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        return resource.createRelative(relativePath);
+    }
+
+    @Override
+    public String getFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return resource.getDescription();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return resource.getInputStream();
+    }
+}
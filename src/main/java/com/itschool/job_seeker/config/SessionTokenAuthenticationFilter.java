@@ -0,0 +1,123 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.util.CustomUserDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Authenticates requests from the signed session token cookie, in place of the HTTP session.
+ *
+ * The token is verified with the keys alone (see SessionTokenCodec), without a database round-trip.
+ * It is reissued once half of its lifetime has passed, so active users stay signed in.
+ *
+ * Not a Spring bean: it is added to the security filter chain only, not to the servlet container.
+ */
+public class SessionTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final SessionTokenCodec codec;
+    private final String cookieName;
+    private final boolean secureCookie;
+
+    // Constructor taking the codec and the attributes of the cookie carrying the token
+    public SessionTokenAuthenticationFilter(SessionTokenCodec codec, String cookieName, boolean secureCookie) {
+        this.codec = codec;
+        this.cookieName = cookieName;
+        this.secureCookie = secureCookie;
+    }
+
+    /**
+     * Sets the authentication of the request from its token, if the token is valid.
+     *
+     * Invalid or expired tokens are removed, and the request goes on as anonymous.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = readToken(request);
+        if (token != null) {
+            Instant now = Instant.now();
+            codec.decode(token, now).ifPresentOrElse(verified -> {
+                CustomUserDetails user = verified.user();
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+                SecurityContextHolder.setContext(context);
+
+                // Reissue the token once it has lived half of its lifetime
+                if (verified.expiresAt().minus(codec.getTtl().dividedBy(2)).isBefore(now)) {
+                    writeCookie(response, codec.encode(user, now), codec.getTtl().toSeconds());
+                }
+            }, () -> writeCookie(response, "", 0));
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Issues the token of a user who has just logged in.
+     *
+     * @param response the response to add the cookie to
+     * @param authentication the authentication of the user
+     */
+    public void issue(HttpServletResponse response, Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails user) {
+            writeCookie(response, codec.encode(user, Instant.now()), codec.getTtl().toSeconds());
+        }
+    }
+
+    /**
+     * Removes the token of a user who logs out.
+     *
+     * @param response the response to add the expired cookie to
+     */
+    public void clear(HttpServletResponse response) {
+        writeCookie(response, "", 0);
+    }
+
+    /**
+     * Returns the token cookie of a request.
+     *
+     * @param request the request
+     * @return the token, or null if the request has none
+     */
+    private String readToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the token cookie to a response.
+     *
+     * @param response the response
+     * @param value the token, empty to remove the cookie
+     * @param maxAgeSeconds the lifetime of the cookie, 0 to remove it
+     */
+    private void writeCookie(HttpServletResponse response, String value, long maxAgeSeconds) {
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+                .path("/")
+                .httpOnly(true) // Not readable by scripts
+                .secure(secureCookie)
+                .sameSite("Lax") // Not sent with cross-site form posts
+                .maxAge(maxAgeSeconds)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,162 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.model.UserCredentials;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the signed session tokens replacing the HTTP session.
+ *
+ * A token reads "kid.payload.signature": the id of the signing key, the Base64url payload
+ * "userId|expiry|userType|email" and its Base64url HMAC-SHA256. Verifying it needs no database or
+ * shared state, only the keys, so any node can authenticate any request.
+ *
+ * Keys are configured as "kid:base64secret" entries in security.session-token.keys. The first one
+ * signs new tokens, the others are only accepted: to rotate, put a new key first and drop the old one
+ * once the tokens it signed have expired (one ttl later). Without keys, startup fails while session
+ * tokens are enabled, unless security.session-token.allow-random-key is set (the dev profile): a
+ * random key would sign tokens that only verify on one node and until it restarts.
+ */
+@Component
+public class SessionTokenCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenCodec.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>(); // By key id, the signing key first
+    private final String signingKeyId;
+    private final Duration ttl;
+
+    // Constructor for injecting the keys, the lifetime of the tokens and whether a random key may stand in for missing keys
+    public SessionTokenCodec(@Value("${security.session-token.keys:}") List<String> keys,
+                             @Value("${security.session-token.ttl:PT8H}") Duration ttl,
+                             @Value("${security.session-token.enabled:true}") boolean enabled,
+                             @Value("${security.session-token.allow-random-key:false}") boolean allowRandomKey) {
+        for (String entry : keys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0 || entry.indexOf('.') >= 0) {
+                throw new IllegalArgumentException("Session token keys must be given as kid:base64secret, with no '.' in the kid");
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("Session token key " + entry.substring(0, separator) + " must be at least 256 bits");
+            }
+            this.keys.put(entry.substring(0, separator).trim(), new SecretKeySpec(secret, ALGORITHM));
+        }
+        if (this.keys.isEmpty()) {
+            if (enabled && !allowRandomKey) {
+                throw new IllegalStateException("No security.session-token.keys configured: give every node the same keys "
+                        + "(e.g. in SECURITY_SESSION_TOKEN_KEYS), or set security.session-token.allow-random-key=true for local development");
+            }
+            // Tokens then only verify on this node and until it restarts
+            log.warn("No security.session-token.keys configured, signing session tokens with a random key");
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            this.keys.put("local", new SecretKeySpec(secret, ALGORITHM));
+        }
+        this.signingKeyId = this.keys.keySet().iterator().next();
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Issues a token for a user who has just logged in.
+     *
+     * @param user the details of the user
+     * @param now the current time
+     * @return the signed token
+     */
+    public String encode(CustomUserDetails user, Instant now) {
+        String payload = user.getUserId() + "|" + now.plus(ttl).getEpochSecond() + "|"
+                + (user.getUserTypeName() != null ? user.getUserTypeName() : "") + "|" + user.getUsername();
+        String signed = signingKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(sign(keys.get(signingKeyId), signed));
+    }
+
+    /**
+     * Verifies a token and rebuilds the details of its user.
+     *
+     * The details carry no password: they are only used to identify the user in later requests.
+     *
+     * @param token the token sent by the client
+     * @param now the current time
+     * @return the user's details and the expiry of the token, or empty if the token is malformed, forged, signed with an unknown key or expired
+     */
+    public Optional<Token> decode(String token, Instant now) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            return Optional.empty();
+        }
+        SecretKeySpec key = keys.get(token.substring(0, first));
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(last + 1));
+            if (!MessageDigest.isEqual(signature, sign(key, token.substring(0, last)))) {
+                return Optional.empty();
+            }
+
+            String[] fields = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8).split("\\|", 4);
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[1]));
+            if (!now.isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            CustomUserDetails user = new CustomUserDetails(new UserCredentials(Long.valueOf(fields[0]), fields[3], null,
+                    true, fields[2].isEmpty() ? null : fields[2]));
+            return Optional.of(new Token(user, expiresAt));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty(); // Not Base64, or not the expected fields
+        }
+    }
+
+    /**
+     * Computes the HMAC of the signed part of a token.
+     *
+     * @param key the signing key
+     * @param signed the key id and payload
+     * @return the signature
+     */
+    private static byte[] sign(SecretKeySpec key, String signed) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * A verified token: the user it was issued to and when it expires.
+     */
+    public record Token(CustomUserDetails user, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.itschool.job_seeker.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.listener.logging.QueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs SQL statements executed through the proxied DataSource, with their bind values.
+ *
+ * Two loggers are written to: "sql.slow" gets every statement that took at least the slow threshold
+ * (at WARN), and "sql.sample" gets a random sample of all statements (at INFO). A statement is only
+ * formatted when it is actually going to be logged, so statements that are neither slow nor sampled
+ * cost a clock read and a random number.
+ */
+public class SqlLoggingListener implements QueryExecutionListener {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+    private static final Logger sampleLog = LoggerFactory.getLogger("sql.sample");
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+    private final QueryLogEntryCreator entryCreator = new DefaultQueryLogEntryCreator();
+
+    // Constructor taking the slow threshold (zero disables the slow log) and the sample rate (0 to 1)
+    public SqlLoggingListener(Duration slowThreshold, double sampleRate) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Nothing to do before a statement runs; the proxy measures the execution time itself.
+     */
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    /**
+     * Logs the statement if it was slow or picked for the sample.
+     *
+     * @param execInfo the execution details, including the elapsed time
+     * @param queryInfoList the statement(s) executed and their bind values
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (slowThresholdMillis > 0 && execInfo.getElapsedTime() >= slowThresholdMillis && slowLog.isWarnEnabled()) {
+            slowLog.warn(entryCreator.getLogEntry(execInfo, queryInfoList, true, true, false));
+        } else if (sampleRate > 0 && sampleLog.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampleLog.info(entryCreator.getLogEntry(execInfo, queryInfoList, true, true, false));
+        }
+    }
+}
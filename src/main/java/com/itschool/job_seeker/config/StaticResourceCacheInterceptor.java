@@ -0,0 +1,36 @@
+package com.itschool.job_seeker.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Component // Sets the Cache-Control of static assets, depending on whether the URL is content-versioned
+public class StaticResourceCacheInterceptor implements HandlerInterceptor {
+
+    // File names with the MD5 content version added by the VersionResourceResolver, e.g. styles-3f2a...e1.css
+    private static final Pattern VERSIONED = Pattern.compile(".*-[0-9a-f]{32}\\.[^/]+$");
+
+    // Versioned URLs change with the content, so their responses never need to be revalidated
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    // Plain URLs may serve new content after a deployment, so they are revalidated with their ETag
+    private static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    /**
+     * Sets the Cache-Control header before the resource handler writes the response.
+     *
+     * This is done per request rather than per resource, as the CSS transformer replaces the
+     * resolved resource (and any header it carries) when it rewrites links.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean versioned = VERSIONED.matcher(request.getRequestURI()).matches();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+        return true;
+    }
+}
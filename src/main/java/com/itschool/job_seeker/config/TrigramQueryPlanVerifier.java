@@ -0,0 +1,91 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.model.JobPostCursor;
+import com.itschool.job_seeker.repository.JobListingViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component // Startup self-check for the trigram search engine
+@Profile("trgm") // Only relevant when the pg_trgm indexes and queries are in use
+@ConditionalOnProperty(name = "search.trigram.verify.enabled", havingValue = "true", matchIfMissing = true)
+public class TrigramQueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramQueryPlanVerifier.class);
+
+    // Plan nodes that mean a search table is read from start to end
+    private static final List<String> SEQUENTIAL_SCANS = List.of(
+            "Seq Scan on job_listing_view");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean failOnSeqScan;
+    private final String sampleJob;
+    private final String sampleLocation;
+
+    // Constructor for injecting the JDBC template and the check settings
+    public TrigramQueryPlanVerifier(NamedParameterJdbcTemplate jdbcTemplate,
+                                    @Value("${search.trigram.verify.fail-on-seq-scan:false}") boolean failOnSeqScan,
+                                    @Value("${search.trigram.verify.sample-job:developer}") String sampleJob,
+                                    @Value("${search.trigram.verify.sample-location:bucharest}") String sampleLocation) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnSeqScan = failOnSeqScan;
+        this.sampleJob = sampleJob;
+        this.sampleLocation = sampleLocation;
+    }
+
+    /**
+     * Runs EXPLAIN on the paginated trigram search query once the application is ready.
+     *
+     * If the plan contains a sequential scan over job_listing_view the indexes are
+     * not being used; this is logged as a warning, or fails startup when
+     * search.trigram.verify.fail-on-seq-scan is true. Note that on very small tables PostgreSQL
+     * rightly prefers a sequential scan, so the check is only meaningful on realistic data volumes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        List<String> plan = explain();
+        List<String> scans = plan.stream()
+                .filter(line -> SEQUENTIAL_SCANS.stream().anyMatch(line::contains))
+                .toList();
+
+        if (scans.isEmpty()) {
+            log.info("Trigram search query plan uses the trigram indexes");
+            return;
+        }
+
+        String message = "Trigram search query plan regressed to a sequential scan:\n" + String.join("\n", plan);
+        if (failOnSeqScan) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * Explains the trigram search query with representative parameters.
+     *
+     * @return List<String> the lines of the query plan
+     */
+    private List<String> explain() {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("job", "%" + sampleJob + "%")
+                .addValue("location", "%" + sampleLocation + "%")
+                .addValue("type", List.of("Part-Time", "Full-Time", "Freelance"))
+                .addValue("remote", List.of("Remote-Only", "Office-Only", "Hybrid"))
+                .addValue("date", LocalDate.EPOCH)
+                .addValue("cursorDate", JobPostCursor.FIRST.getPostedDate())
+                .addValue("cursorId", JobPostCursor.FIRST.getJobPostId())
+                .addValue("limit", 20);
+
+        return jdbcTemplate.queryForList("EXPLAIN " + JobListingViewRepository.TRIGRAM_SEARCH_PAGE_SQL, parameters, String.class);
+    }
+}
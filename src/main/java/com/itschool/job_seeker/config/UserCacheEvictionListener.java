@@ -0,0 +1,31 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.entity.Users;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+
+@Component // Entity listener of Users, instantiated by Spring through Hibernate's bean container
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserCache> userCache;
+
+    // Constructor for injecting the login cache (absent in JPA-only test slices)
+    public UserCacheEvictionListener(ObjectProvider<UserCache> userCache) {
+        this.userCache = userCache;
+    }
+
+    /**
+     * Evicts a user from the login cache whenever the user's row changes, e.g. a new password
+     * hash or user type, so that the next login sees it.
+     *
+     * @param user the updated or removed user
+     */
+    @PostUpdate
+    @PostRemove
+    public void evict(Users user) {
+        userCache.ifAvailable(cache -> cache.removeUserFromCache(user.getEmail()));
+    }
+}
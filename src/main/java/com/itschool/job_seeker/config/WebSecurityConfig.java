@@ -1,6 +1,8 @@
 package com.itschool.job_seeker.config;
 
 import com.itschool.job_seeker.services.CustomUserDetailsService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -8,9 +10,17 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.List;
 
 @Configuration // Indicates that this class can be used by the Spring IoC container as a source of bean definitions
 @EnableWebSecurity // Enables Spring Security’s web security support and provides the Spring MVC integration
@@ -18,87 +28,154 @@ public class WebSecurityConfig {
 
     private final CustomUserDetailsService customUserDetailsService; // Service for loading user-specific data
     private final CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler; // Custom handler for successful authentication
+    private final UserCache userCache; // Cache of the user details loaded at login
+    private final SessionTokenAuthenticationFilter sessionTokenFilter; // Null when the HTTP session is used instead
+    private final int serverPort;
+    private final int managementPort; // 0 when the actuator shares the application's port
+    private final List<IpAddressMatcher> scrapeAddresses; // Clients allowed to read the metrics on the application's port
 
     // Constructor for injecting dependencies
-    public WebSecurityConfig(CustomUserDetailsService customUserDetailsService, CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler) {
+    public WebSecurityConfig(CustomUserDetailsService customUserDetailsService, CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler,
+                             UserCache userCache, SessionTokenCodec sessionTokenCodec,
+                             @Value("${security.session-token.enabled:true}") boolean sessionTokenEnabled,
+                             @Value("${security.session-token.cookie-name:JS_SESSION}") String sessionTokenCookieName,
+                             @Value("${security.session-token.secure-cookie:false}") boolean sessionTokenSecureCookie,
+                             @Value("${server.port:8080}") int serverPort,
+                             @Value("${management.server.port:0}") int managementPort,
+                             @Value("${management.prometheus.allowed-addresses:}") List<String> scrapeAddresses) {
         this.customUserDetailsService = customUserDetailsService;
         this.customAuthenticationSuccessHandler = customAuthenticationSuccessHandler;
+        this.userCache = userCache;
+        this.sessionTokenFilter = sessionTokenEnabled
+                ? new SessionTokenAuthenticationFilter(sessionTokenCodec, sessionTokenCookieName, sessionTokenSecureCookie)
+                : null;
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
+        this.scrapeAddresses = scrapeAddresses.stream()
+                .filter(address -> !address.isBlank())
+                .map(address -> new IpAddressMatcher(address.trim()))
+                .toList();
     }
 
     // List of public URLs that Spring Security will allow access without authentication
+    // (static assets bypass the filter chain entirely, see webSecurityCustomizer)
     private final String[] publicURL = {
             "/",
             "/global-search/**",
             "/register",
             "/register/**",
-            "/webjars/**",
-            "/resources/**",
-            "/assets/**",
-            "/css/**",
-            "/summernote/**",
-            "/js/**",
-            "/*.css",
-            "/*.js",
-            "/*.js.map",
-            "/fonts**",
-            "/favicon.ico",
             "/resources/**",
-            "/error"
+            "/error",
+            "/actuator/health"
     };
 
     /**
      * Configures the security filter chain for handling HTTP security.
      *
+     * With session tokens enabled (the default), no HTTP session is created: the login issues a
+     * signed token cookie and every request is authenticated from it, so any node can serve any
+     * request without sticky sessions or a shared session store.
+     *
      * @param http the HttpSecurity object to configure
+     * @param authenticationProvider the provider authenticating the form logins
      * @return the configured SecurityFilterChain
      * @throws Exception if there is an error in configuring the security
      */
     @Bean
-    protected SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    protected SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
 
         // Specify the authentication provider to use
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
 
         // Set up authorization rules
         http.authorizeHttpRequests(auth -> {
             auth.requestMatchers(publicURL).permitAll(); // Allow public access to specified URLs
+            auth.requestMatchers(this::isMetricsScrape).permitAll(); // Prometheus, from the monitoring network only
+            auth.requestMatchers("/actuator/prometheus").denyAll(); // Not even for logged-in users on the application's port
             auth.anyRequest().authenticated(); // All other requests require authentication
         });
 
         // Set up the form login configuration
-        http.formLogin(form -> form.loginPage("/login").permitAll() // Allow anyone to access the login page
-                        .successHandler(customAuthenticationSuccessHandler)) // Use custom success handler
+        http.formLogin(form -> {
+                    form.loginPage("/login").permitAll(); // Allow anyone to access the login page
+                    form.successHandler((request, response, authentication) -> {
+                        if (sessionTokenFilter != null) {
+                            sessionTokenFilter.issue(response, authentication); // Hand the token to the browser
+                        }
+                        customAuthenticationSuccessHandler.onAuthenticationSuccess(request, response, authentication); // Use custom success handler
+                    });
+                    if (sessionTokenFilter != null) {
+                        SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler("/login?error");
+                        failureHandler.setAllowSessionCreation(false); // The error is shown from the URL, not kept in a session
+                        form.failureHandler(failureHandler);
+                    }
+                })
                 .logout(logout -> {
                     logout.logoutUrl("/logout"); // Logout URL
                     logout.logoutSuccessUrl("/"); // Redirect to home after logout
+                    if (sessionTokenFilter != null) {
+                        logout.addLogoutHandler((request, response, authentication) -> sessionTokenFilter.clear(response));
+                    }
                 })
                 .cors(Customizer.withDefaults()) // Enable CORS with default configurations
                 .csrf(csrf -> csrf.disable()); // Disable CSRF protection for simplicity (consider for production)
 
+        if (sessionTokenFilter != null) {
+            http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)); // Never create or read an HTTP session
+            http.requestCache(cache -> cache.requestCache(new NullRequestCache())); // Logins always land on the dashboard, no need to save the request
+            http.addFilterBefore(sessionTokenFilter, UsernamePasswordAuthenticationFilter.class); // Authenticate from the token cookie
+        }
+
         return http.build(); // Build and return the security filter chain
     }
 
     /**
-     * Configures the authentication provider that will load user-specific data and authenticate users.
+     * Tells whether a request is a metrics scrape that needs no login.
      *
-     * @return the configured AuthenticationProvider
+     * The actuator's own port (management.server.port, set in the prod profile) is reachable from
+     * the monitoring network only, so everything on it is open. On the application's port the
+     * Prometheus endpoint is only open to the addresses in management.prometheus.allowed-addresses;
+     * it is denied to anyone else, logged in or not.
+     *
+     * @param request the current request
+     * @return true if the request may read the metrics without authentication
      */
-    @Bean
-    public AuthenticationProvider authenticationProvider() {
+    private boolean isMetricsScrape(HttpServletRequest request) {
+        if (managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort) {
+            return true;
+        }
+        return "/actuator/prometheus".equals(request.getRequestURI())
+                && scrapeAddresses.stream().anyMatch(address -> address.matches(request));
+    }
 
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(); // Create a new authentication provider
-        authProvider.setPasswordEncoder(passwordEncoder()); // Set the password encoder for hashing
-        authProvider.setUserDetailsService(customUserDetailsService); // Set the custom user details service
-        return authProvider; // Return the configured authentication provider
+    /**
+     * Excludes the static assets from the security filter chain.
+     *
+     * They are public and the same for every user, so they need neither a security context nor a
+     * session lookup, and they keep their own Cache-Control headers. Uploaded photos are not
+     * excluded, they remain visible to signed-in users only.
+     *
+     * @return the customizer ignoring the static asset paths
+     */
+    @Bean
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(MvcConfig.STATIC_RESOURCES);
     }
 
     /**
-     * Configures the password encoder for encoding and verifying passwords.
+     * Configures the authentication provider that will load user-specific data and authenticate users.
      *
-     * @return the configured PasswordEncoder
+     * @param passwordEncoder the pooled encoder defined in PasswordEncoderConfig
+     * @return the configured AuthenticationProvider
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Use BCrypt for password encoding
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
+
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(); // Create a new authentication provider
+        authProvider.setPasswordEncoder(passwordEncoder); // Set the password encoder for hashing
+        authProvider.setUserDetailsService(customUserDetailsService); // Set the custom user details service
+        authProvider.setUserDetailsPasswordService(customUserDetailsService); // Rehash outdated hashes after a successful login
+        authProvider.setUserCache(userCache); // Skip the user query on repeated logins (a stale hash is retried against the database)
+        return authProvider; // Return the configured authentication provider
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.itschool.job_seeker.controller;
 import com.itschool.job_seeker.entity.*;
 import com.itschool.job_seeker.model.*;
 import com.itschool.job_seeker.services.JobPostActivityService;
+import com.itschool.job_seeker.services.JobPostImportService;
 import com.itschool.job_seeker.services.UsersService;
 import com.itschool.job_seeker.services.impl.JobSeekerApplyServiceImpl;
 import com.itschool.job_seeker.services.impl.JobSeekerSaveServiceImpl;
@@ -17,12 +18,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Controller
 public class JobPostActivityController {
@@ -31,13 +36,16 @@ public class JobPostActivityController {
     private final JobPostActivityService jobPostActivityService; // Service for job post activities
     private final JobSeekerApplyServiceImpl jobSeekerApplyServiceImpl; // Service for job applications
     private final JobSeekerSaveServiceImpl jobSeekerSaveServiceImpl; // Service for saved job posts
+    private final JobPostImportService jobPostImportService; // Service for bulk job post imports
 
     // Constructor to initialize services
-    public JobPostActivityController(UsersService usersService, JobPostActivityService jobPostActivityService, JobSeekerApplyServiceImpl jobSeekerApplyServiceImpl, JobSeekerSaveServiceImpl jobSeekerSaveServiceImpl) {
+    public JobPostActivityController(UsersService usersService, JobPostActivityService jobPostActivityService, JobSeekerApplyServiceImpl jobSeekerApplyServiceImpl, JobSeekerSaveServiceImpl jobSeekerSaveServiceImpl,
+                                     JobPostImportService jobPostImportService) {
         this.usersService = usersService;
         this.jobPostActivityService = jobPostActivityService;
         this.jobSeekerApplyServiceImpl = jobSeekerApplyServiceImpl;
         this.jobSeekerSaveServiceImpl = jobSeekerSaveServiceImpl;
+        this.jobPostImportService = jobPostImportService;
     }
 
     /**
@@ -59,6 +67,8 @@ public class JobPostActivityController {
      * @param today filter for jobs posted today
      * @param days7 filter for jobs posted in the last 7 days
      * @param days30 filter for jobs posted in the last 30 days
+     * @param cursor token of the results page to show (null for the first page)
+     * @param size number of results per page (null for the default)
      * @return String representing the view name (dashboard)
      */
     @GetMapping("/dashboard/")
@@ -73,7 +83,9 @@ public class JobPostActivityController {
                              @RequestParam(value = "hybrid", required = false) String hybrid, // Hybrid jobs filter
                              @RequestParam(value = "today", required = false) boolean today, // Jobs posted today filter
                              @RequestParam(value = "days7", required = false) boolean days7, // Jobs posted in the last 7 days filter
-                             @RequestParam(value = "days30", required = false) boolean days30 // Jobs posted in the last 30 days filter
+                             @RequestParam(value = "days30", required = false) boolean days30, // Jobs posted in the last 30 days filter
+                             @RequestParam(value = "cursor", required = false) String cursor, // Results page token
+                             @RequestParam(value = "size", required = false) Integer size // Results page size
     ) {
 
         // Adds filter parameters to the model for access in the view
@@ -90,7 +102,7 @@ public class JobPostActivityController {
         model.addAttribute("location", location); // Add location to the model
 
         LocalDate searchDate = null; // Initialize variable for search date
-        List<JobPostActivityDTO> jobPost = null; // List for job postings
+        CursorPage<JobPostSummary> jobPostPage = null; // Page of job postings
 
         boolean dateSearchFlag = false; // Flag to check if a date filter is applied
         boolean remote = true; // Flag to check if remote jobs should be included
@@ -123,15 +135,6 @@ public class JobPostActivityController {
             type = false; // Assume not filtering by job type
         }
 
-        // Determine which job posts to fetch based on selected criteria
-        if (!dateSearchFlag && !remote && !type && !StringUtils.hasText(job) && !StringUtils.hasText(location)) {
-            jobPost = jobPostActivityService.getAll(); // Fetch all jobs if no filters specified
-        } else {
-            // Fetch jobs based on provided search criteria
-            jobPost = jobPostActivityService.search(job, location, Arrays.asList(partTime, fullTime, freelance),
-                    Arrays.asList(remoteOnly, officeOnly, hybrid), searchDate);
-        }
-
         // Retrieve the current user profile
         Object currentUserProfile = usersService.getCurrentUserProfile();
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -146,40 +149,30 @@ public class JobPostActivityController {
                 List<RecruiterJobsDTO> recruiterJobs = jobPostActivityService.getRecruiterJobs(((RecruiterProfile) currentUserProfile).getUserAccountId());
                 model.addAttribute("jobPost", recruiterJobs); // Add recruiter jobs to the model
             } else {
-                // If the user is a job seeker
-                List<JobSeekerApply> jobSeekerApplyList = jobSeekerApplyServiceImpl.getCandidatesJobs((JobSeekerProfile) currentUserProfile);
-                List<JobSeekerSave> jobSeekerSaveList = jobSeekerSaveServiceImpl.getCandidatesJob((JobSeekerProfile) currentUserProfile);
-
-                // Check each job post to see if it's active or saved by the user
-                boolean exist;
-                boolean saved;
-
-                for (JobPostActivityDTO jobActivity : jobPost) {
-                    exist = false; // Flag to indicate if the job was found in applied jobs
-                    saved = false; // Flag to indicate if the job was saved by the user
-                    for (JobSeekerApply jobSeekerApply : jobSeekerApplyList) {
-                        if (Objects.equals(jobActivity.getJobPostId(), jobSeekerApply.getJob().getJobPostId())) {
-                            jobActivity.setIsActive(true); // Set job as active if found in applied jobs
-                            exist = true;
-                            break; // Exit the loop if found
-                        }
-                    }
-                    for (JobSeekerSave jobSeekerSave : jobSeekerSaveList) {
-                        if (Objects.equals(jobActivity.getJobPostId(), jobSeekerSave.getJob().getJobPostId())) {
-                            jobActivity.setIsSaved(true); // Set job as saved if found in saved jobs
-                            saved = true;
-                            break; // Exit the loop if found
-                        }
-                    }
-                    // If job not found in applied list, set its status
-                    if (!exist) {
-                        jobActivity.setIsActive(false); // Mark as not active if not applied
-                    }
-                    if (!saved) {
-                        jobActivity.setIsSaved(false); // Mark as not saved if not saved
-                    }
+                // Determine which job posts to fetch based on selected criteria, one page at a time
+                if (!dateSearchFlag && !remote && !type && !StringUtils.hasText(job) && !StringUtils.hasText(location)) {
+                    jobPostPage = jobPostActivityService.getPage(cursor, size); // Fetch all jobs if no filters specified
+                } else {
+                    // Fetch jobs based on provided search criteria
+                    jobPostPage = jobPostActivityService.searchPage(job, location, Arrays.asList(partTime, fullTime, freelance),
+                            Arrays.asList(remoteOnly, officeOnly, hybrid), searchDate, cursor, size);
                 }
+                List<JobPostSummary> jobPost = jobPostPage.getContent();
+
+                // If the user is a job seeker, look up only which jobs on this page were applied to or saved
+                Long seekerId = currentUserProfile instanceof JobSeekerProfile seekerProfile ? seekerProfile.getUserAccountId() : null;
+                List<Long> jobPostIds = jobPost.stream().map(JobPostSummary::jobPostId).toList();
+                Set<Long> appliedJobIds = jobSeekerApplyServiceImpl.getAppliedJobIds(seekerId, jobPostIds);
+                Set<Long> savedJobIds = jobSeekerSaveServiceImpl.getSavedJobIds(seekerId, jobPostIds);
+
+                // Flag each job post on the page as applied and/or saved with a constant-time set lookup
+                jobPost = jobPost.stream()
+                        .map(jobActivity -> jobActivity.withViewerState(appliedJobIds.contains(jobActivity.jobPostId()),
+                                savedJobIds.contains(jobActivity.jobPostId())))
+                        .toList();
                 model.addAttribute("jobPost", jobPost); // Add updated job postings to the model
+                model.addAttribute("nextCursor", jobPostPage.getNextCursor()); // Token of the next results page
+                model.addAttribute("cursor", cursor); // Token of the current results page
             }
         }
         model.addAttribute("user", currentUserProfile); // Add current user profile to the model
@@ -204,6 +197,8 @@ public class JobPostActivityController {
      * @param today filter for jobs posted today
      * @param days7 filter for jobs posted in the last 7 days
      * @param days30 filter for jobs posted in the last 30 days
+     * @param cursor token of the results page to show (null for the first page)
+     * @param size number of results per page (null for the default)
      * @return String representing the view name (global-search)
      */
     @GetMapping("global-search/")
@@ -219,7 +214,9 @@ public class JobPostActivityController {
             @RequestParam(value = "hybrid", required = false) String hybrid,
             @RequestParam(value = "today", required = false) boolean today,
             @RequestParam(value = "days7", required = false) boolean days7,
-            @RequestParam(value = "days30", required = false) boolean days30) {
+            @RequestParam(value = "days30", required = false) boolean days30,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
 
         // Adds filter parameters to the model for access in the view
         model.addAttribute("partTime", Objects.equals(partTime, "Part-Time"));
@@ -235,7 +232,7 @@ public class JobPostActivityController {
         model.addAttribute("location", location); // Add location to the model
 
         LocalDate searchDate = null; // Initialize search date variable
-        List<JobPostActivityDTO> jobPost = null; // List for job postings
+        CursorPage<JobPostSummary> jobPostPage = null; // Page of job postings
 
         boolean dateSearchFlag = false; // Flag to check if a date filter is applied
         boolean remote = true; // Flag to check if remote jobs should be included
@@ -268,17 +265,19 @@ public class JobPostActivityController {
             type = false; // Assume not filtering by job type
         }
 
-        // Determine which job posts to fetch based on selected criteria
+        // Determine which job posts to fetch based on selected criteria, one page at a time
         if (!dateSearchFlag && !remote && !type && !StringUtils.hasText(job) && !StringUtils.hasText(location)) {
-            jobPost = jobPostActivityService.getAll(); // Fetch all jobs if no filters specified
+            jobPostPage = jobPostActivityService.getPage(cursor, size); // Fetch all jobs if no filters specified
         } else {
             // Fetch jobs based on provided search criteria
-            jobPost = jobPostActivityService.search(job, location,
+            jobPostPage = jobPostActivityService.searchPage(job, location,
                     Arrays.asList(partTime, fullTime, freelance),
-                    Arrays.asList(remoteOnly, officeOnly, hybrid), searchDate);
+                    Arrays.asList(remoteOnly, officeOnly, hybrid), searchDate, cursor, size);
         }
 
-        model.addAttribute("jobPost", jobPost); // Add the job postings to the model
+        model.addAttribute("jobPost", jobPostPage.getContent()); // Add the job postings to the model
+        model.addAttribute("nextCursor", jobPostPage.getNextCursor()); // Token of the next results page
+        model.addAttribute("cursor", cursor); // Token of the current results page
         return "global-search"; // Return view name for the global search
     }
 
@@ -325,6 +324,47 @@ public class JobPostActivityController {
         return "redirect:/dashboard/"; // Redirect to the dashboard
     }
 
+    /**
+     * Handler for rendering the bulk job import form.
+     *
+     * @param model the Model object used to pass data to the view
+     * @return String representing the view name (import-jobs)
+     */
+    @GetMapping("/dashboard/import")
+    public String importJobs(Model model) {
+        model.addAttribute("user", usersService.getCurrentUserProfile()); // Add current user profile to the model
+        return "import-jobs"; // Return view name for importing jobs
+    }
+
+    /**
+     * Handler for processing a bulk job import.
+     *
+     * This method imports the job posts of an uploaded CSV or JSON-lines file for the current
+     * recruiter and shows how many were imported, with the error of every rejected row.
+     *
+     * @param file the uploaded file
+     * @param model the Model object used to pass data to the view
+     * @return String representing the view name (import-jobs), or a redirect to the dashboard for job seekers
+     * @throws IOException if the uploaded file cannot be read
+     */
+    @PostMapping("/dashboard/import")
+    public String importJobs(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        Object currentUserProfile = usersService.getCurrentUserProfile();
+        if (!(currentUserProfile instanceof RecruiterProfile recruiterProfile)) {
+            return "redirect:/dashboard/"; // Only recruiters post jobs
+        }
+
+        // The upload is streamed from its temporary file, row by row
+        try (InputStream input = file.getInputStream()) {
+            model.addAttribute("report", jobPostImportService.importJobPosts(input, file.getOriginalFilename(),
+                    recruiterProfile.getUserAccountId()));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage()); // Unsupported file type
+        }
+        model.addAttribute("user", currentUserProfile); // Add current user profile to the model
+        return "import-jobs"; // Return view name with the import report
+    }
+
     /**
      * Handler for rendering the edit job posting form.
      *
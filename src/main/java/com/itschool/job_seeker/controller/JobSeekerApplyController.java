@@ -3,6 +3,7 @@ package com.itschool.job_seeker.controller;
 import com.itschool.job_seeker.entity.*;
 import com.itschool.job_seeker.model.RecruiterProfileDTO;
 import com.itschool.job_seeker.services.JobPostActivityService;
+import com.itschool.job_seeker.services.JobPostStatsService;
 import com.itschool.job_seeker.services.JobSeekerProfileService;
 import com.itschool.job_seeker.services.RecruiterProfileService;
 import com.itschool.job_seeker.services.UsersService;
@@ -19,9 +20,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
 @Controller
 @RequestMapping
@@ -33,14 +32,16 @@ public class JobSeekerApplyController {
     private final JobSeekerSaveServiceImpl jobSeekerSaveService;
     private final RecruiterProfileService recruiterProfileService;
     private final JobSeekerProfileService jobSeekerProfileService;
+    private final JobPostStatsService jobPostStatsService;
 
-    public JobSeekerApplyController(JobPostActivityService jobPostActivityService, UsersService usersService, JobSeekerApplyServiceImpl jobSeekerApplyService, JobSeekerSaveServiceImpl jobSeekerSaveService, RecruiterProfileService recruiterProfileService, JobSeekerProfileService jobSeekerProfileService) {
+    public JobSeekerApplyController(JobPostActivityService jobPostActivityService, UsersService usersService, JobSeekerApplyServiceImpl jobSeekerApplyService, JobSeekerSaveServiceImpl jobSeekerSaveService, RecruiterProfileService recruiterProfileService, JobSeekerProfileService jobSeekerProfileService, JobPostStatsService jobPostStatsService) {
         this.jobPostActivityService = jobPostActivityService;
         this.usersService = usersService;
         this.jobSeekerApplyService = jobSeekerApplyService;
         this.jobSeekerSaveService = jobSeekerSaveService;
         this.recruiterProfileService = recruiterProfileService;
         this.jobSeekerProfileService = jobSeekerProfileService;
+        this.jobPostStatsService = jobPostStatsService;
     }
 
     /**
@@ -57,8 +58,11 @@ public class JobSeekerApplyController {
     @GetMapping("/job-details-apply/{id}")
     public String display(@PathVariable("id") Long id, Model model) {
         JobPostActivity jobDetails = jobPostActivityService.getOne(id);
-        List<JobSeekerApply> jobSeekerApplyList = jobSeekerApplyService.getJobCandidates(jobDetails);
-        List<JobSeekerSave> jobSeekerSaveList = jobSeekerSaveService.getJobCandidates(jobDetails);
+        // Count the view in the job post's counters, except the poster's own
+        Users viewer = usersService.getCurrentUser();
+        jobPostStatsService.recordView(jobDetails.getJobPostId(),
+                jobDetails.getPostedById() == null ? null : jobDetails.getPostedById().getUserId(),
+                viewer == null ? null : viewer.getUserId());
 
         // Obtain the authentication object to check user type
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -68,25 +72,15 @@ public class JobSeekerApplyController {
             if(authentication.getAuthorities().contains(new SimpleGrantedAuthority("Recruiter"))) {
                RecruiterProfileDTO user = recruiterProfileService.getCurrentRecruiterProfile(); // Get the current recruiter's profile
                 if(user != null) {
+                   List<JobSeekerApply> jobSeekerApplyList = jobSeekerApplyService.getJobCandidates(jobDetails); // Candidates are only needed by recruiters
                    model.addAttribute("applyList", jobSeekerApplyList); // Add the candidate applications to the model
                }
             }else{
                 JobSeekerProfile user = jobSeekerProfileService.getCurrentSeekerProfile(); // Get the current job seeker profile
                 if(user != null) {
-                    boolean exists = false;
-                    boolean saved = false;
-                    for(JobSeekerApply jobSeekerApply : jobSeekerApplyList) {
-                        if(jobSeekerApply.getUserId().getUserAccountId() == user.getUserAccountId()) {
-                            exists = true;
-                            break;
-                        }
-                    }
-                    for(JobSeekerSave jobSeekerSave : jobSeekerSaveList) {
-                        if(jobSeekerSave.getUserId().getUserAccountId() == user.getUserAccountId()) {
-                            saved = true;
-                            break;
-                        }
-                    }
+                    // Check this job seeker's own application and save directly instead of scanning every candidate
+                    boolean exists = jobSeekerApplyService.hasApplied(user.getUserAccountId(), jobDetails.getJobPostId());
+                    boolean saved = jobSeekerSaveService.hasSaved(user.getUserAccountId(), jobDetails.getJobPostId());
                     // Add flags to model to indicate whether the job-seeker has already applied or saved the job
                     model.addAttribute("alreadyApplied", exists);
                     model.addAttribute("alreadySaved", saved);
@@ -105,6 +99,7 @@ public class JobSeekerApplyController {
      *
      * This method processes POST requests to the "/job-details/apply/{id}" URL.
      * It creates a new job application for the job seeker and redirects them to the dashboard.
+     * The application is linked to the job seeker and job post by ID, without loading either.
      *
      * @param id the ID of the job post to apply for
      * @param jobSeekerApply the JobSeekerApply entity to hold application data
@@ -118,23 +113,12 @@ public class JobSeekerApplyController {
 
         // Check if the user is authenticated
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName(); // Get the authenticated user's username
-            Users user = usersService.findByEmail(username); // Fetch the user by email
-
-            // Fetching the JobSeekerProfile entity directly, not the DTO
-            Optional<JobSeekerProfile> seekerProfile = jobSeekerProfileService.getOne(user.getUserId());
-            JobPostActivity jobPostActivity = jobPostActivityService.getOne(id);
-
-            // Check if the seeker profile and job post are valid
-            if (seekerProfile.isPresent() && jobPostActivity != null) {
-                jobSeekerApply = new JobSeekerApply();
-                jobSeekerApply.setUserId(seekerProfile.get());
-                jobSeekerApply.setJob(jobPostActivity);
-                jobSeekerApply.setApplyDate(new Date(System.currentTimeMillis()));
-            } else {
+            // The job seeker's ID comes from the login details (it is also their profile's ID)
+            Long seekerId = usersService.getCurrentJobSeekerId();
+            if (seekerId == null) {
                 throw new RuntimeException("user not found"); // Handle case where user is not valid
             }
-            jobSeekerApplyService.addNew(jobSeekerApply); // Save the new job application
+            jobSeekerApplyService.addNew(seekerId, id, jobSeekerApply != null ? jobSeekerApply.getCoverLetter() : null); // Save the new job application
         }
         return "redirect:/dashboard/";
     }
@@ -4,22 +4,20 @@ import com.itschool.job_seeker.entity.JobSeekerProfile;
 import com.itschool.job_seeker.entity.Skills;
 import com.itschool.job_seeker.entity.Users;
 import com.itschool.job_seeker.model.JobSeekerProfileDTO;
-import com.itschool.job_seeker.repository.UsersRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
 import com.itschool.job_seeker.services.JobSeekerProfileService;
-import com.itschool.job_seeker.util.FileDownloadUtil;
-import com.itschool.job_seeker.util.FileUploadUtil;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import com.itschool.job_seeker.services.PhotoVariantService;
+import com.itschool.job_seeker.services.ResumeDownloadService;
+import com.itschool.job_seeker.services.UsersService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -34,13 +32,23 @@ import java.util.Optional;
 @RequestMapping("/job-seeker-profile")
 public class JobSeekerProfileController {
 
-    private final JobSeekerProfileService jobSeekerProfileService; // Service to handle job seeker profiles
-    private final UsersRepository usersRepository; // Repository for user data
+    private static final Logger log = LoggerFactory.getLogger(JobSeekerProfileController.class);
 
-    // Constructor for dependency injection of services and repositories
-    public JobSeekerProfileController(JobSeekerProfileService jobSeekerProfileService, UsersRepository usersRepository) {
+    private final JobSeekerProfileService jobSeekerProfileService; // Service to handle job seeker profiles
+    private final UsersService usersService; // Service resolving the current user
+    private final ResumeDownloadService resumeDownloadService; // Service streaming stored resumes
+    private final BlobStoreService blobStoreService; // Content-addressed store for uploaded files
+    private final PhotoVariantService photoVariantService; // Background pipeline resizing uploaded photos
+
+    // Constructor for dependency injection of services
+    public JobSeekerProfileController(JobSeekerProfileService jobSeekerProfileService, UsersService usersService,
+                                      ResumeDownloadService resumeDownloadService, BlobStoreService blobStoreService,
+                                      PhotoVariantService photoVariantService) {
         this.jobSeekerProfileService = jobSeekerProfileService;
-        this.usersRepository = usersRepository;
+        this.usersService = usersService;
+        this.resumeDownloadService = resumeDownloadService;
+        this.blobStoreService = blobStoreService;
+        this.photoVariantService = photoVariantService;
     }
 
     /**
@@ -58,14 +66,8 @@ public class JobSeekerProfileController {
 
         // Ensure that the user is authenticated (not anonymous)
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String currentUsername = authentication.getName(); // Get the authenticated user's username
-
-            // Fetch user by email, throwing an exception if the user is not found
-            Users user = usersRepository.findByEmail(currentUsername)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-            // Retrieve the job-seeker profile associated with the user
-            Optional<JobSeekerProfile> jobSeekerProfileOpt = jobSeekerProfileService.getOne(user.getUserId());
+            // Retrieve the job-seeker profile associated with the user (resolved once per request)
+            Optional<JobSeekerProfile> jobSeekerProfileOpt = Optional.ofNullable(jobSeekerProfileService.getCurrentSeekerProfile());
 
             // Check if the profile exists
             if (jobSeekerProfileOpt.isPresent()) {
@@ -107,9 +109,7 @@ public class JobSeekerProfileController {
 
         // Check if the user is authenticated
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String currentUsername = authentication.getName(); // Get the authenticated user's username
-            Users user = usersRepository.findByEmail(currentUsername)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Handle user not found
+            Users user = usersService.getCurrentUser(); // Get the authenticated user without a lookup by email
 
             // Set the user ID and user account ID in the DTO for profile saving
             jobSeekerProfileDTO.setUserId(user);
@@ -129,41 +129,29 @@ public class JobSeekerProfileController {
             jobSeekerProfileDTO.setSkills(skills); // Set the updated skills in the DTO
         }
 
-        String imageName = ""; // Initialize filename for the profile photo
-        String resumeName = ""; // Initialize filename for the resume
-
-        // Check if a profile photo file was uploaded
-        if (!image.getOriginalFilename().equals("")) {
-            imageName = StringUtils.cleanPath(Objects.requireNonNull(image.getOriginalFilename())); // Clean the file name
-            jobSeekerProfileDTO.setProfilePhoto(imageName); // Set the profile photo in the DTO
-        }
-
-        // Check if a resume file was uploaded
-        if (!pdf.getOriginalFilename().equals("")) {
-            resumeName = StringUtils.cleanPath(Objects.requireNonNull(pdf.getOriginalFilename())); // Clean the file name
-            jobSeekerProfileDTO.setResume(resumeName); // Set the resume filename in the DTO
-        }
-
-        // Save the job-seeker profile using the service
-        JobSeekerProfileDTO savedProfile = jobSeekerProfileService.addNew(jobSeekerProfileDTO);
-
-        try { // Attempt to save the uploaded files
-            String uploadDir = "photos/candidate/" + savedProfile.getUserAccountId(); // Create upload directory path
-
-            // Save the profile photo if provided
+        try { // Store the uploaded files; identical content is only stored once
+            // Store the profile photo if provided and keep its blob key in the DTO
             if (!Objects.equals(image.getOriginalFilename(), "")) {
-                FileUploadUtil.saveFile(uploadDir, imageName, image); // Save the file using utility method
+                jobSeekerProfileDTO.setProfilePhoto(blobStoreService.store(image));
+                photoVariantService.submit(jobSeekerProfileDTO.getProfilePhoto()); // Thumbnails are made in the background
             }
 
-            // Save the resume if provided
+            // Store the resume if provided and keep its blob key in the DTO
             if (!Objects.equals(pdf.getOriginalFilename(), "")) {
-                FileUploadUtil.saveFile(uploadDir, resumeName, pdf); // Save the file using utility method
+                jobSeekerProfileDTO.setResume(blobStoreService.store(pdf));
             }
-
-        } catch (Exception e) {
-            e.printStackTrace(); // Print the stack trace if an exception occurs during file saving
+        } catch (IOException e) {
+            log.error("Could not save the uploaded files, keeping the stored ones", e);
+            // The files of the saved profile, not the values the form sent back, which may be missing
+            Optional<JobSeekerProfile> stored = jobSeekerProfileDTO.getUserAccountId() == null ? Optional.empty()
+                    : jobSeekerProfileService.getOne(jobSeekerProfileDTO.getUserAccountId());
+            jobSeekerProfileDTO.setProfilePhoto(stored.map(JobSeekerProfile::getProfilePhoto).orElse(null));
+            jobSeekerProfileDTO.setResume(stored.map(JobSeekerProfile::getResume).orElse(null));
         }
 
+        // Save the job-seeker profile using the service (this also moves the file references)
+        jobSeekerProfileService.addNew(jobSeekerProfileDTO);
+
         return "redirect:/dashboard/"; // Redirect to the dashboard after saving
     }
 
@@ -191,37 +179,20 @@ public class JobSeekerProfileController {
      * Handles the download of a resume file.
      *
      * This method serves the resume file for download when a GET request is made to "/downloadResume".
+     * The file is located from the resume stored in the job seeker's profile and streamed, with sendfile
+     * only when downloads are not limited (see ResumeDownloadServiceImpl); Range, If-Range and
+     * If-None-Match requests are supported.
      *
-     * @param filename the name of the file to download
+     * @param filename the name of the file to download (kept for existing links, the stored name is used)
      * @param userId the ID of the user associated with the resume
-     * @return ResponseEntity containing the file resource or an error message
+     * @param request the current request, for its conditional and range headers
+     * @param response the response the file is written to
+     * @throws IOException if the file cannot be read or the client goes away
      */
     @GetMapping("/downloadResume")
-    public ResponseEntity<?> downloadResume(@RequestParam(value = "fileName") String filename,
-                                            @RequestParam("userId") String userId) {
-        FileDownloadUtil fileDownloadUtil = new FileDownloadUtil(); // Initialize the file download utility
-
-        Resource resource = null; // Resource to hold the file resource
-
-        // Attempt to get the file as a resource
-        try {
-            resource = fileDownloadUtil.getFileAsResource("/photos/candidate/" + userId, filename); // Load the file resource
-        } catch (IOException e) {
-            return ResponseEntity.notFound().build(); // Return not found response if an error occurs
-        }
-
-        // Check if the resource is null and return an error response if so
-        if (resource == null) {
-            return new ResponseEntity<>("File not found", HttpStatus.NOT_FOUND);
-        }
-
-        String contentType = "application/octet-stream"; // Set content type for the download
-        String headerValue = "attachment; filename=\"" + resource.getFilename() + "\""; // Set the header to trigger download
-
-        // Return the file resource as a downloadable response
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, headerValue)
-                .body(resource);
+    public void downloadResume(@RequestParam(value = "fileName", required = false) String filename,
+                               @RequestParam("userId") Long userId,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        resumeDownloadService.download(userId, request, response); // Send the stored resume, or an error status
     }
 }
\ No newline at end of file
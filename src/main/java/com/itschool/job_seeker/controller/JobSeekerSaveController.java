@@ -1,9 +1,8 @@
 package com.itschool.job_seeker.controller;
 
-import com.itschool.job_seeker.entity.JobPostActivity;
 import com.itschool.job_seeker.entity.JobSeekerProfile;
 import com.itschool.job_seeker.entity.JobSeekerSave;
-import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.model.JobPostSummary;
 import com.itschool.job_seeker.services.JobPostActivityService;
 import com.itschool.job_seeker.services.JobSeekerProfileService;
 import com.itschool.job_seeker.services.UsersService;
@@ -17,9 +16,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Controller
 public class JobSeekerSaveController {
@@ -48,6 +45,7 @@ public class JobSeekerSaveController {
      *
      * This method handles POST requests to the "job-details/save/{id}" URL,
      * which allows a user to save a job post for later reference.
+     * The save is linked to the job seeker and job post by ID, without loading either.
      *
      * @param id the ID of the job post to save
      * @param jobSeekerSave the object containing details of the job seeker saving the job
@@ -60,20 +58,13 @@ public class JobSeekerSaveController {
 
         // Ensure the user is authenticated (not anonymous)
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName(); // Get the authenticated user's username
-            Users user = usersService.findByEmail(username); // Fetch user by their email
-            Optional<JobSeekerProfile> seekerProfile = jobSeekerProfileService.getOne(user.getUserId()); // Get the job seeker profile by user ID
-            JobPostActivity jobPostActivity = jobPostActivityService.getOne(id); // Get the job post activity by ID
+            Long seekerId = usersService.getCurrentJobSeekerId(); // The job seeker's ID (and profile ID) from the login details
 
-            // Check if the job seeker profile and job post exist
-            if (seekerProfile.isPresent() && jobPostActivity != null) {
-                // Set the job and user ID in the jobSeekerSave entity
-                jobSeekerSave.setJob(jobPostActivity);
-                jobSeekerSave.setUserId(seekerProfile.get());
-            } else {
-                throw new RuntimeException("User not found"); // Handle case where profile or job post is not found
+            // Check that the user is a job seeker
+            if (seekerId == null) {
+                throw new RuntimeException("User not found"); // Handle case where the user is not a job seeker
             }
-            jobSeekerSaveService.addNew(jobSeekerSave); // Save the jobSeekerSave entity to the database
+            jobSeekerSaveService.addNew(seekerId, id); // Save the job for the job seeker
         }
 
         return "redirect:/dashboard/"; // Redirect to dashboard after saving the job
@@ -90,17 +81,10 @@ public class JobSeekerSaveController {
      */
     @GetMapping("saved-jobs/")
     public String savedJobs(Model model) {
-        // Initialize a list to hold the saved job posts
-        List<JobPostActivity> jobPost = new ArrayList<>();
         Object currentUserProfile = usersService.getCurrentUserProfile(); // Get the current user's profile
 
-        // Retrieve the list of jobs saved by the current job seeker
-        List<JobSeekerSave> jobSeekerSaveList = jobSeekerSaveServiceImpl.getCandidatesJob((JobSeekerProfile) currentUserProfile);
-
-        // Loop through saved jobs and add them to the job post list
-        for (JobSeekerSave jobSeekerSave : jobSeekerSaveList) {
-            jobPost.add(jobSeekerSave.getJob()); // Add the job associated with the saved entry
-        }
+        // Retrieve the list view of the jobs saved by the current job seeker in a single query
+        List<JobPostSummary> jobPost = jobSeekerSaveServiceImpl.getSavedJobSummaries((JobSeekerProfile) currentUserProfile);
 
         // Add the job post list and user profile to the model for the view
         model.addAttribute("jobPost", jobPost);
@@ -2,22 +2,24 @@ package com.itschool.job_seeker.controller;
 
 import com.itschool.job_seeker.entity.Users;
 import com.itschool.job_seeker.model.RecruiterProfileDTO;
-import com.itschool.job_seeker.repository.UsersRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
+import com.itschool.job_seeker.services.PhotoVariantService;
 import com.itschool.job_seeker.services.RecruiterProfileService;
-import com.itschool.job_seeker.util.FileUploadUtil;
+import com.itschool.job_seeker.services.UsersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -25,13 +27,20 @@ import java.util.Optional;
 @RequestMapping("/recruiter-profile") // Base URL for all recruiter profile-related endpoints
 public class RecruiterProfileController {
 
-    private final UsersRepository usersRepository; // Repository for user-related database operations
+    private static final Logger log = LoggerFactory.getLogger(RecruiterProfileController.class);
+
+    private final UsersService usersService; // Service resolving the current user
     private final RecruiterProfileService recruiterProfileService; // Service for handling recruiter profile operations
+    private final BlobStoreService blobStoreService; // Content-addressed store for uploaded files
+    private final PhotoVariantService photoVariantService; // Background pipeline resizing uploaded photos
 
     // Constructor to inject the necessary dependencies
-    public RecruiterProfileController(UsersRepository usersRepository, RecruiterProfileService recruiterProfileService) {
-        this.usersRepository = usersRepository;
+    public RecruiterProfileController(UsersService usersService, RecruiterProfileService recruiterProfileService,
+                                      BlobStoreService blobStoreService, PhotoVariantService photoVariantService) {
+        this.usersService = usersService;
         this.recruiterProfileService = recruiterProfileService;
+        this.blobStoreService = blobStoreService;
+        this.photoVariantService = photoVariantService;
     }
 
     /**
@@ -49,12 +58,8 @@ public class RecruiterProfileController {
 
         // Ensure the user is authenticated (not anonymous)
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String currentUsername = authentication.getName(); // Get the authenticated user's username
-            Users user = usersRepository.findByEmail(currentUsername) // Fetch user by email
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Handle case where user is not found
-
-            // Retrieve the recruiter profile associated with the user
-            Optional<RecruiterProfileDTO> recruiterProfile = recruiterProfileService.getOne(user.getUserId());
+            // Retrieve the recruiter profile associated with the user (resolved once per request)
+            Optional<RecruiterProfileDTO> recruiterProfile = Optional.ofNullable(recruiterProfileService.getCurrentRecruiterProfile());
 
             // Add the recruiter profile DTO to the model for the view
             if (recruiterProfile.isPresent()) {
@@ -86,9 +91,7 @@ public class RecruiterProfileController {
 
         // Ensure the user is authenticated (not anonymous)
         if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String currentUsername = authentication.getName(); // Get the authenticated user's username
-            Users user = usersRepository.findByEmail(currentUsername) // Fetch user by email
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found")); // Handle case where user is not found
+            Users user = usersService.getCurrentUser(); // Get the authenticated user without a lookup by email
 
             // Set user ID and account ID in the DTO for saving
             recruiterProfileDTO.setUserId(user);
@@ -98,25 +101,22 @@ public class RecruiterProfileController {
         // Add the profile DTO to the model for the view
         model.addAttribute("profile", recruiterProfileDTO);
 
-        // Initialize variable for the uploaded file name
-        String fileName = "";
         // Check if a file was uploaded
-        if (!multipartFile.getOriginalFilename().equals("")) {
-            fileName = StringUtils.cleanPath(Objects.requireNonNull(multipartFile.getOriginalFilename())); // Clean the file name to avoid issues
-            recruiterProfileDTO.setProfilePhoto(fileName); // Set the profile photo in the DTO
+        if (!Objects.equals(multipartFile.getOriginalFilename(), "")) {
+            try { // Store the photo; identical content is only stored once
+                recruiterProfileDTO.setProfilePhoto(blobStoreService.store(multipartFile)); // Keep its blob key in the DTO
+                photoVariantService.submit(recruiterProfileDTO.getProfilePhoto()); // Thumbnails are made in the background
+            } catch (IOException e) {
+                log.error("Could not save the uploaded photo, keeping the stored one", e);
+                // The photo of the saved profile, not the value the form sent back, which may be missing
+                recruiterProfileDTO.setProfilePhoto(recruiterProfileDTO.getUserAccountId() == null ? null
+                        : recruiterProfileService.getOne(recruiterProfileDTO.getUserAccountId())
+                                .map(RecruiterProfileDTO::getProfilePhoto).orElse(null));
+            }
         }
 
-        // Save the recruiter profile using the service
-        RecruiterProfileDTO savedProfile = recruiterProfileService.addNew(recruiterProfileDTO);
-
-        // Define the directory for saving the uploaded photo
-        String uploadDir = "photos/recruiter/" + savedProfile.getUserAccountId();
-
-        try { // Attempt to save the uploaded file
-            FileUploadUtil.saveFile(uploadDir, fileName, multipartFile); // Save the file using a utility method
-        } catch (Exception e) {
-            e.printStackTrace(); // Print stack trace if an exception occurs during file saving
-        }
+        // Save the recruiter profile using the service (this also moves the photo reference)
+        recruiterProfileService.addNew(recruiterProfileDTO);
 
         return "redirect:/dashboard/";  // Redirect to the dashboard after saving the profile
     }
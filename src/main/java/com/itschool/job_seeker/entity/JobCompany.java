@@ -1,17 +1,26 @@
 package com.itschool.job_seeker.entity;
 
+import com.itschool.job_seeker.util.DimensionKeys;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_job_company_normalized_key", columnNames = "normalizedKey"))
+@Cacheable // Shared by many job posts, served from the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job-company")
 public class JobCompany {
 
     @Id
@@ -20,4 +29,19 @@ public class JobCompany {
 
     private String name;
     private String logo;
+
+    // One row per company name, see DimensionKeys; nullable so that Hibernate can add it to an existing table
+    private String normalizedKey;
+
+    public JobCompany(Long id, String name, String logo) {
+        this.Id = id;
+        this.name = name;
+        this.logo = logo;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateNormalizedKey() {
+        normalizedKey = DimensionKeys.company(name);
+    }
 }
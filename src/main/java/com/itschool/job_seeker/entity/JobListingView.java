@@ -0,0 +1,44 @@
+package com.itschool.job_seeker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Date;
+
+/**
+ * Denormalized read copy of a job post with its location and company, one row per job post.
+ *
+ * The list pages (dashboard, global search, saved jobs, recruiter jobs) read this single table
+ * instead of joining job_post_activity, job_location and job_company. Rows are written with SQL
+ * upserts only (see JobListingViewRepository): when a job post is saved, and by the reconciliation
+ * job that repairs any drift. The covering indexes are created in db/schema.sql.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable // Never written through the persistence context
+@Table(name = "job_listing_view")
+public class JobListingView {
+
+    @Id
+    private Long jobPostId; // Same value as JobPostActivity.jobPostId
+
+    private Long postedById;
+    private String jobTitle;
+    private String jobType;
+    private String remote;
+    private String salary;
+    private Date postedDate;
+
+    private Long locationId;
+    private String city;
+    private String county;
+    private String country;
+
+    private Long companyId;
+    private String companyName;
+}
@@ -1,14 +1,18 @@
 package com.itschool.job_seeker.entity;
 
+import com.itschool.job_seeker.util.DimensionKeys;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_job_location_normalized_key", columnNames = "normalizedKey"))
+@Cacheable // Shared by many job posts, served from the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job-location")
 public class JobLocation {
 
     @Id
@@ -18,4 +22,22 @@ public class JobLocation {
     private String city;
     private String county;
     private String country;
+
+    // One row per location, see DimensionKeys; nullable so that Hibernate can add it to an existing table.
+    // Long enough for three 255-character values and their two separators
+    @Column(length = 767)
+    private String normalizedKey;
+
+    public JobLocation(Long id, String city, String county, String country) {
+        this.Id = id;
+        this.city = city;
+        this.county = county;
+        this.country = country;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateNormalizedKey() {
+        normalizedKey = DimensionKeys.location(city, county, country);
+    }
 }
@@ -13,21 +13,39 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_job_post_activity_posted", columnList = "posted_date, job_post_id"), // Keyset pagination order
+        @Index(name = "idx_job_post_activity_posted_by", columnList = "posted_by_id") // Recruiter dashboard
+})
+// Associations are lazy; each use case fetches what it renders in the same query through one of these graphs
+@NamedEntityGraph(name = JobPostActivity.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("jobLocationId"),
+        @NamedAttributeNode("jobCompanyId")
+})
+@NamedEntityGraph(name = JobPostActivity.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("postedById"),
+        @NamedAttributeNode("jobLocationId"),
+        @NamedAttributeNode("jobCompanyId")
+})
 public class JobPostActivity {
 
+    public static final String LISTING_GRAPH = "JobPostActivity.listing"; // Lists of job posts: location and company
+    public static final String DETAILS_GRAPH = "JobPostActivity.details"; // Job details page: the poster as well
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long jobPostId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="postedById", referencedColumnName = "userId")
     private Users postedById;
 
-    @ManyToOne(cascade = CascadeType.PERSIST) // Adjust cascade type as needed
+    // Locations and companies are shared rows, resolved by JobDimensionService; a job post never writes them
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="jobLocationId", referencedColumnName = "Id")
     private JobLocation jobLocationId;
 
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="jobCompanyId", referencedColumnName = "Id")
     private JobCompany jobCompanyId;
 
@@ -0,0 +1,27 @@
+package com.itschool.job_seeker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running counters for a job post, so dashboards can read them without counting the source rows.
+ *
+ * Rows are created and incremented with atomic upserts (see JobPostStatsRepository) and periodically
+ * rebuilt from job_seeker_apply and job_seeker_save by the reconciliation job.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "job_post_stats")
+public class JobPostStats {
+
+    @Id
+    private Long jobPostId; // Same value as JobPostActivity.jobPostId
+
+    private long applicants; // Number of job seekers who applied
+    private long saves; // Number of job seekers who saved the job post
+    private long views; // Number of times the job details page was opened
+}
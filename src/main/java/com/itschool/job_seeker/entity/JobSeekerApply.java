@@ -19,17 +19,19 @@ import java.util.Date;
 })
 public class JobSeekerApply implements Serializable {
 
+    // Sequence IDs (handed out 50 at a time) let Hibernate batch the inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_seeker_apply_seq")
+    @SequenceGenerator(name = "job_seeker_apply_seq", sequenceName = "job_seeker_apply_seq", allocationSize = 50)
     private Long id;
 
 
 
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name="userId", referencedColumnName = "user_account_id")
     private JobSeekerProfile userId;
 
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name="job", referencedColumnName = "jobPostId")
     private JobPostActivity job;
 
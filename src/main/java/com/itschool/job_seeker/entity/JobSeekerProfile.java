@@ -1,6 +1,6 @@
 package com.itschool.job_seeker.entity;
 
-
+import com.itschool.job_seeker.util.BlobKeys;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -16,7 +16,7 @@ public class JobSeekerProfile {
     @Id
     private Long userAccountId;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_account_id")
     @MapsId
     private Users userId;
@@ -38,6 +38,8 @@ public class JobSeekerProfile {
     @Transient
     public String getPhotosImagePath(){
         if(profilePhoto == null || userAccountId == null) return null;
+        // Photos in the content-addressed store are shown as their thumbnail; the original is only served on demand
+        if(BlobKeys.isBlobKey(profilePhoto)) return "/photos/" + BlobKeys.variantPath(profilePhoto, BlobKeys.THUMBNAIL_SIZE);
         return "/photos/candidate/"+userAccountId+"/"+profilePhoto;
     }
 
@@ -1,5 +1,6 @@
 package com.itschool.job_seeker.entity;
 
+import com.itschool.job_seeker.util.BlobKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,7 @@ public class RecruiterProfile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long userAccountId;
 
-    @OneToOne // Indicates a one-to-one relationship with Users entity.
+    @OneToOne(fetch = FetchType.LAZY) // Indicates a one-to-one relationship with Users entity, loaded when first accessed.
     @JoinColumn(name = "user_account_id") // Defines the foreign key column in the recruiter_profile table that refers to Users.
     @MapsId // Specifies that the primary key of RecruiterProfile is mapped to the primary key of the associated Users entity.
     private Users userId;
@@ -41,6 +42,9 @@ public class RecruiterProfile {
     public String getPhotosImagePath(){
         if(profilePhoto == null){
             return null;
+        }else if(BlobKeys.isBlobKey(profilePhoto)){
+            // Photos in the content-addressed store are shown as their thumbnail; the original is only served on demand
+            return "/photos/" + BlobKeys.variantPath(profilePhoto, BlobKeys.THUMBNAIL_SIZE);
         }else {
             return "/photos/recruiter/" + userAccountId + "/" + profilePhoto;
         }
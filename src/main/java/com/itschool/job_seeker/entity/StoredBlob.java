@@ -0,0 +1,37 @@
+package com.itschool.job_seeker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * An uploaded file stored once under its content hash, with the number of profiles referencing it.
+ *
+ * Rows are written with atomic statements (see StoredBlobRepository). A blob nobody has referenced
+ * for the grace period is deleted, file included, by the garbage collection job.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "stored_blob", indexes = {
+        @Index(name = "idx_stored_blob_ref_count", columnList = "ref_count, updated_at") // Garbage collection scan
+})
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String blobKey; // Content hash and extension, also the file name (see BlobKeys)
+
+    private long size; // File size in bytes
+    private long refCount; // Number of profile fields referencing the blob
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt; // Last upload or reference change, starts the garbage collection grace period
+}
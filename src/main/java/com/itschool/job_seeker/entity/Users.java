@@ -1,6 +1,7 @@
 package com.itschool.job_seeker.entity;
 
 
+import com.itschool.job_seeker.config.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
@@ -15,6 +16,7 @@ import java.util.Date;
 @NoArgsConstructor
 @Entity  // Annotation to tell Hibernate that this class is an entity and should be persisted in the database
 @Table(name="users") // Annotation to tell Hibernate that this entity should be mapped to the 'users' table in the database
+@EntityListeners(UserCacheEvictionListener.class) // Keeps the login cache in step with password and type changes
 public class Users {
 
 
@@ -3,6 +3,8 @@ package com.itschool.job_seeker.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -11,6 +13,8 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "users_type")
+@Cacheable // Reference data, served from the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users-type")
 public class UsersType {
 
     @Id
@@ -0,0 +1,87 @@
+package com.itschool.job_seeker.mapper;
+
+import com.itschool.job_seeker.entity.JobCompany;
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostActivityDTO;
+import com.itschool.job_seeker.model.JobPostSummary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps job posts between their entity, DTO and list view forms.
+ */
+@Component
+public class JobPostActivityMapper {
+
+    /**
+     * Converts a JobPostActivity entity to JobPostActivityDTO.
+     *
+     * @param jobPostActivity the JobPostActivity entity to convert (may be null)
+     * @return JobPostActivityDTO the corresponding DTO representation, or null
+     */
+    public JobPostActivityDTO toDTO(JobPostActivity jobPostActivity) {
+        if (jobPostActivity == null) {
+            return null;
+        }
+        JobPostActivityDTO dto = new JobPostActivityDTO();
+        dto.setJobPostId(jobPostActivity.getJobPostId());
+        dto.setPostedById(jobPostActivity.getPostedById());
+        dto.setJobLocationId(jobPostActivity.getJobLocationId());
+        dto.setJobCompanyId(jobPostActivity.getJobCompanyId());
+        dto.setIsActive(jobPostActivity.getIsActive());
+        dto.setIsSaved(jobPostActivity.getIsSaved());
+        dto.setDescriptionOfJob(jobPostActivity.getDescriptionOfJob());
+        dto.setJobTitle(jobPostActivity.getJobTitle());
+        dto.setJobType(jobPostActivity.getJobType());
+        dto.setSalary(jobPostActivity.getSalary());
+        dto.setRemote(jobPostActivity.getRemote());
+        dto.setPostedDate(jobPostActivity.getPostedDate());
+        return dto;
+    }
+
+    /**
+     * Converts a JobPostActivityDTO to JobPostActivity entity.
+     *
+     * @param jobPostActivityDTO the JobPostActivityDTO to convert (may be null)
+     * @return JobPostActivity the corresponding entity representation, or null
+     */
+    public JobPostActivity toEntity(JobPostActivityDTO jobPostActivityDTO) {
+        if (jobPostActivityDTO == null) {
+            return null;
+        }
+        JobPostActivity jobPostActivity = new JobPostActivity();
+        jobPostActivity.setJobPostId(jobPostActivityDTO.getJobPostId());
+        jobPostActivity.setPostedById(jobPostActivityDTO.getPostedById());
+        jobPostActivity.setJobLocationId(jobPostActivityDTO.getJobLocationId());
+        jobPostActivity.setJobCompanyId(jobPostActivityDTO.getJobCompanyId());
+        jobPostActivity.setIsActive(jobPostActivityDTO.getIsActive());
+        jobPostActivity.setIsSaved(jobPostActivityDTO.getIsSaved());
+        jobPostActivity.setDescriptionOfJob(jobPostActivityDTO.getDescriptionOfJob());
+        jobPostActivity.setJobTitle(jobPostActivityDTO.getJobTitle());
+        jobPostActivity.setJobType(jobPostActivityDTO.getJobType());
+        jobPostActivity.setSalary(jobPostActivityDTO.getSalary());
+        jobPostActivity.setRemote(jobPostActivityDTO.getRemote());
+        jobPostActivity.setPostedDate(jobPostActivityDTO.getPostedDate());
+        return jobPostActivity;
+    }
+
+    /**
+     * Converts a JobPostActivity entity to the slim list view.
+     *
+     * Used where an entity is already loaded; list queries build JobPostSummary directly.
+     *
+     * @param jobPostActivity the JobPostActivity entity to convert
+     * @return JobPostSummary the list view of the job post
+     */
+    public JobPostSummary toSummary(JobPostActivity jobPostActivity) {
+        JobLocation location = jobPostActivity.getJobLocationId();
+        JobCompany company = jobPostActivity.getJobCompanyId();
+        return new JobPostSummary(jobPostActivity.getJobPostId(), jobPostActivity.getJobTitle(),
+                jobPostActivity.getJobType(), jobPostActivity.getRemote(), jobPostActivity.getSalary(),
+                jobPostActivity.getPostedDate(),
+                location == null ? null : new JobPostSummary.Location(location.getId(), location.getCity(),
+                        location.getCounty(), location.getCountry()),
+                company == null ? null : new JobPostSummary.Company(company.getId(), company.getName()),
+                jobPostActivity.getIsActive(), jobPostActivity.getIsSaved());
+    }
+}
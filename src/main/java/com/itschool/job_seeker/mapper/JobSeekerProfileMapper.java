@@ -0,0 +1,46 @@
+package com.itschool.job_seeker.mapper;
+
+import com.itschool.job_seeker.entity.JobSeekerProfile;
+import com.itschool.job_seeker.model.JobSeekerProfileDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps job seeker profiles between their entity and DTO forms.
+ */
+@Component
+public class JobSeekerProfileMapper {
+
+    /**
+     * Converts a JobSeekerProfile entity to JobSeekerProfileDTO.
+     *
+     * @param jobSeekerProfile the JobSeekerProfile entity to convert (may be null)
+     * @return corresponding JobSeekerProfileDTO, or null
+     */
+    public JobSeekerProfileDTO toDTO(JobSeekerProfile jobSeekerProfile) {
+        if (jobSeekerProfile == null) {
+            return null;
+        }
+        return new JobSeekerProfileDTO(jobSeekerProfile.getUserAccountId(), jobSeekerProfile.getUserId(),
+                jobSeekerProfile.getFirstName(), jobSeekerProfile.getLastName(), jobSeekerProfile.getCity(),
+                jobSeekerProfile.getCounty(), jobSeekerProfile.getCountry(), jobSeekerProfile.getWorkAuthorization(),
+                jobSeekerProfile.getEmploymentType(), jobSeekerProfile.getResume(), jobSeekerProfile.getProfilePhoto(),
+                jobSeekerProfile.getSkills());
+    }
+
+    /**
+     * Converts a JobSeekerProfileDTO to JobSeekerProfile entity.
+     *
+     * @param jobSeekerProfileDTO the JobSeekerProfileDTO to convert (may be null)
+     * @return corresponding JobSeekerProfile entity, or null
+     */
+    public JobSeekerProfile toEntity(JobSeekerProfileDTO jobSeekerProfileDTO) {
+        if (jobSeekerProfileDTO == null) {
+            return null;
+        }
+        return new JobSeekerProfile(jobSeekerProfileDTO.getUserAccountId(), jobSeekerProfileDTO.getUserId(),
+                jobSeekerProfileDTO.getFirstName(), jobSeekerProfileDTO.getLastName(), jobSeekerProfileDTO.getCity(),
+                jobSeekerProfileDTO.getCounty(), jobSeekerProfileDTO.getCountry(),
+                jobSeekerProfileDTO.getWorkAuthorization(), jobSeekerProfileDTO.getEmploymentType(),
+                jobSeekerProfileDTO.getResume(), jobSeekerProfileDTO.getProfilePhoto(), jobSeekerProfileDTO.getSkills());
+    }
+}
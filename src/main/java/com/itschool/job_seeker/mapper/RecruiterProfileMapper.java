@@ -0,0 +1,44 @@
+package com.itschool.job_seeker.mapper;
+
+import com.itschool.job_seeker.entity.RecruiterProfile;
+import com.itschool.job_seeker.model.RecruiterProfileDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps recruiter profiles between their entity and DTO forms.
+ */
+@Component
+public class RecruiterProfileMapper {
+
+    /**
+     * Converts a RecruiterProfile entity to RecruiterProfileDTO.
+     *
+     * @param recruiterProfile the RecruiterProfile entity to convert (may be null)
+     * @return corresponding RecruiterProfileDTO, or null
+     */
+    public RecruiterProfileDTO toDTO(RecruiterProfile recruiterProfile) {
+        if (recruiterProfile == null) {
+            return null;
+        }
+        return new RecruiterProfileDTO(recruiterProfile.getUserAccountId(), recruiterProfile.getUserId(),
+                recruiterProfile.getFirstName(), recruiterProfile.getLastName(), recruiterProfile.getCity(),
+                recruiterProfile.getCounty(), recruiterProfile.getCountry(), recruiterProfile.getCompany(),
+                recruiterProfile.getProfilePhoto());
+    }
+
+    /**
+     * Converts a RecruiterProfileDTO to RecruiterProfile entity.
+     *
+     * @param recruiterProfileDTO the RecruiterProfileDTO to convert (may be null)
+     * @return corresponding RecruiterProfile entity, or null
+     */
+    public RecruiterProfile toEntity(RecruiterProfileDTO recruiterProfileDTO) {
+        if (recruiterProfileDTO == null) {
+            return null;
+        }
+        return new RecruiterProfile(recruiterProfileDTO.getUserAccountId(), recruiterProfileDTO.getUserId(),
+                recruiterProfileDTO.getFirstName(), recruiterProfileDTO.getLastName(), recruiterProfileDTO.getCity(),
+                recruiterProfileDTO.getCounty(), recruiterProfileDTO.getCountry(), recruiterProfileDTO.getCompany(),
+                recruiterProfileDTO.getProfilePhoto());
+    }
+}
@@ -0,0 +1,20 @@
+package com.itschool.job_seeker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor; // Token for the following page, null on the last page
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
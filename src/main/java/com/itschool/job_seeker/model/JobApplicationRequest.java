@@ -0,0 +1,15 @@
+package com.itschool.job_seeker.model;
+
+import java.util.Date;
+
+/**
+ * A job application waiting to be written, identified only by IDs.
+ *
+ * Carrying IDs instead of entities lets applications be queued and written later, in batches,
+ * without keeping the request's persistence context alive.
+ */
+public record JobApplicationRequest(Long userAccountId,
+                                    Long jobPostId,
+                                    Date applyDate,
+                                    String coverLetter) {
+}
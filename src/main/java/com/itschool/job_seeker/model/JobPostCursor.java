@@ -0,0 +1,71 @@
+package com.itschool.job_seeker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in the job post listing, which is ordered by posted date and then job post ID, newest first.
+ *
+ * A page holds the job posts strictly after the cursor, so the cursor of the last job post on a page
+ * is the token for the next page. Job posts added in the meantime never shift the following pages.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobPostCursor {
+
+    // Sorts after every real job post (9999-12-31), used to fetch the first page
+    public static final JobPostCursor FIRST = new JobPostCursor(new Date(253402214400000L), Long.MAX_VALUE);
+
+    private Date postedDate;
+    private Long jobPostId;
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe token.
+     *
+     * @return String the token
+     */
+    public String encode() {
+        String value = postedDate.getTime() + ":" + jobPostId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * A missing or malformed token (for example one edited by hand) starts the listing from the first page.
+     *
+     * @param token the token to decode (may be null or empty for the first page)
+     * @return JobPostCursor the decoded cursor, or FIRST if there is no valid token
+     */
+    public static JobPostCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            return new JobPostCursor(new Date(Long.parseLong(value.substring(0, separator))),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            return FIRST;
+        }
+    }
+
+    /**
+     * Tells whether a job post comes after this cursor in the listing order.
+     *
+     * @param postedMillis the posted date of the job post, in milliseconds
+     * @param id the ID of the job post
+     * @return true if the job post belongs to the page starting at this cursor or a later one
+     */
+    public boolean precedes(long postedMillis, long id) {
+        long cursorMillis = postedDate.getTime();
+        return postedMillis < cursorMillis || (postedMillis == cursorMillis && id < jobPostId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.itschool.job_seeker.model;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk job post import: how many rows were imported and why the others were not.
+ *
+ * Rows are numbered from 1 in the order of the file, the CSV header and blank lines not counted.
+ * Only the first errors are listed (import.job-posts.max-errors); rejected counts all of them.
+ */
+public record JobPostImportReport(long imported,
+                                  long rejected,
+                                  List<RowError> errors) {
+
+    /**
+     * Why one row was not imported.
+     */
+    public record RowError(long row, String message) {
+    }
+}
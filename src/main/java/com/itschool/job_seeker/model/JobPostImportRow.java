@@ -0,0 +1,57 @@
+package com.itschool.job_seeker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One job post of a bulk import file: a CSV row (the header names the columns) or a JSON line.
+ *
+ * The location and company are given by value; the import links them to existing rows where the
+ * values match. Columns other than these are ignored.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JobPostImportRow {
+
+    @NotBlank
+    @Size(max = 255)
+    private String jobTitle;
+
+    @Size(max = 10000)
+    private String descriptionOfJob;
+
+    @NotBlank
+    @Pattern(regexp = "Full-Time|Part-Time|Freelance|Internship", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "must be one of Full-Time, Part-Time, Freelance, Internship")
+    private String jobType;
+
+    @NotBlank
+    @Pattern(regexp = "Remote-Only|Office-Only|Hybrid", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "must be one of Remote-Only, Office-Only, Hybrid")
+    private String remote;
+
+    @Size(max = 255)
+    private String salary;
+
+    @NotBlank
+    @Size(max = 255)
+    private String city;
+
+    @Size(max = 255)
+    private String county;
+
+    @NotBlank
+    @Size(max = 255)
+    private String country;
+
+    @NotBlank
+    @Size(max = 255)
+    private String company;
+}
@@ -0,0 +1,48 @@
+package com.itschool.job_seeker.model;
+
+import java.util.Date;
+
+/**
+ * Read-only view of a job post for the list pages (dashboard, global search, saved jobs).
+ *
+ * It carries only the columns those pages render and is built directly by JPQL constructor
+ * expressions, so listing job posts loads no entities. The component names follow
+ * JobPostActivityDTO so the templates can render either.
+ */
+public record JobPostSummary(Long jobPostId,
+                             String jobTitle,
+                             String jobType,
+                             String remote,
+                             String salary,
+                             Date postedDate,
+                             Location jobLocationId,
+                             Company jobCompanyId,
+                             Boolean isActive,
+                             Boolean isSaved) {
+
+    public record Location(Long id, String city, String county, String country) {
+    }
+
+    public record Company(Long id, String name) {
+    }
+
+    // Flat constructor used by the JPQL constructor expressions in the repositories
+    public JobPostSummary(Long jobPostId, String jobTitle, String jobType, String remote, String salary, Date postedDate,
+                          Long locationId, String city, String county, String country,
+                          Long companyId, String companyName) {
+        this(jobPostId, jobTitle, jobType, remote, salary, postedDate,
+                new Location(locationId, city, county, country), new Company(companyId, companyName), null, null);
+    }
+
+    /**
+     * Returns a copy of this summary flagged with the viewer's applied and saved state.
+     *
+     * @param applied whether the viewer has applied to the job post
+     * @param saved whether the viewer has saved the job post
+     * @return JobPostSummary the flagged copy
+     */
+    public JobPostSummary withViewerState(boolean applied, boolean saved) {
+        return new JobPostSummary(jobPostId, jobTitle, jobType, remote, salary, postedDate,
+                jobLocationId, jobCompanyId, applied, saved);
+    }
+}
@@ -0,0 +1,23 @@
+package com.itschool.job_seeker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchIndexConsistencyReport {
+
+    private long checked;
+    private List<Long> missing;
+    private List<Long> stale;
+    private List<Long> orphaned;
+    private boolean repaired;
+
+    public boolean isConsistent() {
+        return missing.isEmpty() && stale.isEmpty() && orphaned.isEmpty();
+    }
+}
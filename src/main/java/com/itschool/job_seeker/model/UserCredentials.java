@@ -0,0 +1,11 @@
+package com.itschool.job_seeker.model;
+
+/**
+ * The columns needed to authenticate a user, read without loading the Users entity or its type.
+ */
+public record UserCredentials(Long userId,
+                              String email,
+                              String password,
+                              boolean active,
+                              String userTypeName) {
+}
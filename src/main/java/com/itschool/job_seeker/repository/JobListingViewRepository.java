@@ -0,0 +1,232 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.JobListingView;
+import com.itschool.job_seeker.model.IRecruiterJobs;
+import com.itschool.job_seeker.model.JobPostSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface JobListingViewRepository extends JpaRepository<JobListingView, Long> {
+
+    /**
+     * Upsert writing the listing rows of the job posts selected by the WHERE clause appended to it.
+     * Only rows whose values differ are rewritten. Like the list pages before, job posts without a
+     * location or company are left out.
+     */
+    String UPSERT = "INSERT INTO job_listing_view (job_post_id, posted_by_id, job_title, job_type, remote, salary, " +
+            "posted_date, location_id, city, county, country, company_id, company_name) " +
+            "SELECT j.job_post_id, j.posted_by_id, j.job_title, j.job_type, j.remote, j.salary, j.posted_date, " +
+            "l.id, l.city, l.county, l.country, c.id, c.name " +
+            "FROM job_post_activity j " +
+            "INNER JOIN job_location l ON j.job_location_id = l.id " +
+            "INNER JOIN job_company c ON j.job_company_id = c.id ";
+
+    String UPSERT_CONFLICT = " ON CONFLICT (job_post_id) DO UPDATE SET posted_by_id = EXCLUDED.posted_by_id, " +
+            "job_title = EXCLUDED.job_title, job_type = EXCLUDED.job_type, remote = EXCLUDED.remote, " +
+            "salary = EXCLUDED.salary, posted_date = EXCLUDED.posted_date, location_id = EXCLUDED.location_id, " +
+            "city = EXCLUDED.city, county = EXCLUDED.county, country = EXCLUDED.country, " +
+            "company_id = EXCLUDED.company_id, company_name = EXCLUDED.company_name " +
+            "WHERE (job_listing_view.posted_by_id, job_listing_view.job_title, job_listing_view.job_type, " +
+            "job_listing_view.remote, job_listing_view.salary, job_listing_view.posted_date, job_listing_view.location_id, " +
+            "job_listing_view.city, job_listing_view.county, job_listing_view.country, job_listing_view.company_id, " +
+            "job_listing_view.company_name) IS DISTINCT FROM (EXCLUDED.posted_by_id, EXCLUDED.job_title, " +
+            "EXCLUDED.job_type, EXCLUDED.remote, EXCLUDED.salary, EXCLUDED.posted_date, EXCLUDED.location_id, " +
+            "EXCLUDED.city, EXCLUDED.county, EXCLUDED.country, EXCLUDED.company_id, EXCLUDED.company_name)";
+
+    /**
+     * Search query for the trigram search engine (profile: trgm), continuing after the
+     * (cursorDate, cursorId) keyset cursor.
+     *
+     * All the searched columns are in the one table, so PostgreSQL can combine their GIN trigram
+     * indexes with a BitmapOr, without the per-column UNION the join used to need. The job and
+     * location parameters are complete LIKE patterns. The query is shared with the startup EXPLAIN
+     * check so both always look at the same SQL.
+     */
+    String TRIGRAM_SEARCH_PAGE_SQL = "SELECT v.job_post_id FROM job_listing_view v " +
+            "WHERE v.job_title LIKE :job " +
+            "AND (v.city LIKE :location OR v.county LIKE :location OR v.country LIKE :location) " +
+            "AND v.job_type IN (:type) " +
+            "AND v.remote IN (:remote) " +
+            "AND v.posted_date >= :date " +
+            "AND (v.posted_date, v.job_post_id) < (:cursorDate, :cursorId) " +
+            "ORDER BY v.posted_date DESC, v.job_post_id DESC LIMIT :limit";
+
+    /**
+     * JPQL select clause building the JobPostSummary list view from a listing row aliased v.
+     */
+    String SUMMARY_CONSTRUCTOR = "SELECT new com.itschool.job_seeker.model.JobPostSummary(" +
+            "v.jobPostId, v.jobTitle, v.jobType, v.remote, v.salary, v.postedDate, " +
+            "v.locationId, v.city, v.county, v.country, v.companyId, v.companyName) ";
+
+    String SUMMARY_SELECT = SUMMARY_CONSTRUCTOR + "FROM JobListingView v ";
+
+    /**
+     * Writes the listing row of one job post from its current job post, location and company.
+     *
+     * Called whenever a job post is created or edited, in the same transaction.
+     *
+     * @param jobPostId the ID of the job post
+     * @return int the number of rows written (0 when the row was already up to date)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = UPSERT + "WHERE j.job_post_id = :jobPostId" + UPSERT_CONFLICT, nativeQuery = true)
+    int refresh(@Param("jobPostId") Long jobPostId);
+
+    /**
+     * Writes the listing rows of several job posts in one statement, e.g. a chunk of a bulk import.
+     *
+     * @param jobPostIds the IDs of the job posts
+     * @return int the number of rows written
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = UPSERT + "WHERE j.job_post_id IN (:jobPostIds)" + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshAll(@Param("jobPostIds") Collection<Long> jobPostIds);
+
+    /**
+     * Rewrites every listing row that differs from its job post, location and company, and creates
+     * the missing ones.
+     *
+     * @return int the number of rows created or corrected
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = UPSERT + UPSERT_CONFLICT, nativeQuery = true)
+    int reconcile();
+
+    /**
+     * Deletes the listing rows whose job post no longer exists, or lost its location or company.
+     *
+     * @return int the number of rows deleted
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "DELETE FROM job_listing_view v WHERE NOT EXISTS (SELECT 1 FROM job_post_activity j " +
+            "INNER JOIN job_location l ON j.job_location_id = l.id " +
+            "INNER JOIN job_company c ON j.job_company_id = c.id " +
+            "WHERE j.job_post_id = v.job_post_id)", nativeQuery = true)
+    int deleteOrphans();
+
+    /**
+     * Retrieves a list of job postings associated with a specific recruiter.
+     *
+     * The listing rows are read from the covering index on posted_by_id; the total candidates come
+     * from the job_post_stats counter row of each job (a primary key lookup).
+     *
+     * @param recruiter the ID of the recruiter whose job postings are to be retrieved
+     * @return List<IRecruiterJobs> a list of IRecruiterJobs indicating job posting details
+     */
+    @Query(value = "SELECT COALESCE(s.applicants, 0) AS totalCandidates, v.job_post_id, v.job_title, " +
+            "v.location_id AS locationId, v.city, v.county, v.country, v.company_id AS companyId, v.company_name AS name " +
+            "FROM job_listing_view v " +
+            "LEFT JOIN job_post_stats s ON s.job_post_id = v.job_post_id " +
+            "WHERE v.posted_by_id = :recruiter",
+            nativeQuery = true)
+    List<IRecruiterJobs> getRecruiterJobs(@Param("recruiter") Long recruiter);
+
+    /**
+     * Retrieves one page of all job postings, newest first, using keyset pagination.
+     *
+     * Only the job postings strictly after the (postedDate, jobPostId) cursor are returned, so the
+     * cost of a page does not depend on how deep into the listing it is.
+     *
+     * @param postedDate the posted date of the cursor
+     * @param jobPostId the job post ID of the cursor
+     * @param pageable the page size (the page number is always 0)
+     * @return List<JobPostSummary> the job postings of the page
+     */
+    @Query(SUMMARY_SELECT +
+            "WHERE v.postedDate < :postedDate OR (v.postedDate = :postedDate AND v.jobPostId < :jobPostId) " +
+            "ORDER BY v.postedDate DESC, v.jobPostId DESC")
+    List<JobPostSummary> findSummaryPage(@Param("postedDate") Date postedDate,
+                                         @Param("jobPostId") Long jobPostId,
+                                         Pageable pageable);
+
+    /**
+     * Retrieves the list view of the given job postings.
+     *
+     * @param ids the IDs of the job postings
+     * @return List<JobPostSummary> the job postings found, in no particular order
+     */
+    @Query(SUMMARY_SELECT + "WHERE v.jobPostId IN :ids")
+    List<JobPostSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the list view of the job postings a job seeker has saved.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @return List<JobPostSummary> the saved job postings, most recently posted first
+     */
+    @Query(SUMMARY_CONSTRUCTOR +
+            "FROM JobSeekerSave s JOIN JobListingView v ON v.jobPostId = s.job.jobPostId " +
+            "WHERE s.userId.userAccountId = :userAccountId " +
+            "ORDER BY v.postedDate DESC, v.jobPostId DESC")
+    List<JobPostSummary> findSavedJobSummaries(@Param("userAccountId") Long userAccountId);
+
+    /**
+     * Retrieves the IDs of one page of the job postings matching the search criteria, newest first,
+     * using keyset pagination.
+     *
+     * @param job the job title keyword to search for
+     * @param location the location keyword to search for (city, country, or county)
+     * @param remote the list of remote options to filter by
+     * @param type the list of job types to filter by
+     * @param date the date to filter job postings that were posted on or after this date
+     * @param cursorDate the posted date of the cursor
+     * @param cursorId the job post ID of the cursor
+     * @param limit the maximum number of job postings to return
+     * @return List<Long> the IDs of the job postings of the page
+     */
+    @Query(value = "SELECT v.job_post_id FROM job_listing_view v WHERE v.job_title LIKE %:job%" +
+            " AND (v.city LIKE %:location%" +
+            " OR v.country LIKE %:location%" +
+            " OR v.county LIKE %:location%) " +
+            " AND (v.job_type IN(:type)) " +
+            " AND (v.remote IN(:remote)) " +
+            " AND (v.posted_date >= :date) " +
+            " AND (v.posted_date, v.job_post_id) < (:cursorDate, :cursorId) " +
+            " ORDER BY v.posted_date DESC, v.job_post_id DESC LIMIT :limit", nativeQuery = true)
+    List<Long> searchPageIds(@Param("job") String job,
+                             @Param("location") String location,
+                             @Param("remote") List<String> remote,
+                             @Param("type") List<String> type,
+                             @Param("date") LocalDate date,
+                             @Param("cursorDate") Date cursorDate,
+                             @Param("cursorId") Long cursorId,
+                             @Param("limit") int limit);
+
+    /**
+     * Retrieves the IDs of one page of the trigram search, newest first, using keyset pagination.
+     *
+     * @param job the LIKE pattern to match against the job title
+     * @param location the LIKE pattern to match against the city, county or country
+     * @param remote the list of remote options to filter by
+     * @param type the list of job types to filter by
+     * @param date the date to filter job postings that were posted on or after this date
+     * @param cursorDate the posted date of the cursor
+     * @param cursorId the job post ID of the cursor
+     * @param limit the maximum number of job postings to return
+     * @return List<Long> the IDs of the job postings of the page
+     */
+    @Query(value = TRIGRAM_SEARCH_PAGE_SQL, nativeQuery = true)
+    List<Long> searchTrigramPageIds(@Param("job") String job,
+                                    @Param("location") String location,
+                                    @Param("remote") List<String> remote,
+                                    @Param("type") List<String> type,
+                                    @Param("date") LocalDate date,
+                                    @Param("cursorDate") Date cursorDate,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+}
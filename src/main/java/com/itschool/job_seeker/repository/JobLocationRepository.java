@@ -0,0 +1,124 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.JobLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JobLocationRepository extends JpaRepository<JobLocation, Long> {
+
+    /**
+     * Returns the ID of the location with the given normalized key, inserting the location if there
+     * is none yet.
+     *
+     * The conflict update leaves the row as it is but makes RETURNING report its ID, so concurrent
+     * callers always agree on one row; the first spelling of a location is the one kept.
+     *
+     * @param city the city
+     * @param county the county, may be null
+     * @param country the country
+     * @param normalizedKey the key of the location, see DimensionKeys.location
+     * @return Long the ID of the location
+     */
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO job_location (city, county, country, normalized_key) " +
+            "VALUES (:city, :county, :country, :normalizedKey) " +
+            "ON CONFLICT (normalized_key) DO UPDATE SET normalized_key = EXCLUDED.normalized_key " +
+            "RETURNING id", nativeQuery = true)
+    Long upsert(@Param("city") String city, @Param("county") String county, @Param("country") String country,
+                @Param("normalizedKey") String normalizedKey);
+
+    /**
+     * Tells whether some location rows were written before the normalized keys existed.
+     *
+     * @return boolean true if a row has no normalized key
+     */
+    boolean existsByNormalizedKeyIsNull();
+
+    /**
+     * Returns the rows without a normalized key, oldest first.
+     *
+     * @return List<JobLocation> the rows to backfill
+     */
+    @Query(value = "SELECT * FROM job_location WHERE normalized_key IS NULL ORDER BY id", nativeQuery = true)
+    List<JobLocation> findByNormalizedKeyIsNull();
+
+    /**
+     * Returns the ID of the row with a normalized key.
+     *
+     * @param normalizedKey the key, see DimensionKeys.location
+     * @return Long the ID of the row, or null if there is none
+     */
+    @Query(value = "SELECT id FROM job_location WHERE normalized_key = :normalizedKey", nativeQuery = true)
+    Long findIdByNormalizedKey(@Param("normalizedKey") String normalizedKey);
+
+    /**
+     * Gives a row written before the normalized keys existed its key.
+     *
+     * @param id the ID of the row
+     * @param normalizedKey the key, see DimensionKeys.location
+     * @return int the number of rows updated, 0 if the row already has a key
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE job_location SET normalized_key = :normalizedKey WHERE id = :id AND normalized_key IS NULL",
+            nativeQuery = true)
+    int assignKey(@Param("id") Long id, @Param("normalizedKey") String normalizedKey);
+
+    /**
+     * Points the job posts of one location at another, see mergeInto.
+     *
+     * @param duplicateId the ID of the row being merged
+     * @param canonicalId the ID of the row kept
+     * @return int the number of job posts updated
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE job_post_activity SET job_location_id = :canonicalId WHERE job_location_id = :duplicateId",
+            nativeQuery = true)
+    int repointJobPosts(@Param("duplicateId") Long duplicateId, @Param("canonicalId") Long canonicalId);
+
+    /**
+     * Points the listing rows of one location at another, see mergeInto.
+     *
+     * @param duplicateId the ID of the row being merged
+     * @param canonicalId the ID of the row kept
+     * @return int the number of listing rows updated
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE job_listing_view SET location_id = :canonicalId WHERE location_id = :duplicateId",
+            nativeQuery = true)
+    int repointListings(@Param("duplicateId") Long duplicateId, @Param("canonicalId") Long canonicalId);
+
+    /**
+     * Deletes a row without a normalized key once nothing points at it, see mergeInto.
+     *
+     * @param id the ID of the row
+     * @return int the number of rows deleted, 0 if the row has a key
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "DELETE FROM job_location WHERE id = :id AND normalized_key IS NULL", nativeQuery = true)
+    int deleteUnkeyed(@Param("id") Long id);
+
+    /**
+     * Merges a row written before the normalized keys existed into the canonical row with the same
+     * key: its job posts and listing rows are pointed at the canonical row, then it is deleted.
+     *
+     * @param duplicateId the ID of the row without a key
+     * @param canonicalId the ID of the row with its key
+     */
+    @Transactional
+    default void mergeInto(Long duplicateId, Long canonicalId) {
+        repointJobPosts(duplicateId, canonicalId);
+        repointListings(duplicateId, canonicalId);
+        deleteUnkeyed(duplicateId);
+    }
+}
@@ -1,53 +1,57 @@
 package com.itschool.job_seeker.repository;
 
 import com.itschool.job_seeker.entity.JobPostActivity;
-import com.itschool.job_seeker.model.IRecruiterJobs;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JobPostActivityRepository extends JpaRepository<JobPostActivity, Long> {
 
     /**
-     * Retrieves a list of job postings associated with a specific recruiter.
+     * Search query for the trigram search engine (profile: trgm), for the unpaginated search.
      *
-     * This query joins the job_post_activity, job_location, and job_company tables
-     * to gather job posting information, including total candidates (set to 0 as a placeholder),
-     * job details, and associated location and company information for a given recruiter ID.
-     *
-     * @param recruiter the ID of the recruiter whose job postings are to be retrieved
-     * @return List<IRecruiterJobs> a list of IRecruiterJobs indicating job posting details
+     * The location filter is written as a UNION of one lookup per column instead of an OR chain
+     * across the join, so PostgreSQL can answer each branch from its own GIN trigram index.
+     * The job and location parameters are complete LIKE patterns. The paginated list pages search
+     * job_listing_view instead (see JobListingViewRepository).
      */
-    @Query(value = "SELECT 0 AS totalCandidates, j.job_post_id, j.job_title, " +
-            "l.id AS locationId, l.city, l.county, l.country, c.id AS companyId, c.name " +
-            "FROM job_post_activity j " +
-            "INNER JOIN job_location l ON j.job_location_id = l.id " +
-            "INNER JOIN job_company c ON j.job_company_id = c.id " +
-            "WHERE j.posted_by_id = :recruiter " +
-            "GROUP BY j.job_post_id, j.job_title, l.id, l.city, l.county, l.country, c.id, c.name",
-            nativeQuery = true)
-    List<IRecruiterJobs> getRecruiterJobs(@Param("recruiter") Long recruiter);
+    String TRIGRAM_SEARCH_FILTER = "FROM job_post_activity j " +
+            "WHERE j.job_title LIKE :job " +
+            "AND j.job_location_id IN (" +
+            "SELECT l.id FROM job_location l WHERE l.city LIKE :location " +
+            "UNION SELECT l.id FROM job_location l WHERE l.county LIKE :location " +
+            "UNION SELECT l.id FROM job_location l WHERE l.country LIKE :location) " +
+            "AND j.job_type IN (:type) " +
+            "AND j.remote IN (:remote) " +
+            "AND j.posted_date >= :date";
 
+    String TRIGRAM_SEARCH_SQL = "SELECT j.job_post_id " + TRIGRAM_SEARCH_FILTER;
 
     /**
      * Searches for job postings based on job title, location, job type, and remote work options,
      * when no specific date is provided.
      *
      * This query joins job_post_activity and job_location tables to filter job postings that match
-     * the given criteria. It allows partial matches in job title and location fields.
+     * the given criteria. It allows partial matches in job title and location fields. Only the IDs
+     * are selected; the job posts are then loaded with findListingByJobPostIdIn.
      *
      * @param job the job title keyword to search for
      * @param location the location keyword to search for (city, country, or county)
      * @param remote the list of remote options to filter by
      * @param type the list of job types to filter by
-     * @return List<JobPostActivity> a list of JobPostActivity matching the search criteria
+     * @return List<Long> the IDs of the job postings matching the search criteria
      */
-    @Query(value = "SELECT * FROM job_post_activity j INNER JOIN job_location l on j.job_location_id=l.id  WHERE j" +
+    @Query(value = "SELECT j.job_post_id FROM job_post_activity j INNER JOIN job_location l on j.job_location_id=l.id  WHERE j" +
             ".job_title LIKE %:job%"
             + " AND (l.city LIKE %:location%"
             + " OR l.country LIKE %:location%"
@@ -55,10 +59,10 @@ public interface JobPostActivityRepository extends JpaRepository<JobPostActivity
             " AND (j.job_type IN(:type)) " +
             " AND (j.remote IN(:remote)) ", nativeQuery = true)
 
-    List<JobPostActivity> searchWithoutDate(@Param("job") String job,
-                                            @Param("location") String location,
-                                            @Param("remote")List<String> remote,
-                                            @Param("type")List<String> type);
+    List<Long> searchIdsWithoutDate(@Param("job") String job,
+                                    @Param("location") String location,
+                                    @Param("remote")List<String> remote,
+                                    @Param("type")List<String> type);
 
     /**
      * Searches for job postings based on job title, location, job type, remote work options,
@@ -72,9 +76,9 @@ public interface JobPostActivityRepository extends JpaRepository<JobPostActivity
      * @param remote the list of remote options to filter by
      * @param type the list of job types to filter by
      * @param date the date to filter job postings that were posted on or after this date
-     * @return List<JobPostActivity> a list of JobPostActivity matching the search criteria
+     * @return List<Long> the IDs of the job postings matching the search criteria
      */
-    @Query(value = "SELECT * FROM job_post_activity j INNER JOIN job_location l on j.job_location_id=l.id  WHERE j" +
+    @Query(value = "SELECT j.job_post_id FROM job_post_activity j INNER JOIN job_location l on j.job_location_id=l.id  WHERE j" +
             ".job_title LIKE %:job%"
             + " AND (l.city LIKE %:location%"
             + " OR l.country LIKE %:location%"
@@ -82,9 +86,63 @@ public interface JobPostActivityRepository extends JpaRepository<JobPostActivity
             " AND (j.job_type IN(:type)) " +
             " AND (j.remote IN(:remote)) " +
             " AND (posted_date >= :date)", nativeQuery = true)
-    List<JobPostActivity> search(@Param("job") String job,
-                                 @Param("location") String location,
-                                 @Param("remote") List<String> remote,
-                                 @Param("type") List<String> type,
-                                 @Param("date") LocalDate date);
+    List<Long> searchIds(@Param("job") String job,
+                         @Param("location") String location,
+                         @Param("remote") List<String> remote,
+                         @Param("type") List<String> type,
+                         @Param("date") LocalDate date);
+
+    /**
+     * Searches for job postings using the trigram-indexed query.
+     *
+     * @param job the LIKE pattern to match against the job title
+     * @param location the LIKE pattern to match against the city, county or country
+     * @param remote the list of remote options to filter by
+     * @param type the list of job types to filter by
+     * @param date the date to filter job postings that were posted on or after this date
+     * @return List<Long> the IDs of the job postings matching the search criteria
+     */
+    @Query(value = TRIGRAM_SEARCH_SQL, nativeQuery = true)
+    List<Long> searchTrigramIds(@Param("job") String job,
+                                @Param("location") String location,
+                                @Param("remote") List<String> remote,
+                                @Param("type") List<String> type,
+                                @Param("date") LocalDate date);
+
+    /**
+     * Retrieves all job postings with their location and company, in one query.
+     *
+     * @return List<JobPostActivity> all job postings
+     */
+    @Override
+    @EntityGraph(JobPostActivity.LISTING_GRAPH)
+    List<JobPostActivity> findAll();
+
+    /**
+     * Retrieves one page of job postings with their location and company, in one query per page.
+     *
+     * @param pageable the page to retrieve
+     * @return Page<JobPostActivity> the job postings of the page
+     */
+    @Override
+    @EntityGraph(JobPostActivity.LISTING_GRAPH)
+    Page<JobPostActivity> findAll(Pageable pageable);
+
+    /**
+     * Retrieves the given job postings with their location and company, in one query.
+     *
+     * @param ids the IDs of the job postings
+     * @return List<JobPostActivity> the job postings found, in no particular order
+     */
+    @EntityGraph(JobPostActivity.LISTING_GRAPH)
+    List<JobPostActivity> findListingByJobPostIdIn(Collection<Long> ids);
+
+    /**
+     * Retrieves a job posting with its poster, location and company, in one query.
+     *
+     * @param jobPostId the ID of the job posting
+     * @return Optional<JobPostActivity> the job posting, or empty if it does not exist
+     */
+    @EntityGraph(JobPostActivity.DETAILS_GRAPH)
+    Optional<JobPostActivity> findDetailsByJobPostId(Long jobPostId);
 }
@@ -0,0 +1,73 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.JobPostStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface JobPostStatsRepository extends JpaRepository<JobPostStats, Long> {
+
+    /**
+     * Adds one applicant to a job post's counters, creating its row if needed.
+     *
+     * The upsert is a single atomic statement, so concurrent applications never lose an update.
+     *
+     * @param jobPostId the ID of the job post
+     * @return int the number of rows written (always 1)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO job_post_stats (job_post_id, applicants, saves, views) VALUES (:jobPostId, 1, 0, 0) " +
+            "ON CONFLICT (job_post_id) DO UPDATE SET applicants = job_post_stats.applicants + 1", nativeQuery = true)
+    int incrementApplicants(@Param("jobPostId") Long jobPostId);
+
+    /**
+     * Adds one save to a job post's counters, creating its row if needed.
+     *
+     * @param jobPostId the ID of the job post
+     * @return int the number of rows written (always 1)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO job_post_stats (job_post_id, applicants, saves, views) VALUES (:jobPostId, 0, 1, 0) " +
+            "ON CONFLICT (job_post_id) DO UPDATE SET saves = job_post_stats.saves + 1", nativeQuery = true)
+    int incrementSaves(@Param("jobPostId") Long jobPostId);
+
+    /**
+     * Adds views to a job post's counters, creating its row if needed.
+     *
+     * @param jobPostId the ID of the job post
+     * @param views the number of views to add
+     * @return int the number of rows written (always 1)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO job_post_stats (job_post_id, applicants, saves, views) VALUES (:jobPostId, 0, 0, :views) " +
+            "ON CONFLICT (job_post_id) DO UPDATE SET views = job_post_stats.views + EXCLUDED.views", nativeQuery = true)
+    int addViews(@Param("jobPostId") Long jobPostId, @Param("views") long views);
+
+    /**
+     * Rebuilds the applicant and save counters of every job post from the source tables.
+     *
+     * Missing rows are created and only rows whose counters differ are rewritten. Views have no
+     * source table, so they are kept as they are. Applications and saves are counted in one grouped
+     * pass each and joined, instead of counted per job post, since their job columns are not indexed.
+     *
+     * @return int the number of rows created or corrected
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO job_post_stats (job_post_id, applicants, saves, views) " +
+            "SELECT j.job_post_id, COALESCE(a.applicants, 0), COALESCE(s.saves, 0), 0 " +
+            "FROM job_post_activity j " +
+            "LEFT JOIN (SELECT job, COUNT(*) AS applicants FROM job_seeker_apply GROUP BY job) a ON a.job = j.job_post_id " +
+            "LEFT JOIN (SELECT job, COUNT(*) AS saves FROM job_seeker_save GROUP BY job) s ON s.job = j.job_post_id " +
+            "ON CONFLICT (job_post_id) DO UPDATE SET applicants = EXCLUDED.applicants, saves = EXCLUDED.saves " +
+            "WHERE job_post_stats.applicants <> EXCLUDED.applicants OR job_post_stats.saves <> EXCLUDED.saves",
+            nativeQuery = true)
+    int reconcile();
+}
@@ -3,9 +3,13 @@ package com.itschool.job_seeker.repository;
 import com.itschool.job_seeker.entity.JobPostActivity;
 import com.itschool.job_seeker.entity.JobSeekerApply;
 import com.itschool.job_seeker.entity.JobSeekerProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +24,7 @@ public interface JobSeekerApplyRepository extends JpaRepository<JobSeekerApply,
      * @param userId a JobSeekerProfile instance that identifies the job seeker
      * @return List<JobSeekerApply> a list of JobSeekerApply instances corresponding to the user's applications
      */
+    @EntityGraph(attributePaths = {"job", "job.jobLocationId", "job.jobCompanyId"}) // The applied jobs are listed with their location and company
     List<JobSeekerApply> findUserByUserId(JobSeekerProfile userId);
 
     /**
@@ -31,5 +36,46 @@ public interface JobSeekerApplyRepository extends JpaRepository<JobSeekerApply,
      * @param job a JobPostActivity instance that represents the job posting for which applications are being queried
      * @return List<JobSeekerApply> a list of JobSeekerApply instances corresponding to the specified job post
      */
+    @EntityGraph(attributePaths = "userId") // The candidates are listed by name
     List<JobSeekerApply> findByJob(JobPostActivity job);
+
+    /**
+     * Retrieves which of the given job postings a job seeker has applied to.
+     *
+     * Only the job post IDs are selected, so the cost depends on the number of IDs asked about
+     * rather than on the size of the job seeker's application history.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @param jobPostIds the IDs of the job postings to check
+     * @return List<Long> the IDs of the job postings the job seeker has applied to
+     */
+    @Query("SELECT a.job.jobPostId FROM JobSeekerApply a " +
+            "WHERE a.userId.userAccountId = :userAccountId AND a.job.jobPostId IN :jobPostIds")
+    List<Long> findAppliedJobIds(@Param("userAccountId") Long userAccountId,
+                                 @Param("jobPostIds") Collection<Long> jobPostIds);
+
+    /**
+     * Checks whether a job seeker has applied to a job posting.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @param jobPostId the ID of the job posting
+     * @return boolean true if the application exists
+     */
+    boolean existsByUserIdUserAccountIdAndJobJobPostId(Long userAccountId, Long jobPostId);
+
+    /**
+     * Retrieves the existing applications among the given job seekers and job postings.
+     *
+     * Used before writing a batch of applications so that the ones already stored are skipped
+     * instead of failing the whole batch on the (userId, job) unique constraint. The result may
+     * contain pairs that are not in the batch; callers match the pairs themselves.
+     *
+     * @param userAccountIds the IDs of the job seekers' profiles
+     * @param jobPostIds the IDs of the job postings
+     * @return List<Object[]> pairs of (job seeker profile ID, job post ID)
+     */
+    @Query("SELECT a.userId.userAccountId, a.job.jobPostId FROM JobSeekerApply a " +
+            "WHERE a.userId.userAccountId IN :userAccountIds AND a.job.jobPostId IN :jobPostIds")
+    List<Object[]> findExistingApplications(@Param("userAccountIds") Collection<Long> userAccountIds,
+                                            @Param("jobPostIds") Collection<Long> jobPostIds);
 }
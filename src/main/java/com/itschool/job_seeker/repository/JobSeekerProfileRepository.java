@@ -2,8 +2,21 @@ package com.itschool.job_seeker.repository;
 
 import com.itschool.job_seeker.entity.JobSeekerProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface JobSeekerProfileRepository extends JpaRepository<JobSeekerProfile, Long> {
+
+    /**
+     * Retrieves the stored file name of a job seeker's resume, without loading the profile.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @return Optional<String> the resume's file name, or empty if the profile does not exist or has no resume
+     */
+    @Query("SELECT p.resume FROM JobSeekerProfile p WHERE p.userAccountId = :userAccountId")
+    Optional<String> findResumeByUserAccountId(@Param("userAccountId") Long userAccountId);
 }
@@ -3,9 +3,13 @@ package com.itschool.job_seeker.repository;
 import com.itschool.job_seeker.entity.JobPostActivity;
 import com.itschool.job_seeker.entity.JobSeekerProfile;
 import com.itschool.job_seeker.entity.JobSeekerSave;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +24,7 @@ public interface JobSeekerSaveRepository extends JpaRepository<JobSeekerSave, Lo
     * @param userAccoundId a JobSeekerProfile instance that identifies the job seeker whose saved jobs are being retrieved
     * @return List<JobSeekerSave> a list of JobSeekerSave instances corresponding to the job postings saved by the user
     */
+   @EntityGraph(attributePaths = {"job", "job.jobLocationId", "job.jobCompanyId"}) // The saved jobs are listed with their location and company
    List<JobSeekerSave> findByUserId(JobSeekerProfile userAccoundId);
 
    /**
@@ -32,6 +37,31 @@ public interface JobSeekerSaveRepository extends JpaRepository<JobSeekerSave, Lo
     * @param job a JobPostActivity instance representing the job posting
     * @return List<JobSeekerSave> a list of JobSeekerSave instances associated with the specified job posting
     */
+   @EntityGraph(attributePaths = "userId") // The job seekers are listed by name
    List<JobSeekerSave> findByJob(JobPostActivity job);
 
+   /**
+    * Retrieves which of the given job postings a job seeker has saved.
+    *
+    * Only the job post IDs are selected, so the cost depends on the number of IDs asked about
+    * rather than on how many jobs the job seeker has saved.
+    *
+    * @param userAccountId the ID of the job seeker's profile
+    * @param jobPostIds the IDs of the job postings to check
+    * @return List<Long> the IDs of the job postings the job seeker has saved
+    */
+   @Query("SELECT s.job.jobPostId FROM JobSeekerSave s " +
+           "WHERE s.userId.userAccountId = :userAccountId AND s.job.jobPostId IN :jobPostIds")
+   List<Long> findSavedJobIds(@Param("userAccountId") Long userAccountId,
+                              @Param("jobPostIds") Collection<Long> jobPostIds);
+
+   /**
+    * Checks whether a job seeker has saved a job posting.
+    *
+    * @param userAccountId the ID of the job seeker's profile
+    * @param jobPostId the ID of the job posting
+    * @return boolean true if the job posting is saved
+    */
+   boolean existsByUserIdUserAccountIdAndJobJobPostId(Long userAccountId, Long jobPostId);
+
 }
@@ -0,0 +1,103 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    /**
+     * Records an uploaded blob, or refreshes its timestamp if it is already known.
+     *
+     * A new blob starts without references; the timestamp keeps it safe from garbage collection
+     * until the profile it was uploaded for has been saved.
+     *
+     * @param blobKey the key of the blob
+     * @param size the size of the blob in bytes
+     * @return int the number of rows written (always 1)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "INSERT INTO stored_blob (blob_key, size, ref_count, created_at, updated_at) " +
+            "VALUES (:blobKey, :size, 0, now(), now()) " +
+            "ON CONFLICT (blob_key) DO UPDATE SET updated_at = now()", nativeQuery = true)
+    int register(@Param("blobKey") String blobKey, @Param("size") long size);
+
+    /**
+     * Adds one reference to a blob.
+     *
+     * @param blobKey the key of the blob
+     * @return int the number of rows updated (0 if the blob is unknown)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE stored_blob SET ref_count = ref_count + 1, updated_at = now() WHERE blob_key = :blobKey",
+            nativeQuery = true)
+    int acquire(@Param("blobKey") String blobKey);
+
+    /**
+     * Removes one reference from a blob, never going below zero.
+     *
+     * @param blobKey the key of the blob
+     * @return int the number of rows updated (0 if the blob is unknown or unreferenced)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE stored_blob SET ref_count = ref_count - 1, updated_at = now() " +
+            "WHERE blob_key = :blobKey AND ref_count > 0", nativeQuery = true)
+    int release(@Param("blobKey") String blobKey);
+
+    /**
+     * Retrieves the keys of the blobs that have had no references since before the cutoff.
+     *
+     * @param cutoff the end of the grace period
+     * @return List<String> the keys of the blobs that can be deleted
+     */
+    @Query("SELECT b.blobKey FROM StoredBlob b WHERE b.refCount = 0 AND b.updatedAt < :cutoff")
+    List<String> findCollectable(@Param("cutoff") Date cutoff);
+
+    /**
+     * Deletes a blob's row if it is still unreferenced and past the cutoff.
+     *
+     * The condition is checked again by the delete itself, so a blob referenced or uploaded again
+     * in the meantime is kept.
+     *
+     * @param blobKey the key of the blob
+     * @param cutoff the end of the grace period
+     * @return int the number of rows deleted (0 or 1)
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query("DELETE FROM StoredBlob b WHERE b.blobKey = :blobKey AND b.refCount = 0 AND b.updatedAt < :cutoff")
+    int deleteIfCollectable(@Param("blobKey") String blobKey, @Param("cutoff") Date cutoff);
+
+    /**
+     * Recounts the references of every blob from the profile tables.
+     *
+     * The three file columns are read in one pass each and counted per key in a single grouped
+     * aggregation, joined once to stored_blob, so no per-blob lookup needs an index on them. Only
+     * rows whose count differs are rewritten; their timestamp is refreshed so a corrected blob gets
+     * a full grace period.
+     *
+     * @return int the number of rows corrected
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query(value = "UPDATE stored_blob b SET ref_count = COALESCE(r.refs, 0), updated_at = now() " +
+            "FROM stored_blob s LEFT JOIN (" +
+            "SELECT blob_key, COUNT(*) AS refs FROM (" +
+            "SELECT resume AS blob_key FROM job_seeker_profile WHERE resume IS NOT NULL " +
+            "UNION ALL SELECT profile_photo FROM job_seeker_profile WHERE profile_photo IS NOT NULL " +
+            "UNION ALL SELECT profile_photo FROM recruiter_profile WHERE profile_photo IS NOT NULL" +
+            ") file_refs GROUP BY blob_key) r ON r.blob_key = s.blob_key " +
+            "WHERE b.blob_key = s.blob_key AND b.ref_count <> COALESCE(r.refs, 0)", nativeQuery = true)
+    int reconcile();
+}
@@ -1,8 +1,13 @@
 package com.itschool.job_seeker.repository;
 
 import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.model.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -22,4 +27,31 @@ public interface UsersRepository extends JpaRepository<Users, Long> {
      *                         or an empty Optional if no user with the specified email exists
      */
     Optional<Users> findByEmail(String email);
+
+    /**
+     * Retrieves the credentials of a user for authentication.
+     *
+     * Only the columns needed to log in are read, in a single query joining the user type, so
+     * neither the Users entity nor its UsersType is loaded into the persistence context.
+     *
+     * @param email the email address of the user
+     * @return Optional<UserCredentials> the user's credentials, or empty if no user has that email
+     */
+    @Query("SELECT new com.itschool.job_seeker.model.UserCredentials(u.userId, u.email, u.password, u.isActive, t.userTypeName) " +
+            "FROM Users u LEFT JOIN u.userTypeId t WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Replaces the password hash of a user, e.g. when it is rehashed with the current cost at login.
+     *
+     * A bulk update bypasses the entity listeners, so the caller evicts the user from the login cache.
+     *
+     * @param email the email address of the user
+     * @param password the new password hash
+     * @return the number of users updated
+     */
+    @Modifying
+    @Transactional // Joins the caller's transaction when there is one
+    @Query("UPDATE Users u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
@@ -1,9 +1,25 @@
 package com.itschool.job_seeker.repository;
 
 import com.itschool.job_seeker.entity.UsersType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UsersTypeRepository extends JpaRepository<UsersType, Long> {
+
+    /**
+     * Retrieves all user types, from the query cache when possible.
+     *
+     * The result is invalidated automatically whenever the users_type table is written.
+     *
+     * @return List<UsersType> all user types
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<UsersType> findAll();
 }
@@ -0,0 +1,47 @@
+package com.itschool.job_seeker.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Service
+public interface BlobStoreService {
+
+    /**
+     * Stores an uploaded file under its content hash, writing it only if that content is new.
+     *
+     * The blob starts without references; the profile that stores the returned key acquires one.
+     *
+     * @param file the uploaded file
+     * @return the blob key to store in the profile
+     * @throws IOException if the upload cannot be read or written
+     */
+    String store(MultipartFile file) throws IOException;
+
+    /**
+     * Moves a reference from one stored file name to another, when a profile field changes.
+     *
+     * Values that are not blob keys (files from before the blob store, or empty) are ignored.
+     *
+     * @param oldValue the previously stored file name, may be null
+     * @param newValue the newly stored file name, may be null
+     */
+    void replaceReference(String oldValue, String newValue);
+
+    /**
+     * Resolves a blob key to the file holding the blob.
+     *
+     * @param blobKey the blob key
+     * @return the path of the blob, or null if the value is not a blob key or the file is missing
+     */
+    Path resolve(String blobKey);
+
+    /**
+     * Recounts references and deletes the blobs that have been unreferenced for the grace period.
+     *
+     * @return int the number of blobs deleted
+     */
+    int collectGarbage();
+}
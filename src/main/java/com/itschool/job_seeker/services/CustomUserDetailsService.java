@@ -1,9 +1,10 @@
 package com.itschool.job_seeker.services;
 
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
 
 @Service
-public interface CustomUserDetailsService extends UserDetailsService {
+public interface CustomUserDetailsService extends UserDetailsService, UserDetailsPasswordService {
 }
@@ -0,0 +1,27 @@
+package com.itschool.job_seeker.services;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public interface JobDimensionService {
+
+    /**
+     * Returns the ID of the canonical location row for a city, county and country, inserting it if
+     * it does not exist yet. Joins the caller's transaction.
+     *
+     * @param city the city
+     * @param county the county, may be null
+     * @param country the country
+     * @return Long the ID of the location
+     */
+    Long getLocationId(String city, String county, String country);
+
+    /**
+     * Returns the ID of the canonical company row for a name, inserting it if it does not exist yet.
+     * Joins the caller's transaction.
+     *
+     * @param name the name of the company
+     * @return Long the ID of the company
+     */
+    Long getCompanyId(String name);
+}
@@ -0,0 +1,30 @@
+package com.itschool.job_seeker.services;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+@Service
+public interface JobListingViewService {
+
+    /**
+     * Writes the listing row of a job post after it was created or edited. Joins the caller's transaction.
+     *
+     * @param jobPostId the ID of the job post
+     */
+    void refresh(Long jobPostId);
+
+    /**
+     * Writes the listing rows of several job posts after they were created. Joins the caller's transaction.
+     *
+     * @param jobPostIds the IDs of the job posts
+     */
+    void refreshAll(Collection<Long> jobPostIds);
+
+    /**
+     * Rebuilds the listing rows from the job post, location and company tables.
+     *
+     * @return int the number of listing rows created, corrected or deleted
+     */
+    int reconcile();
+}
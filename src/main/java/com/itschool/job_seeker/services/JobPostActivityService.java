@@ -1,7 +1,9 @@
 package com.itschool.job_seeker.services;
 
 import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.CursorPage;
 import com.itschool.job_seeker.model.JobPostActivityDTO;
+import com.itschool.job_seeker.model.JobPostSummary;
 import com.itschool.job_seeker.model.RecruiterJobsDTO;
 import org.springframework.stereotype.Service;
 
@@ -54,4 +56,27 @@ public interface JobPostActivityService {
      */
     List<JobPostActivityDTO> search(String job, String location, List<String> list, List<String> list1, LocalDate searchDate);
 
+    /**
+     * Retrieves one page of all job post activities, newest first.
+     *
+     * @param cursor the token of the page to retrieve, as returned with the previous page (null for the first page)
+     * @param size the requested page size (null for the default), capped at the maximum page size
+     * @return CursorPage<JobPostSummary> the page, with the token of the next page
+     */
+    CursorPage<JobPostSummary> getPage(String cursor, Integer size);
+
+    /**
+     * Searches for one page of job post activities, newest first.
+     *
+     * @param job the job title to search for
+     * @param location the location associated with the job postings
+     * @param types the job types to filter by
+     * @param remote the remote options to filter by
+     * @param searchDate the earliest posted date to include (may be null)
+     * @param cursor the token of the page to retrieve, as returned with the previous page (null for the first page)
+     * @param size the requested page size (null for the default), capped at the maximum page size
+     * @return CursorPage<JobPostSummary> the page, with the token of the next page
+     */
+    CursorPage<JobPostSummary> searchPage(String job, String location, List<String> types, List<String> remote,
+                                          LocalDate searchDate, String cursor, Integer size);
 }
@@ -0,0 +1,26 @@
+package com.itschool.job_seeker.services;
+
+import com.itschool.job_seeker.model.JobPostImportReport;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public interface JobPostImportService {
+
+    /**
+     * Imports the job posts of a CSV or JSON-lines file for a recruiter.
+     *
+     * The file is read row by row, so its size is not limited by memory. Valid rows are written in
+     * chunks, each in its own transaction; invalid rows are skipped and reported.
+     *
+     * @param input the content of the file
+     * @param filename the name of the file, whose extension gives the format (.csv, .jsonl or .ndjson)
+     * @param postedById the ID of the recruiter posting the jobs
+     * @return JobPostImportReport the number of imported rows and the errors of the others
+     * @throws IllegalArgumentException if the format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    JobPostImportReport importJobPosts(InputStream input, String filename, Long postedById) throws IOException;
+}
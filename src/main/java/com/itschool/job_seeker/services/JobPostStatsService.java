@@ -0,0 +1,39 @@
+package com.itschool.job_seeker.services;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public interface JobPostStatsService {
+
+    /**
+     * Counts a new application for a job post. Joins the caller's transaction.
+     *
+     * @param jobPostId the ID of the job post applied to
+     */
+    void recordApplication(Long jobPostId);
+
+    /**
+     * Counts a new save of a job post. Joins the caller's transaction.
+     *
+     * @param jobPostId the ID of the job post saved
+     */
+    void recordSave(Long jobPostId);
+
+    /**
+     * Counts a view of a job post's details page, unless the viewer is the recruiter who posted it.
+     *
+     * Views are buffered and written in the background, so the page never waits for the counter.
+     *
+     * @param jobPostId the ID of the job post viewed
+     * @param postedById the ID of the recruiter who posted the job post
+     * @param viewerId the ID of the user viewing it, or null for anonymous visitors
+     */
+    void recordView(Long jobPostId, Long postedById, Long viewerId);
+
+    /**
+     * Rebuilds the applicant and save counters from the application and save tables.
+     *
+     * @return int the number of counter rows created or corrected
+     */
+    int reconcile();
+}
@@ -0,0 +1,76 @@
+package com.itschool.job_seeker.services;
+
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostCursor;
+import com.itschool.job_seeker.model.SearchIndexConsistencyReport;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public interface JobSearchIndexService {
+
+    /**
+     * Adds a job post to the index, replacing any previously indexed version of it.
+     *
+     * @param jobPostActivity the job post to index
+     */
+    void index(JobPostActivity jobPostActivity);
+
+    /**
+     * Removes a job post from the index.
+     *
+     * @param jobPostId the ID of the job post to remove
+     */
+    void remove(Long jobPostId);
+
+    /**
+     * Searches the index for job posts matching the given criteria.
+     *
+     * @param job the job title keywords to search for (may be empty)
+     * @param location the location keywords to search for (may be empty)
+     * @param types the job types to filter by
+     * @param remote the remote options to filter by
+     * @param searchDate the earliest posted date to include (may be null)
+     * @return List<Long> the IDs of the matching job posts, best match first
+     */
+    List<Long> search(String job, String location, List<String> types, List<String> remote, LocalDate searchDate);
+
+    /**
+     * Searches the index for one page of matching job posts, newest first.
+     *
+     * @param job the job title keywords to search for (may be empty)
+     * @param location the location keywords to search for (may be empty)
+     * @param types the job types to filter by
+     * @param remote the remote options to filter by
+     * @param searchDate the earliest posted date to include (may be null)
+     * @param after the cursor the page starts after
+     * @param limit the maximum number of IDs to return
+     * @return List<Long> the IDs of the matching job posts, ordered by posted date and ID, newest first
+     */
+    List<Long> searchPage(String job, String location, List<String> types, List<String> remote, LocalDate searchDate,
+                          JobPostCursor after, int limit);
+
+    /**
+     * Rebuilds the whole index from the database.
+     *
+     * @return int the number of job posts indexed
+     */
+    int rebuild();
+
+    /**
+     * Compares the index with the database and optionally repairs any differences found.
+     *
+     * @param repair whether missing, stale and orphaned entries should be fixed
+     * @return SearchIndexConsistencyReport the differences found
+     */
+    SearchIndexConsistencyReport checkConsistency(boolean repair);
+
+    /**
+     * Tells whether the index has been built and can serve searches.
+     *
+     * @return true if the index is ready, false otherwise
+     */
+    boolean isReady();
+}
@@ -0,0 +1,32 @@
+package com.itschool.job_seeker.services;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public interface PhotoVariantService {
+
+    /**
+     * Queues the generation of the resized variants of an uploaded photo.
+     *
+     * The photo is decoded once in the background and every variant size is written from it. Until
+     * a variant exists, requests for it are answered with the original photo.
+     *
+     * @param blobKey the blob key of the photo
+     */
+    void submit(String blobKey);
+
+    /**
+     * Tells whether the variants of a photo could not be created the last time they were tried.
+     *
+     * @param blobKey the blob key of the photo
+     * @return true if only the original photo can be served
+     */
+    boolean hasFailed(String blobKey);
+
+    /**
+     * Returns the number of photos waiting for or being processed.
+     *
+     * @return the number of pending photos
+     */
+    int getPending();
+}
@@ -0,0 +1,32 @@
+package com.itschool.job_seeker.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+@Service
+public interface ResumeDownloadService {
+
+    /**
+     * Sends a job seeker's resume as a download.
+     *
+     * Supports conditional requests (If-None-Match / If-Modified-Since answered with 304) and
+     * single byte ranges (Range / If-Range answered with 206), and answers 503 when the maximum
+     * number of concurrent downloads is reached.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @param request the download request
+     * @param response the response to write the resume to
+     * @throws IOException if the resume cannot be read or the client goes away
+     */
+    void download(Long userAccountId, HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+    /**
+     * Returns the number of downloads currently being served.
+     *
+     * @return the number of active downloads
+     */
+    int getActiveDownloads();
+}
@@ -32,6 +32,25 @@ public interface UsersService {
      */
     Object getCurrentUserProfile();
 
+    /**
+     * Retrieve the stored profile of the currently authenticated user.
+     *
+     * The profile is looked up at most once per request; later calls in the same request reuse it.
+     *
+     * @return the RecruiterProfile or JobSeekerProfile of the current user, or empty if the user is
+     *         not authenticated or has no stored profile
+     */
+    Optional<Object> findCurrentUserProfile();
+
+    /**
+     * Retrieve the ID of the currently authenticated job seeker, which is also the ID of their profile.
+     *
+     * The ID is taken from the login details, so no query is needed to link records to the job seeker.
+     *
+     * @return the job seeker's ID, or null if the user is not authenticated or is not a job seeker
+     */
+    Long getCurrentJobSeekerId();
+
     /**
      * Retrieve the currently authenticated user entity.
      *
@@ -0,0 +1,231 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.StoredBlobRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
+import com.itschool.job_seeker.util.BlobKeys;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class BlobStoreServiceImpl implements BlobStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStoreServiceImpl.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final Path uploadRoot;
+    private final Duration gracePeriod;
+    // Bytes uploaded, per whether the content was new or already stored (its rate is the upload bandwidth)
+    private final DistributionSummary newUploads;
+    private final DistributionSummary knownUploads;
+    // Striped locks so that storing a blob and deleting the same blob never interleave
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+
+    // Constructor for injecting the blob repository, the upload directory, the collection grace period and the meter registry
+    public BlobStoreServiceImpl(StoredBlobRepository storedBlobRepository,
+                                @Value("${upload.dir:photos}") String uploadDir,
+                                @Value("${blob.gc.grace-period:PT1H}") Duration gracePeriod,
+                                MeterRegistry meterRegistry) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.gracePeriod = gracePeriod;
+        this.newUploads = uploadSummary(meterRegistry, "new");
+        this.knownUploads = uploadSummary(meterRegistry, "known");
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Stores an uploaded file under its content hash, writing it only if that content is new.
+     *
+     * The upload is hashed by streaming it through the digest in fixed-size chunks (the multipart
+     * parser has already spooled it to a temporary file), so it is never held in memory. Known
+     * content costs no write at all; new content is moved into place with transferTo, which renames
+     * the spooled file when it is on the same file system.
+     *
+     * @param file the uploaded file
+     * @return the blob key to store in the profile
+     * @throws IOException if the upload cannot be read or written
+     */
+    @Override
+    public String store(MultipartFile file) throws IOException {
+        String blobKey = BlobKeys.of(sha256(file), file.getOriginalFilename());
+        Path target = uploadRoot.resolve(BlobKeys.relativePath(blobKey));
+
+        ReentrantLock lock = lockFor(blobKey);
+        lock.lock();
+        try {
+            // Register first: the fresh timestamp keeps garbage collection away from the blob
+            storedBlobRepository.register(blobKey, file.getSize());
+            if (Files.exists(target)) {
+                knownUploads.record(file.getSize());
+            } else {
+                newUploads.record(file.getSize());
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), "upload-", ".tmp");
+                try {
+                    file.transferTo(temp.toFile()); // Renames the spooled upload when possible
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return blobKey;
+    }
+
+    /**
+     * Moves a reference from one stored file name to another, when a profile field changes.
+     *
+     * @param oldValue the previously stored file name, may be null
+     * @param newValue the newly stored file name, may be null
+     */
+    @Override
+    public void replaceReference(String oldValue, String newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        if (BlobKeys.isBlobKey(newValue)) {
+            storedBlobRepository.acquire(newValue);
+        }
+        if (BlobKeys.isBlobKey(oldValue)) {
+            storedBlobRepository.release(oldValue);
+        }
+    }
+
+    /**
+     * Resolves a blob key to the file holding the blob.
+     *
+     * @param blobKey the blob key
+     * @return the path of the blob, or null if the value is not a blob key or the file is missing
+     */
+    @Override
+    public Path resolve(String blobKey) {
+        if (!BlobKeys.isBlobKey(blobKey)) {
+            return null;
+        }
+        Path path = uploadRoot.resolve(BlobKeys.relativePath(blobKey));
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Recounts references and deletes the blobs that have been unreferenced for the grace period.
+     *
+     * Runs on a schedule (blob.gc.cron, nightly by default). The recount first repairs counts that
+     * drifted, e.g. from a profile save that failed after its upload, so a blob is only deleted when
+     * no profile refers to it.
+     *
+     * @return int the number of blobs deleted
+     */
+    @Override
+    @Scheduled(cron = "${blob.gc.cron:0 0 4 * * *}")
+    public int collectGarbage() {
+        int corrected = storedBlobRepository.reconcile();
+        if (corrected > 0) {
+            log.info("Blob reference counts reconciled: {} rows corrected", corrected);
+        }
+
+        Date cutoff = new Date(System.currentTimeMillis() - gracePeriod.toMillis());
+        int deleted = 0;
+        long freed = 0;
+        for (String blobKey : storedBlobRepository.findCollectable(cutoff)) {
+            ReentrantLock lock = lockFor(blobKey);
+            lock.lock();
+            try {
+                // The row is deleted only if the blob is still unreferenced, then its file
+                if (storedBlobRepository.deleteIfCollectable(blobKey, cutoff) == 1) {
+                    Path path = uploadRoot.resolve(BlobKeys.relativePath(blobKey));
+                    if (Files.exists(path)) {
+                        freed += Files.size(path);
+                        Files.delete(path);
+                    }
+                    // Resized photo variants go with their original
+                    for (int size : BlobKeys.PHOTO_VARIANT_SIZES) {
+                        Files.deleteIfExists(uploadRoot.resolve(BlobKeys.variantPath(blobKey, size)));
+                    }
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete blob {}", blobKey, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (deleted > 0) {
+            log.info("Blob garbage collection deleted {} blobs, {} bytes", deleted, freed);
+        }
+        return deleted;
+    }
+
+    /**
+     * Hashes an upload by streaming it through SHA-256.
+     *
+     * @param file the uploaded file
+     * @return the digest of the file's content
+     * @throws IOException if the upload cannot be read
+     */
+    private static byte[] sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Builds the summary of the uploaded bytes, for new or already stored content.
+     *
+     * @param meterRegistry the registry to register it in
+     * @param content "new" or "known"
+     * @return the summary
+     */
+    private static DistributionSummary uploadSummary(MeterRegistry meterRegistry, String content) {
+        return DistributionSummary.builder("app.upload.bytes")
+                .description("Size of the uploaded files")
+                .baseUnit("bytes")
+                .tag("content", content)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the lock guarding a blob key.
+     *
+     * @param blobKey the blob key
+     * @return the lock of the key's stripe
+     */
+    private ReentrantLock lockFor(String blobKey) {
+        return locks[Math.floorMod(blobKey.hashCode(), locks.length)];
+    }
+}
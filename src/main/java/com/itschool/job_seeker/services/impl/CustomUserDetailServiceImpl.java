@@ -1,9 +1,11 @@
 package com.itschool.job_seeker.services.impl;
 
-import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.model.UserCredentials;
 import com.itschool.job_seeker.repository.UsersRepository;
 import com.itschool.job_seeker.services.CustomUserDetailsService;
 import com.itschool.job_seeker.util.CustomUserDetails;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -13,14 +15,18 @@ import org.springframework.stereotype.Component;
 public class CustomUserDetailServiceImpl implements CustomUserDetailsService {
 
     private final UsersRepository usersRepository;
+    private final UserCache userCache; // Cache of the user details loaded at login
 
-    public CustomUserDetailServiceImpl(UsersRepository usersRepository) {
+    public CustomUserDetailServiceImpl(UsersRepository usersRepository, UserCache userCache) {
         this.usersRepository = usersRepository;
+        this.userCache = userCache;
     }
 
     /**
      * Loads user details by username (in this case, by email).
      *
+     * Reads the credentials projection only; DaoAuthenticationProvider calls this on a user cache miss.
+     *
      * @param username the email of the user to be loaded
      * @return UserDetails the details of the user found in the repository
      * @throws UsernameNotFoundException if the user with the specified email is not found
@@ -28,8 +34,31 @@ public class CustomUserDetailServiceImpl implements CustomUserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        Users user =usersRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("Could not find user " + username));
+        UserCredentials credentials = usersRepository.findCredentialsByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Could not find user " + username));
+
+        return new CustomUserDetails(credentials); // Wrap the credentials into CustomUserDetails and return it
+    }
+
+    /**
+     * Stores a password rehashed at login.
+     *
+     * DaoAuthenticationProvider calls this after a successful login when the stored hash was made
+     * with another algorithm or cost than the current one, with the password hashed the current way.
+     *
+     * @param user the details of the user who logged in
+     * @param newPassword the new password hash
+     * @return the user details carrying the new hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usersRepository.updatePassword(user.getUsername(), newPassword);
+        userCache.removeUserFromCache(user.getUsername()); // The cached details still hold the old hash
 
-        return new CustomUserDetails(user); // Wrap the Users entity into CustomUserDetails and return it
+        if (user instanceof CustomUserDetails details) {
+            return new CustomUserDetails(new UserCredentials(details.getUserId(), details.getUsername(), newPassword,
+                    details.isEnabled(), details.getUserTypeName()));
+        }
+        return User.withUserDetails(user).password(newPassword).build();
     }
 }
@@ -0,0 +1,165 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itschool.job_seeker.entity.JobCompany;
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.repository.JobCompanyRepository;
+import com.itschool.job_seeker.repository.JobLocationRepository;
+import com.itschool.job_seeker.services.JobDimensionService;
+import com.itschool.job_seeker.util.DimensionKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Interns locations and companies: maps their normalized keys to the IDs of the canonical rows.
+ *
+ * A key is looked up in a process-wide cache first, and only a miss goes to the database as an
+ * upsert. Keyed rows are never deleted or re-keyed by the application, so a cached ID stays valid.
+ * An ID resolved inside a transaction is only cached once that transaction has committed, since a
+ * rollback removes a row the upsert inserted; until then it is kept with the transaction.
+ *
+ * Rows written before the keys existed have none. At startup they are given their key, or merged
+ * into the row that already has it; an upsert never returns such a row, so none of them is cached.
+ */
+@Component
+public class JobDimensionServiceImpl implements JobDimensionService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobDimensionServiceImpl.class);
+
+    private final JobLocationRepository jobLocationRepository;
+    private final JobCompanyRepository jobCompanyRepository;
+    private final Cache<String, Long> locationIds;
+    private final Cache<String, Long> companyIds;
+
+    // Constructor for injecting the dimension repositories and the size limit of each cache
+    public JobDimensionServiceImpl(JobLocationRepository jobLocationRepository,
+                                   JobCompanyRepository jobCompanyRepository,
+                                   @Value("${dimension.cache.max-size:100000}") long maxSize) {
+        this.jobLocationRepository = jobLocationRepository;
+        this.jobCompanyRepository = jobCompanyRepository;
+        this.locationIds = Caffeine.newBuilder().maximumSize(maxSize).build();
+        this.companyIds = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the ID of the canonical location row for a city, county and country.
+     *
+     * @param city the city
+     * @param county the county, may be null
+     * @param country the country
+     * @return Long the ID of the location
+     */
+    @Override
+    public Long getLocationId(String city, String county, String country) {
+        String key = DimensionKeys.location(city, county, country);
+        return intern(locationIds, key, () -> jobLocationRepository.upsert(city, county, country, key));
+    }
+
+    /**
+     * Returns the ID of the canonical company row for a name.
+     *
+     * @param name the name of the company
+     * @return Long the ID of the company
+     */
+    @Override
+    public Long getCompanyId(String name) {
+        String key = DimensionKeys.company(name);
+        return intern(companyIds, key, () -> jobCompanyRepository.upsert(name, key));
+    }
+
+    /**
+     * Keys the location and company rows written before the keys existed, once the application is ready.
+     *
+     * The keys come from DimensionKeys, like every other key, so they never depend on the database's
+     * locale. Rows are taken oldest first: one whose key is not taken yet gets it, one whose key is
+     * taken is merged into the row holding it. Once every row has a key this is a single indexed check.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillKeys() {
+        if (jobLocationRepository.existsByNormalizedKeyIsNull()) {
+            int merged = 0;
+            List<JobLocation> locations = jobLocationRepository.findByNormalizedKeyIsNull();
+            for (JobLocation location : locations) {
+                String key = DimensionKeys.location(location.getCity(), location.getCounty(), location.getCountry());
+                Long canonicalId = jobLocationRepository.findIdByNormalizedKey(key);
+                if (canonicalId == null) {
+                    jobLocationRepository.assignKey(location.getId(), key);
+                } else {
+                    jobLocationRepository.mergeInto(location.getId(), canonicalId);
+                    merged++;
+                }
+            }
+            log.info("Location keys backfilled: {} rows keyed, {} merged", locations.size() - merged, merged);
+        }
+
+        if (jobCompanyRepository.existsByNormalizedKeyIsNull()) {
+            int merged = 0;
+            List<JobCompany> companies = jobCompanyRepository.findByNormalizedKeyIsNull();
+            for (JobCompany company : companies) {
+                String key = DimensionKeys.company(company.getName());
+                Long canonicalId = jobCompanyRepository.findIdByNormalizedKey(key);
+                if (canonicalId == null) {
+                    jobCompanyRepository.assignKey(company.getId(), key);
+                } else {
+                    jobCompanyRepository.mergeInto(company.getId(), canonicalId);
+                    merged++;
+                }
+            }
+            log.info("Company keys backfilled: {} rows keyed, {} merged", companies.size() - merged, merged);
+        }
+    }
+
+    private Long intern(Cache<String, Long> cache, String key, Supplier<Long> upsert) {
+        Long id = cache.getIfPresent(key);
+        if (id != null) {
+            return id;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The upsert commits on its own
+            return cache.get(key, missing -> upsert.get());
+        }
+
+        Map<String, Long> pending = pendingIds(cache);
+        id = pending.get(key);
+        if (id == null) {
+            id = upsert.get();
+            pending.put(key, id);
+        }
+        return id;
+    }
+
+    // The IDs resolved by the current transaction, moved to the cache when it commits
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> pendingIds(Cache<String, Long> cache) {
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(cache);
+        if (pending == null) {
+            Map<String, Long> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(cache, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.putAll(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(cache);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+}
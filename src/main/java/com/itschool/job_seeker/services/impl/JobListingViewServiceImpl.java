@@ -0,0 +1,80 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobListingViewRepository;
+import com.itschool.job_seeker.services.JobListingViewService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+public class JobListingViewServiceImpl implements JobListingViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobListingViewServiceImpl.class);
+
+    private final JobListingViewRepository jobListingViewRepository;
+    private final boolean reconcileOnStartup;
+
+    // Constructor for injecting the listing repository and the reconciliation settings
+    public JobListingViewServiceImpl(JobListingViewRepository jobListingViewRepository,
+                                     @Value("${listing.reconcile.on-startup:true}") boolean reconcileOnStartup) {
+        this.jobListingViewRepository = jobListingViewRepository;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    /**
+     * Writes the listing row of a job post from its current job post, location and company rows.
+     *
+     * @param jobPostId the ID of the job post
+     */
+    @Override
+    public void refresh(Long jobPostId) {
+        jobListingViewRepository.refresh(jobPostId);
+    }
+
+    /**
+     * Writes the listing rows of several job posts in one statement.
+     *
+     * @param jobPostIds the IDs of the job posts
+     */
+    @Override
+    public void refreshAll(Collection<Long> jobPostIds) {
+        if (!jobPostIds.isEmpty()) {
+            jobListingViewRepository.refreshAll(jobPostIds);
+        }
+    }
+
+    /**
+     * Rebuilds the listing rows from the source tables.
+     *
+     * Runs on a schedule (listing.reconcile.cron, nightly by default) to repair any drift, for
+     * example from rows changed outside the application or a location shared by several job posts.
+     *
+     * @return int the number of listing rows created, corrected or deleted
+     */
+    @Override
+    @Scheduled(cron = "${listing.reconcile.cron:0 45 3 * * *}")
+    public int reconcile() {
+        int corrected = jobListingViewRepository.reconcile() + jobListingViewRepository.deleteOrphans();
+        if (corrected > 0) {
+            log.info("Job listing rows reconciled: {} rows created, corrected or deleted", corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Backfills the listing once the application is ready, so job posts created before the listing
+     * table existed are listed straight away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+}
@@ -3,46 +3,105 @@ package com.itschool.job_seeker.services.impl;
 import com.itschool.job_seeker.entity.JobCompany;
 import com.itschool.job_seeker.entity.JobLocation;
 import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.mapper.JobPostActivityMapper;
+import com.itschool.job_seeker.model.CursorPage;
 import com.itschool.job_seeker.model.IRecruiterJobs;
 import com.itschool.job_seeker.model.JobPostActivityDTO;
+import com.itschool.job_seeker.model.JobPostCursor;
+import com.itschool.job_seeker.model.JobPostSummary;
 import com.itschool.job_seeker.model.RecruiterJobsDTO;
+import com.itschool.job_seeker.repository.JobCompanyRepository;
+import com.itschool.job_seeker.repository.JobListingViewRepository;
+import com.itschool.job_seeker.repository.JobLocationRepository;
 import com.itschool.job_seeker.repository.JobPostActivityRepository;
+import com.itschool.job_seeker.services.JobDimensionService;
+import com.itschool.job_seeker.services.JobListingViewService;
 import com.itschool.job_seeker.services.JobPostActivityService;
-import jakarta.persistence.Transient;
-import org.modelmapper.ModelMapper;
+import com.itschool.job_seeker.services.JobSearchIndexService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 @Component
 public class JobPostActivityServiceImpl implements JobPostActivityService {
 
-    private final ModelMapper modelMapper;
+    private final JobPostActivityMapper jobPostActivityMapper;
     private final JobPostActivityRepository jobPostActivityRepository;
+    private final JobListingViewRepository jobListingViewRepository;
+    private final JobListingViewService jobListingViewService;
+    private final JobSearchIndexService jobSearchIndexService;
+    private final JobDimensionService jobDimensionService;
+    private final JobLocationRepository jobLocationRepository;
+    private final JobCompanyRepository jobCompanyRepository;
+    private final String searchEngine; // "index" for the in-process index, "trigram" for the pg_trgm query, "database" for the LIKE queries
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     // Constructor for JobPostActivityServiceImpl
-    public JobPostActivityServiceImpl(ModelMapper modelMapper, JobPostActivityRepository jobPostActivityRepository) {
-        this.modelMapper = modelMapper;
+    public JobPostActivityServiceImpl(JobPostActivityMapper jobPostActivityMapper, JobPostActivityRepository jobPostActivityRepository,
+                                      JobListingViewRepository jobListingViewRepository, JobListingViewService jobListingViewService,
+                                      JobSearchIndexService jobSearchIndexService, JobDimensionService jobDimensionService,
+                                      JobLocationRepository jobLocationRepository, JobCompanyRepository jobCompanyRepository,
+                                      @Value("${search.engine:index}") String searchEngine,
+                                      @Value("${search.page.default-size:20}") int defaultPageSize,
+                                      @Value("${search.page.max-size:100}") int maxPageSize) {
+        this.jobPostActivityMapper = jobPostActivityMapper;
         this.jobPostActivityRepository = jobPostActivityRepository;
+        this.jobListingViewRepository = jobListingViewRepository;
+        this.jobListingViewService = jobListingViewService;
+        this.jobSearchIndexService = jobSearchIndexService;
+        this.jobDimensionService = jobDimensionService;
+        this.jobLocationRepository = jobLocationRepository;
+        this.jobCompanyRepository = jobCompanyRepository;
+        this.searchEngine = searchEngine;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
-     * Adds a new job post activity.
+     * Adds a new job post activity, or saves an edited one.
+     *
+     * The job post and its listing row are written in one transaction, so the list pages never
+     * show a job post the database does not have, nor miss one it has. The search index is only
+     * updated once that transaction has committed. The location and company
+     * typed in the form are resolved to their canonical rows, so a job post never inserts or edits
+     * a row other job posts share.
      *
      * @param jobPostActivityDTO the DTO containing information for the new job post activity
      * @return JobPostActivityDTO the DTO representation of the saved job post activity
      */
-    @Transient
+    @Transactional
     @Override
     public JobPostActivityDTO addNew(JobPostActivityDTO jobPostActivityDTO) {
         // Convert DTO to entity
         JobPostActivity jobPostActivity = mapToJobPostActivity(jobPostActivityDTO);
 
-        // Save the entity using the repository
-        JobPostActivity savedJobPostActivity = jobPostActivityRepository.save(jobPostActivity);
+        // Point the job post at the shared location and company rows with the submitted values
+        JobLocation location = jobPostActivity.getJobLocationId();
+        if (location != null) {
+            jobPostActivity.setJobLocationId(jobLocationRepository.getReferenceById(
+                    jobDimensionService.getLocationId(location.getCity(), location.getCounty(), location.getCountry())));
+        }
+        JobCompany company = jobPostActivity.getJobCompanyId();
+        if (company != null) {
+            jobPostActivity.setJobCompanyId(jobCompanyRepository.getReferenceById(
+                    jobDimensionService.getCompanyId(company.getName())));
+        }
+
+        // Save the entity using the repository, flushed so the listing upsert below reads the new values
+        JobPostActivity savedJobPostActivity = jobPostActivityRepository.saveAndFlush(jobPostActivity);
+
+        // Write through to the denormalized listing read by the list pages
+        jobListingViewService.refresh(savedJobPostActivity.getJobPostId());
+
+        // Keep the search index in step with new and edited job posts, once they are committed
+        indexAfterCommit(savedJobPostActivity);
 
         // Convert the saved entity back to DTO and return it
         return mapToJobPostActivityDTO(savedJobPostActivity);
@@ -56,7 +115,7 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
      */
     @Override
     public List<RecruiterJobsDTO> getRecruiterJobs(Long recruiter) {
-        List<IRecruiterJobs> recruiterJobsDTO = jobPostActivityRepository.getRecruiterJobs(recruiter);
+        List<IRecruiterJobs> recruiterJobsDTO = jobListingViewRepository.getRecruiterJobs(recruiter);
 
         List<RecruiterJobsDTO> recruiterJobsDTOList = new ArrayList<>();
 
@@ -78,7 +137,7 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
      */
     @Override
     public JobPostActivity getOne(Long id) {
-        return jobPostActivityRepository.findById(id).orElseThrow(()-> new RuntimeException("Job not found"));
+        return jobPostActivityRepository.findDetailsByJobPostId(id).orElseThrow(()-> new RuntimeException("Job not found"));
     }
 
     /**
@@ -104,6 +163,10 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
     /**
      * Searches for job postings based on various criteria.
      *
+     * The in-process search index is used once it has been built. With search.engine set to
+     * "trigram" the search runs as the pg_trgm indexed query, and with "database" (or while the
+     * index is still being built) as the original LIKE query.
+     *
      * @param job the job title to search for
      * @param location the job location to search for
      * @param types the types of job (e.g., full-time, part-time) to filter by
@@ -114,13 +177,20 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
     @Override
     public List<JobPostActivityDTO> search(String job, String location, List<String> types, List<String> remote, LocalDate searchDate) {
 
-        List<JobPostActivity> jobPostActivities;
-        // Perform search based on the presence of searchDate
-        if (Objects.isNull(searchDate)) {
-            jobPostActivities = jobPostActivityRepository.searchWithoutDate(job, location, remote, types);
+        // Every engine resolves the matching IDs, then the job posts are loaded in one query with their location and company
+        List<Long> ids;
+        if ("index".equals(searchEngine) && jobSearchIndexService.isReady()) {
+            ids = jobSearchIndexService.search(job, location, types, remote, searchDate); // Ranked IDs from the index
+        } else if ("trigram".equals(searchEngine)) {
+            ids = jobPostActivityRepository.searchTrigramIds(containsPattern(job), containsPattern(location),
+                    remote, types, Objects.requireNonNullElse(searchDate, LocalDate.EPOCH));
+        } else if (Objects.isNull(searchDate)) {
+            // Perform search based on the presence of searchDate
+            ids = jobPostActivityRepository.searchIdsWithoutDate(job, location, remote, types);
         } else {
-            jobPostActivities = jobPostActivityRepository.search(job, location, remote, types, searchDate);
+            ids = jobPostActivityRepository.searchIds(job, location, remote, types, searchDate);
         }
+        List<JobPostActivity> jobPostActivities = findAllInOrder(ids);
 
         // Map the list of JobPostActivity to JobPostActivityDTO and return
         return jobPostActivities.stream()
@@ -128,6 +198,171 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
                 .toList(); // Collecting the DTOs to a list
     }
 
+    /**
+     * Retrieves one page of all job post activities, newest first.
+     *
+     * @param cursor the token of the page to retrieve (null for the first page)
+     * @param size the requested page size (null for the default)
+     * @return CursorPage<JobPostSummary> the page, with the token of the next page
+     */
+    @Override
+    public CursorPage<JobPostSummary> getPage(String cursor, Integer size) {
+        JobPostCursor after = JobPostCursor.decode(cursor);
+        int limit = pageSize(size);
+
+        // Fetch one extra row to find out whether there is a next page
+        List<JobPostSummary> jobPosts = jobListingViewRepository.findSummaryPage(after.getPostedDate(),
+                after.getJobPostId(), PageRequest.of(0, limit + 1));
+        return toPage(jobPosts, limit);
+    }
+
+    /**
+     * Searches for one page of job postings, newest first.
+     *
+     * Each search engine applies the (posted date, job post ID) keyset cursor itself and returns
+     * just the IDs of the page, which are then loaded as JobPostSummary projections. The database
+     * engines search the job_listing_view table alone, without joins.
+     *
+     * @param job the job title to search for
+     * @param location the job location to search for
+     * @param types the types of job to filter by
+     * @param remote the remote working options to filter by
+     * @param searchDate the date to filter by (may be null)
+     * @param cursor the token of the page to retrieve (null for the first page)
+     * @param size the requested page size (null for the default)
+     * @return CursorPage<JobPostSummary> the page, with the token of the next page
+     */
+    @Override
+    public CursorPage<JobPostSummary> searchPage(String job, String location, List<String> types, List<String> remote,
+                                                 LocalDate searchDate, String cursor, Integer size) {
+        JobPostCursor after = JobPostCursor.decode(cursor);
+        int limit = pageSize(size);
+        LocalDate fromDate = Objects.requireNonNullElse(searchDate, LocalDate.EPOCH);
+
+        // Fetch one extra row to find out whether there is a next page
+        List<Long> ids;
+        if ("index".equals(searchEngine) && jobSearchIndexService.isReady()) {
+            ids = jobSearchIndexService.searchPage(job, location, types, remote, searchDate, after, limit + 1);
+        } else if ("trigram".equals(searchEngine)) {
+            ids = jobListingViewRepository.searchTrigramPageIds(containsPattern(job), containsPattern(location),
+                    remote, types, fromDate, after.getPostedDate(), after.getJobPostId(), limit + 1);
+        } else {
+            ids = jobListingViewRepository.searchPageIds(Objects.requireNonNullElse(job, ""),
+                    Objects.requireNonNullElse(location, ""), remote, types, fromDate,
+                    after.getPostedDate(), after.getJobPostId(), limit + 1);
+        }
+        return toPage(findSummariesInOrder(ids), limit);
+    }
+
+    /**
+     * Turns the rows fetched for a page (up to one more than the page size) into the page.
+     *
+     * @param jobPosts the rows fetched, in listing order
+     * @param limit the page size
+     * @return CursorPage<JobPostSummary> the page, with the token of the next page if there is one
+     */
+    private CursorPage<JobPostSummary> toPage(List<JobPostSummary> jobPosts, int limit) {
+        boolean hasNext = jobPosts.size() > limit;
+        List<JobPostSummary> content = hasNext ? jobPosts.subList(0, limit) : jobPosts;
+
+        String nextCursor = null;
+        if (hasNext) {
+            JobPostSummary last = content.get(content.size() - 1);
+            Date postedDate = Objects.requireNonNullElse(last.postedDate(), new Date(0));
+            nextCursor = new JobPostCursor(postedDate, last.jobPostId()).encode();
+        }
+        return new CursorPage<>(List.copyOf(content), nextCursor);
+    }
+
+    /**
+     * Resolves the page size to use, applying the default and the upper bound.
+     *
+     * @param size the requested page size (may be null)
+     * @return int the page size
+     */
+    private int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Builds a LIKE pattern matching any value that contains the given text.
+     *
+     * @param text the text to look for (may be null or empty, which matches everything)
+     * @return String the pattern, with LIKE wildcards in the text escaped
+     */
+    private static String containsPattern(String text) {
+        if (text == null || text.isEmpty()) {
+            return "%";
+        }
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Loads job posts by ID with their location and company, keeping the order of the given IDs.
+     *
+     * @param ids the IDs of the job posts to load
+     * @return List<JobPostActivity> the job posts found, in the order of the IDs
+     */
+    private List<JobPostActivity> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, JobPostActivity> byId = new HashMap<>();
+        for (JobPostActivity jobPostActivity : jobPostActivityRepository.findListingByJobPostIdIn(ids)) {
+            byId.put(jobPostActivity.getJobPostId(), jobPostActivity);
+        }
+        List<JobPostActivity> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            JobPostActivity jobPostActivity = byId.get(id);
+            if (jobPostActivity != null) {
+                ordered.add(jobPostActivity);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Loads the list view of job posts by ID, keeping the order of the given IDs.
+     *
+     * @param ids the IDs of the job posts to load
+     * @return List<JobPostSummary> the job posts found, in the order of the IDs
+     */
+    private List<JobPostSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, JobPostSummary> byId = new HashMap<>();
+        for (JobPostSummary jobPost : jobListingViewRepository.findSummariesByIds(ids)) {
+            byId.put(jobPost.jobPostId(), jobPost);
+        }
+        List<JobPostSummary> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            JobPostSummary jobPost = byId.get(id);
+            if (jobPost != null) {
+                ordered.add(jobPost);
+            }
+        }
+        return ordered;
+    }
+
+    // Indexes a saved job post once its transaction has committed, so a rollback never leaves the
+    // index with a job post the database does not have
+    private void indexAfterCommit(JobPostActivity jobPostActivity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jobSearchIndexService.index(jobPostActivity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jobSearchIndexService.index(jobPostActivity);
+            }
+        });
+    }
+
     /**
      * Converts a JobPostActivity entity to JobPostActivityDTO.
      *
@@ -135,7 +370,7 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
      * @return JobPostActivityDTO the corresponding DTO representation
      */
     private JobPostActivityDTO mapToJobPostActivityDTO(JobPostActivity jobPostActivity) {
-        return modelMapper.map(jobPostActivity, JobPostActivityDTO.class);
+        return jobPostActivityMapper.toDTO(jobPostActivity);
     }
 
     /**
@@ -145,6 +380,6 @@ public class JobPostActivityServiceImpl implements JobPostActivityService {
      * @return JobPostActivity the corresponding entity representation
      */
     private JobPostActivity mapToJobPostActivity(JobPostActivityDTO jobPostActivityDTO) {
-        return modelMapper.map(jobPostActivityDTO, JobPostActivity.class);
+        return jobPostActivityMapper.toEntity(jobPostActivityDTO);
     }
 }
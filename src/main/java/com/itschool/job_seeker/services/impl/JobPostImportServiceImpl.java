@@ -0,0 +1,248 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.itschool.job_seeker.entity.JobCompany;
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostImportReport;
+import com.itschool.job_seeker.model.JobPostImportRow;
+import com.itschool.job_seeker.services.JobPostImportService;
+import com.itschool.job_seeker.services.JobSearchIndexService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class JobPostImportServiceImpl implements JobPostImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostImportServiceImpl.class);
+
+    private static final List<String> JOB_TYPES = List.of("Full-Time", "Part-Time", "Freelance", "Internship");
+    private static final List<String> REMOTE = List.of("Remote-Only", "Office-Only", "Hybrid");
+
+    private final JobPostImportWriter jobPostImportWriter;
+    private final JobSearchIndexService jobSearchIndexService;
+    private final Validator validator;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    // Constructor for injecting the writer, the search index, the validator and the import settings
+    public JobPostImportServiceImpl(JobPostImportWriter jobPostImportWriter,
+                                    JobSearchIndexService jobSearchIndexService,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    @Value("${import.job-posts.chunk-size:1000}") int chunkSize,
+                                    @Value("${import.job-posts.max-errors:1000}") int maxErrors) {
+        this.jobPostImportWriter = jobPostImportWriter;
+        this.jobSearchIndexService = jobSearchIndexService;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(JobPostImportRow.class);
+        this.csvReader = new CsvMapper().readerFor(JobPostImportRow.class).with(CsvSchema.emptySchema().withHeader());
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports the job posts of a CSV or JSON-lines file for a recruiter.
+     *
+     * Each row is parsed, trimmed and validated as it is read; valid rows are collected into chunks
+     * of import.job-posts.chunk-size rows, written by JobPostImportWriter in one transaction each and
+     * then added to the search index. When a chunk fails, its rows are retried one by one so only the
+     * failing rows are rejected.
+     *
+     * @param input the content of the file
+     * @param filename the name of the file, whose extension gives the format (.csv, .jsonl or .ndjson)
+     * @param postedById the ID of the recruiter posting the jobs
+     * @return JobPostImportReport the number of imported rows and the errors of the others
+     * @throws IllegalArgumentException if the format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public JobPostImportReport importJobPosts(InputStream input, String filename, Long postedById) throws IOException {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        Import job = new Import(postedById, new Date(System.currentTimeMillis()));
+
+        if (name.endsWith(".csv")) {
+            readCsv(input, job);
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            readJsonLines(input, job);
+        } else {
+            throw new IllegalArgumentException("Unsupported file type, expected .csv, .jsonl or .ndjson: " + filename);
+        }
+        write(job.chunk, job.chunkRows, job); // The last, partial chunk
+
+        log.info("Job post import for recruiter {}: {} imported, {} rejected", postedById, job.imported, job.rejected);
+        return new JobPostImportReport(job.imported, job.rejected, job.errors);
+    }
+
+    // CSV with a header row naming the columns; a quoted value may span several lines
+    private void readCsv(InputStream input, Import job) throws IOException {
+        try (MappingIterator<JobPostImportRow> rows = csvReader.readValues(input)) {
+            long row = 0;
+            while (true) {
+                JobPostImportRow value;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    value = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser goes on with the next row
+                    job.reject(row, "unreadable row: " + e.getOriginalMessage());
+                    continue;
+                }
+                accept(value, row, job);
+            }
+        }
+    }
+
+    // One JSON object per line; blank lines are skipped
+    private void readJsonLines(InputStream input, Import job) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                JobPostImportRow value;
+                try {
+                    value = jsonReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    job.reject(row, "unreadable row: " + e.getOriginalMessage());
+                    continue;
+                }
+                accept(value, row, job);
+            }
+        }
+    }
+
+    // Validates a parsed row and adds it to the current chunk, writing the chunk once it is full
+    private void accept(JobPostImportRow value, long row, Import job) {
+        normalize(value);
+        Set<ConstraintViolation<JobPostImportRow>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            job.reject(row, violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+            return;
+        }
+        value.setJobType(canonical(value.getJobType(), JOB_TYPES));
+        value.setRemote(canonical(value.getRemote(), REMOTE));
+
+        job.chunk.add(value);
+        job.chunkRows.add(row);
+        if (job.chunk.size() >= chunkSize) {
+            write(job.chunk, job.chunkRows, job);
+            job.chunk = new ArrayList<>(chunkSize);
+            job.chunkRows = new ArrayList<>(chunkSize);
+        }
+    }
+
+    // Writes a chunk in one transaction; when it fails, retries its rows one by one to find the failing ones
+    private void write(List<JobPostImportRow> chunk, List<Long> rows, Import job) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> jobPostIds;
+        try {
+            jobPostIds = jobPostImportWriter.insert(chunk, job.postedById, job.postedDate);
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                job.reject(rows.get(0), "not saved: " + e.getMostSpecificCause().getMessage());
+            } else {
+                for (int i = 0; i < chunk.size(); i++) {
+                    write(List.of(chunk.get(i)), List.of(rows.get(i)), job);
+                }
+            }
+            return;
+        }
+
+        // Index the committed job posts, as the form does for a single one; the index only reads the
+        // location and company values, not their IDs
+        for (int i = 0; i < chunk.size(); i++) {
+            JobPostImportRow value = chunk.get(i);
+            jobSearchIndexService.index(new JobPostActivity(jobPostIds.get(i), null,
+                    new JobLocation(null, value.getCity(), value.getCounty(), value.getCountry()),
+                    new JobCompany(null, value.getCompany(), ""),
+                    null, null, value.getDescriptionOfJob(), value.getJobTitle(), value.getJobType(),
+                    value.getSalary(), value.getRemote(), job.postedDate));
+        }
+        job.imported += chunk.size();
+    }
+
+    // Trims every value; empty optional values are stored as null
+    private static void normalize(JobPostImportRow value) {
+        value.setJobTitle(trim(value.getJobTitle()));
+        value.setDescriptionOfJob(trim(value.getDescriptionOfJob()));
+        value.setJobType(trim(value.getJobType()));
+        value.setRemote(trim(value.getRemote()));
+        value.setSalary(trim(value.getSalary()));
+        value.setCity(trim(value.getCity()));
+        value.setCounty(trim(value.getCounty()));
+        value.setCountry(trim(value.getCountry()));
+        value.setCompany(trim(value.getCompany()));
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // The spelling used by the search filters, whatever the case in the file
+    private static String canonical(String value, List<String> allowed) {
+        return allowed.stream().filter(candidate -> candidate.equalsIgnoreCase(value)).findFirst().orElse(value);
+    }
+
+    /**
+     * The state of one import: the chunk being filled, and the counts and errors of the report.
+     */
+    private final class Import {
+
+        private final Long postedById;
+        private final Date postedDate;
+        private List<JobPostImportRow> chunk = new ArrayList<>();
+        private List<Long> chunkRows = new ArrayList<>();
+        private final List<JobPostImportReport.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private Import(Long postedById, Date postedDate) {
+            this.postedById = postedById;
+            this.postedDate = postedDate;
+        }
+
+        private void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new JobPostImportReport.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.model.JobPostImportRow;
+import com.itschool.job_seeker.services.JobDimensionService;
+import com.itschool.job_seeker.services.JobListingViewService;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes the job posts of a bulk import, one chunk of rows per call and transaction.
+ *
+ * The rows go to the database as JDBC batches (multi-row INSERT statements with reWriteBatchedInserts)
+ * instead of one entity save per job post. Their locations and companies are resolved by
+ * JobDimensionService, which only goes to the database for values it has not seen yet. Kept apart
+ * from the service so that it can retry a failed chunk row by row, each row in a new transaction.
+ */
+@Component
+public class JobPostImportWriter {
+
+    private static final String INSERT_JOB_POST = "INSERT INTO job_post_activity (posted_by_id, job_location_id, " +
+            "job_company_id, description_of_job, job_title, job_type, salary, remote, posted_date) " +
+            "VALUES (:postedById, :locationId, :companyId, :description, :title, :type, :salary, :remote, :postedDate)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JobListingViewService jobListingViewService;
+    private final JobDimensionService jobDimensionService;
+
+    public JobPostImportWriter(NamedParameterJdbcTemplate jdbcTemplate, JobListingViewService jobListingViewService,
+                               JobDimensionService jobDimensionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobListingViewService = jobListingViewService;
+        this.jobDimensionService = jobDimensionService;
+    }
+
+    /**
+     * Inserts a chunk of validated job posts, with the locations and companies they need, and their
+     * listing rows.
+     *
+     * @param rows the job posts to insert
+     * @param postedById the ID of the recruiter posting them
+     * @param postedDate the posted date of every job post
+     * @return List<Long> the IDs of the new job posts, in the order of the rows
+     */
+    @Transactional
+    public List<Long> insert(List<JobPostImportRow> rows, Long postedById, Date postedDate) {
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            JobPostImportRow row = rows.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("postedById", postedById)
+                    .addValue("locationId", jobDimensionService.getLocationId(row.getCity(), row.getCounty(), row.getCountry()))
+                    .addValue("companyId", jobDimensionService.getCompanyId(row.getCompany()))
+                    .addValue("description", row.getDescriptionOfJob())
+                    .addValue("title", row.getJobTitle())
+                    .addValue("type", row.getJobType())
+                    .addValue("salary", row.getSalary())
+                    .addValue("remote", row.getRemote())
+                    .addValue("postedDate", postedDate);
+        }
+        List<Long> jobPostIds = insertReturningIds(INSERT_JOB_POST, batch, "job_post_id");
+
+        // Write through to the denormalized listing, like a job post created from the form
+        jobListingViewService.refreshAll(jobPostIds);
+        return jobPostIds;
+    }
+
+    // Runs an insert as one JDBC batch and returns the generated IDs, in the order of the batch
+    private List<Long> insertReturningIds(String sql, SqlParameterSource[] batch, String idColumn) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(sql, batch, keyHolder, new String[]{idColumn});
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get(idColumn)).longValue())
+                .toList();
+    }
+}
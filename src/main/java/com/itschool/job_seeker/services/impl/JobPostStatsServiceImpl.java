@@ -0,0 +1,145 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobPostStatsRepository;
+import com.itschool.job_seeker.services.JobPostStatsService;
+import com.itschool.job_seeker.util.BatchingQueue;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+@Component
+public class JobPostStatsServiceImpl implements JobPostStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostStatsServiceImpl.class);
+
+    private final JobPostStatsRepository jobPostStatsRepository;
+    private final boolean reconcileOnStartup;
+    private final BatchingQueue<Long> viewQueue; // IDs of the job posts viewed, counted in batches
+
+    // Constructor for injecting the counter repository, the reconciliation settings and the view queue settings
+    public JobPostStatsServiceImpl(JobPostStatsRepository jobPostStatsRepository,
+                                   @Value("${stats.reconcile.on-startup:true}") boolean reconcileOnStartup,
+                                   @Value("${stats.views.queue-capacity:10000}") int viewQueueCapacity,
+                                   @Value("${stats.views.batch-size:1000}") int viewBatchSize,
+                                   @Value("${stats.views.max-wait:PT1S}") Duration viewMaxWait,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jobPostStatsRepository = jobPostStatsRepository;
+        this.reconcileOnStartup = reconcileOnStartup;
+        // A page view never waits for room in the queue
+        this.viewQueue = new BatchingQueue<>("job-view-writer", virtualThreads, viewQueueCapacity, viewBatchSize,
+                viewMaxWait, Duration.ZERO, this::writeViews);
+    }
+
+    /**
+     * Counts a new application for a job post.
+     *
+     * @param jobPostId the ID of the job post applied to
+     */
+    @Override
+    public void recordApplication(Long jobPostId) {
+        jobPostStatsRepository.incrementApplicants(jobPostId);
+    }
+
+    /**
+     * Counts a new save of a job post.
+     *
+     * @param jobPostId the ID of the job post saved
+     */
+    @Override
+    public void recordSave(Long jobPostId) {
+        jobPostStatsRepository.incrementSaves(jobPostId);
+    }
+
+    /**
+     * Counts a view of a job post's details page, unless the viewer is the recruiter who posted it.
+     *
+     * The view is queued and written with the others of the next batch. When the queue is full the
+     * view is not counted: the counter is an indication, and a read must not wait for a write.
+     *
+     * @param jobPostId the ID of the job post viewed
+     * @param postedById the ID of the recruiter who posted the job post
+     * @param viewerId the ID of the user viewing it, or null for anonymous visitors
+     */
+    @Override
+    public void recordView(Long jobPostId, Long postedById, Long viewerId) {
+        if (jobPostId == null || (viewerId != null && Objects.equals(viewerId, postedById))) {
+            return;
+        }
+        if (viewQueue.submit(jobPostId) == null) {
+            log.debug("View queue full, view of job post {} not counted", jobPostId);
+        }
+    }
+
+    /**
+     * Writes a batch of views, one counter update per job post.
+     *
+     * The job posts are updated in ID order, so two instances writing at the same time lock their
+     * rows in the same order. A job post deleted in the meantime loses its views, the others are kept.
+     *
+     * @param batch the IDs of the job posts viewed, one per view
+     * @return List<Long> always empty: views that cannot be counted are dropped, not rejected
+     */
+    private List<Long> writeViews(List<Long> batch) {
+        Map<Long, Long> views = new TreeMap<>();
+        for (Long jobPostId : batch) {
+            views.merge(jobPostId, 1L, Long::sum);
+        }
+        views.forEach((jobPostId, count) -> {
+            try {
+                jobPostStatsRepository.addViews(jobPostId, count);
+            } catch (DataAccessException e) {
+                log.warn("Dropping {} views of job post {}: {}", count, jobPostId, e.getMessage());
+            }
+        });
+        return List.of();
+    }
+
+    /**
+     * Rebuilds the applicant and save counters from the source tables.
+     *
+     * Runs on a schedule (stats.reconcile.cron, nightly by default) to repair any drift, for example
+     * from rows changed outside the application.
+     *
+     * @return int the number of counter rows created or corrected
+     */
+    @Override
+    @Scheduled(cron = "${stats.reconcile.cron:0 30 3 * * *}")
+    public int reconcile() {
+        int corrected = jobPostStatsRepository.reconcile();
+        if (corrected > 0) {
+            log.info("Job post counters reconciled: {} rows created or corrected", corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Backfills the counters once the application is ready, so job posts created before the
+     * counters existed show real numbers straight away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Writes the views still queued when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        viewQueue.close();
+    }
+}
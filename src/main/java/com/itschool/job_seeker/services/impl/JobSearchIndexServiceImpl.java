@@ -0,0 +1,685 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostCursor;
+import com.itschool.job_seeker.model.SearchIndexConsistencyReport;
+import com.itschool.job_seeker.repository.JobPostActivityRepository;
+import com.itschool.job_seeker.services.JobSearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over job posts.
+ *
+ * Titles and locations are tokenized into terms with posting lists of job posts, and job type and
+ * remote option get their own posting lists. Every posting list is kept in listing order (posted date,
+ * then ID, newest first). A search walks the posting lists of its most selective criterion in that
+ * order and checks the other criteria on each document found there, instead of a LIKE scan over
+ * job_post_activity and job_location. A page therefore stops after its last row, and the posted date
+ * filter stops the walk at the first older job post. The index is only built and kept up to date
+ * when search.engine is "index".
+ */
+@Component
+public class JobSearchIndexServiceImpl implements JobSearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSearchIndexServiceImpl.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final Comparator<IndexedJob> NEWEST_FIRST = Comparator.comparingLong(IndexedJob::postedMillis)
+            .thenComparingLong(IndexedJob::id)
+            .reversed();
+
+    private final JobPostActivityRepository jobPostActivityRepository;
+    private final boolean enabled; // Only the "index" search engine reads the index
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, IndexedJob> documents = new HashMap<>();
+    private NavigableSet<IndexedJob> newestFirst = new TreeSet<>(NEWEST_FIRST);
+    private NavigableMap<String, NavigableSet<IndexedJob>> titlePostings = new TreeMap<>();
+    private NavigableMap<String, NavigableSet<IndexedJob>> locationPostings = new TreeMap<>();
+    private Map<String, NavigableSet<IndexedJob>> typePostings = new HashMap<>();
+    private Map<String, NavigableSet<IndexedJob>> remotePostings = new HashMap<>();
+    private volatile boolean ready;
+
+    // Counts the updates made through index and remove; each job post maps to the count of its last
+    // update, so a consistency check can tell which job posts changed after it read the database
+    private long updates;
+    private final Map<Long, Long> lastUpdate = new HashMap<>();
+
+    public JobSearchIndexServiceImpl(JobPostActivityRepository jobPostActivityRepository,
+                                     @Value("${search.engine:index}") String searchEngine) {
+        this.jobPostActivityRepository = jobPostActivityRepository;
+        this.enabled = "index".equals(searchEngine);
+    }
+
+    /**
+     * Indexes a job post, replacing any previous version of it.
+     *
+     * @param jobPostActivity the job post to index
+     */
+    @Override
+    public void index(JobPostActivity jobPostActivity) {
+        if (!enabled || jobPostActivity == null || jobPostActivity.getJobPostId() == null) {
+            return;
+        }
+        IndexedJob document = toDocument(jobPostActivity);
+
+        lock.writeLock().lock();
+        try {
+            unlink(documents.remove(document.id()));
+            link(document);
+            lastUpdate.put(document.id(), ++updates);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a job post from the index.
+     *
+     * @param jobPostId the ID of the job post to remove
+     */
+    @Override
+    public void remove(Long jobPostId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unlink(documents.remove(jobPostId));
+            lastUpdate.put(jobPostId, ++updates);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * Every title and location keyword has to match the start of a term in the job post, and the
+     * type, remote and date filters have to match exactly. Results are ranked by the number of
+     * keywords that match a whole term, then by posted date, newest first.
+     *
+     * @param job the job title keywords to search for (may be empty)
+     * @param location the location keywords to search for (may be empty)
+     * @param types the job types to filter by
+     * @param remote the remote options to filter by
+     * @param searchDate the earliest posted date to include (may be null)
+     * @return List<Long> the IDs of the matching job posts, best match first
+     */
+    @Override
+    public List<Long> search(String job, String location, List<String> types, List<String> remote, LocalDate searchDate) {
+        Query query = Query.of(job, location, types, remote, searchDate);
+
+        lock.readLock().lock();
+        try {
+            List<IndexedJob> ranked = new ArrayList<>();
+            Iterator<IndexedJob> candidates = walk(query, null);
+            while (candidates.hasNext()) {
+                IndexedJob document = candidates.next();
+                if (query.matches(document)) {
+                    ranked.add(document);
+                }
+            }
+
+            // The matches come newest first, and the sort is stable, so ties stay newest first
+            Map<Long, Integer> scores = new HashMap<>();
+            for (IndexedJob document : ranked) {
+                scores.put(document.id(), score(document, query.titleTokens(), query.locationTokens()));
+            }
+            ranked.sort(Comparator.<IndexedJob>comparingInt(document -> scores.get(document.id())).reversed());
+
+            return ranked.stream().map(IndexedJob::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index for one page of matching job posts, newest first.
+     *
+     * The posting lists are walked in listing order from the cursor, and the walk stops at the
+     * {@code limit}th match, so the cost of a page does not grow with the number of matches or with how
+     * deep into the results it is.
+     *
+     * @param job the job title keywords to search for (may be empty)
+     * @param location the location keywords to search for (may be empty)
+     * @param types the job types to filter by
+     * @param remote the remote options to filter by
+     * @param searchDate the earliest posted date to include (may be null)
+     * @param after the cursor the page starts after
+     * @param limit the maximum number of IDs to return
+     * @return List<Long> the IDs of the matching job posts, ordered by posted date and ID, newest first
+     */
+    @Override
+    public List<Long> searchPage(String job, String location, List<String> types, List<String> remote,
+                                 LocalDate searchDate, JobPostCursor after, int limit) {
+        Query query = Query.of(job, location, types, remote, searchDate);
+        // Sorts where the cursor's job post would, so the walk starts with the job post after it
+        IndexedJob from = new IndexedJob(after.getJobPostId(), Set.of(), Set.of(), null, null,
+                after.getPostedDate().getTime(), null);
+
+        lock.readLock().lock();
+        try {
+            List<Long> page = new ArrayList<>(limit);
+            Iterator<IndexedJob> candidates = walk(query, from);
+            while (page.size() < limit && candidates.hasNext()) {
+                IndexedJob document = candidates.next();
+                if (query.matches(document)) {
+                    page.add(document.id());
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            log.info("Job search index not built, search.engine does not use it");
+            return;
+        }
+        try {
+            int indexed = rebuild();
+            log.info("Job search index built with {} job posts", indexed);
+        } catch (RuntimeException e) {
+            log.warn("Could not build the job search index, searches will use the database", e);
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database.
+     *
+     * The new index is built aside and swapped in at the end, so searches keep being served
+     * from the old one while the rebuild is running.
+     *
+     * @return int the number of job posts indexed
+     */
+    @Override
+    public int rebuild() {
+        Map<Long, IndexedJob> rebuilt = loadDocuments();
+
+        lock.writeLock().lock();
+        try {
+            documents = new HashMap<>();
+            newestFirst = new TreeSet<>(NEWEST_FIRST);
+            titlePostings = new TreeMap<>();
+            locationPostings = new TreeMap<>();
+            typePostings = new HashMap<>();
+            remotePostings = new HashMap<>();
+            rebuilt.values().forEach(this::link);
+            ready = true;
+            return documents.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Periodically checks the index against the database and repairs any drift.
+     */
+    @Scheduled(initialDelayString = "${search.index.consistency-check-delay:PT15M}",
+            fixedDelayString = "${search.index.consistency-check-delay:PT15M}")
+    public void scheduledConsistencyCheck() {
+        if (!enabled || !ready) {
+            return;
+        }
+        SearchIndexConsistencyReport report = checkConsistency(true);
+        if (!report.isConsistent()) {
+            log.warn("Job search index was out of sync and has been repaired: {} missing, {} stale, {} orphaned",
+                    report.getMissing().size(), report.getStale().size(), report.getOrphaned().size());
+        }
+    }
+
+    /**
+     * Compares the index with the database.
+     *
+     * The database is read without holding the lock, so job posts indexed or removed while it is
+     * being read are left out of the comparison: the index already has their latest version, which
+     * the read may have missed. The repair runs under the write lock and checks every job post again
+     * against the index as it is then, so it never undoes an update made during the check.
+     *
+     * @param repair whether missing, stale and orphaned entries should be fixed
+     * @return SearchIndexConsistencyReport the differences found
+     */
+    @Override
+    public SearchIndexConsistencyReport checkConsistency(boolean repair) {
+        long snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = updates;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<Long, IndexedJob> expected = loadDocuments();
+        List<Long> missing = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        List<Long> orphaned = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            compare(expected, snapshot, missing, stale, orphaned);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (repair) {
+            lock.writeLock().lock();
+            try {
+                if (!(missing.isEmpty() && stale.isEmpty() && orphaned.isEmpty())) {
+                    // Updates made since the comparison are left alone, like those made during the read
+                    missing.clear();
+                    stale.clear();
+                    orphaned.clear();
+                    compare(expected, snapshot, missing, stale, orphaned);
+                }
+                for (Long id : missing) {
+                    unlink(documents.remove(id));
+                    link(expected.get(id));
+                }
+                for (Long id : stale) {
+                    unlink(documents.remove(id));
+                    link(expected.get(id));
+                }
+                for (Long id : orphaned) {
+                    unlink(documents.remove(id));
+                }
+                // Updates this check has accounted for cannot affect a later one
+                lastUpdate.values().removeIf(update -> update <= snapshot);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return new SearchIndexConsistencyReport(expected.size(), missing, stale, orphaned, repair);
+    }
+
+    // Sorts the differences between the database and the index into missing, stale and orphaned job
+    // posts, skipping those updated after the snapshot count was taken (caller holds the lock)
+    private void compare(Map<Long, IndexedJob> expected, long snapshot,
+                         List<Long> missing, List<Long> stale, List<Long> orphaned) {
+        expected.forEach((id, document) -> {
+            if (updatedSince(id, snapshot)) {
+                return;
+            }
+            IndexedJob indexed = documents.get(id);
+            if (indexed == null) {
+                missing.add(id);
+            } else if (!indexed.equals(document)) {
+                stale.add(id);
+            }
+        });
+        for (Long id : documents.keySet()) {
+            if (!expected.containsKey(id) && !updatedSince(id, snapshot)) {
+                orphaned.add(id);
+            }
+        }
+    }
+
+    private boolean updatedSince(Long id, long snapshot) {
+        Long update = lastUpdate.get(id);
+        return update != null && update > snapshot;
+    }
+
+    /**
+     * Tells whether the index has been built.
+     *
+     * @return true if the index is ready, false otherwise
+     */
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Walks the candidates of a search in listing order (caller holds the read lock).
+     *
+     * Only the posting lists of the most selective criterion are walked, each from the cursor on and
+     * merged on the fly; the caller checks the other criteria on every document returned. No posting
+     * list is copied, and the walk ends at the first job post older than the posted date filter.
+     *
+     * @param query the criteria of the search
+     * @param from the position the walk starts after, or null to start with the newest job post
+     * @return Iterator<IndexedJob> the candidates, newest first, each one once
+     */
+    private Iterator<IndexedJob> walk(Query query, IndexedJob from) {
+        List<NavigableSet<IndexedJob>> driver = driver(query);
+        if (driver == null) {
+            driver = List.of(newestFirst);
+        }
+        Iterator<IndexedJob> candidates = new NewestFirstMerge(driver, from);
+        if (query.fromDay() == null) {
+            return candidates;
+        }
+        return new Iterator<>() {
+            private IndexedJob next = advance();
+
+            private IndexedJob advance() {
+                if (!candidates.hasNext()) {
+                    return null;
+                }
+                IndexedJob document = candidates.next();
+                return query.isAfterDateRange(document) ? null : document;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IndexedJob next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                IndexedJob current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Picks the criterion with the fewest postings (caller holds the read lock).
+     *
+     * @return List<NavigableSet<IndexedJob>> the posting lists of the criterion, any of which a job post
+     * has to be in; null when there is nothing to filter on but the posted date
+     */
+    private List<NavigableSet<IndexedJob>> driver(Query query) {
+        List<List<NavigableSet<IndexedJob>>> criteria = new ArrayList<>();
+        if (query.types() != null) {
+            criteria.add(lookup(typePostings, query.types()));
+        }
+        if (query.remote() != null) {
+            criteria.add(lookup(remotePostings, query.remote()));
+        }
+        for (String token : query.titleTokens()) {
+            criteria.add(new ArrayList<>(prefixRange(titlePostings, token).values()));
+        }
+        for (String token : query.locationTokens()) {
+            criteria.add(new ArrayList<>(prefixRange(locationPostings, token).values()));
+        }
+
+        List<NavigableSet<IndexedJob>> smallest = null;
+        long smallestSize = Long.MAX_VALUE;
+        for (List<NavigableSet<IndexedJob>> criterion : criteria) {
+            long size = 0;
+            for (NavigableSet<IndexedJob> postingList : criterion) {
+                size += postingList.size();
+            }
+            if (size < smallestSize) {
+                smallest = criterion;
+                smallestSize = size;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Reads every job post from the database, one page at a time, into index documents.
+     *
+     * @return Map<Long, IndexedJob> the documents keyed by job post ID
+     */
+    private Map<Long, IndexedJob> loadDocuments() {
+        Map<Long, IndexedJob> loaded = new HashMap<>();
+        PageRequest pageRequest = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("jobPostId"));
+        Page<JobPostActivity> page;
+        do {
+            page = jobPostActivityRepository.findAll(pageRequest);
+            for (JobPostActivity jobPostActivity : page) {
+                loaded.put(jobPostActivity.getJobPostId(), toDocument(jobPostActivity));
+            }
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+        return loaded;
+    }
+
+    // Adds a document to every posting list it belongs to (caller holds the write lock)
+    private void link(IndexedJob document) {
+        documents.put(document.id(), document);
+        newestFirst.add(document);
+        document.titleTerms().forEach(term -> titlePostings.computeIfAbsent(term, k -> new TreeSet<>(NEWEST_FIRST)).add(document));
+        document.locationTerms().forEach(term -> locationPostings.computeIfAbsent(term, k -> new TreeSet<>(NEWEST_FIRST)).add(document));
+        if (document.jobType() != null) {
+            typePostings.computeIfAbsent(document.jobType(), k -> new TreeSet<>(NEWEST_FIRST)).add(document);
+        }
+        if (document.remote() != null) {
+            remotePostings.computeIfAbsent(document.remote(), k -> new TreeSet<>(NEWEST_FIRST)).add(document);
+        }
+    }
+
+    // Removes a document from every posting list it belongs to (caller holds the write lock)
+    private void unlink(IndexedJob document) {
+        if (document == null) {
+            return;
+        }
+        newestFirst.remove(document);
+        document.titleTerms().forEach(term -> detach(titlePostings, term, document));
+        document.locationTerms().forEach(term -> detach(locationPostings, term, document));
+        detach(typePostings, document.jobType(), document);
+        detach(remotePostings, document.remote(), document);
+    }
+
+    private static void detach(Map<String, NavigableSet<IndexedJob>> postings, String key, IndexedJob document) {
+        if (key == null) {
+            return;
+        }
+        NavigableSet<IndexedJob> postingList = postings.get(key);
+        if (postingList != null) {
+            postingList.remove(document);
+            if (postingList.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static SortedMap<String, NavigableSet<IndexedJob>> prefixRange(
+            NavigableMap<String, NavigableSet<IndexedJob>> postings, String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<NavigableSet<IndexedJob>> lookup(Map<String, NavigableSet<IndexedJob>> postings, Set<String> keys) {
+        List<NavigableSet<IndexedJob>> found = new ArrayList<>();
+        for (String key : keys) {
+            NavigableSet<IndexedJob> postingList = postings.get(key);
+            if (postingList != null) {
+                found.add(postingList);
+            }
+        }
+        return found;
+    }
+
+    // One point for every keyword that matches a whole term rather than just its beginning
+    private static int score(IndexedJob document, List<String> titleTokens, List<String> locationTokens) {
+        int score = 0;
+        for (String token : titleTokens) {
+            if (document.titleTerms().contains(token)) {
+                score++;
+            }
+        }
+        for (String token : locationTokens) {
+            if (document.locationTerms().contains(token)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private static IndexedJob toDocument(JobPostActivity jobPostActivity) {
+        Set<String> locationTerms = new HashSet<>();
+        JobLocation location = jobPostActivity.getJobLocationId();
+        if (location != null) {
+            locationTerms.addAll(tokenize(location.getCity()));
+            locationTerms.addAll(tokenize(location.getCounty()));
+            locationTerms.addAll(tokenize(location.getCountry()));
+        }
+
+        Date postedDate = jobPostActivity.getPostedDate();
+        Long postedDay = postedDate == null ? null
+                : postedDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+
+        return new IndexedJob(jobPostActivity.getJobPostId(),
+                new HashSet<>(tokenize(jobPostActivity.getJobTitle())),
+                locationTerms,
+                normalize(jobPostActivity.getJobType()),
+                normalize(jobPostActivity.getRemote()),
+                postedDate == null ? 0L : postedDate.getTime(),
+                postedDay);
+    }
+
+    /**
+     * Splits text into lower-case terms on anything that is not a letter or a digit.
+     *
+     * @param text the text to split (may be null)
+     * @return List<String> the distinct terms, in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Normalized values of a filter, or null when it is not set
+    private static Set<String> normalizeAll(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            String key = normalize(value);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    // Whether every keyword is the beginning of one of the terms
+    private static boolean matchesAll(Set<String> terms, List<String> tokens) {
+        for (String token : tokens) {
+            boolean found = false;
+            for (String term : terms) {
+                if (term.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The criteria of one search, in the form they are checked against a document.
+     */
+    private record Query(List<String> titleTokens, List<String> locationTokens, Set<String> types,
+                         Set<String> remote, Long fromDay) {
+
+        static Query of(String job, String location, List<String> types, List<String> remote, LocalDate searchDate) {
+            return new Query(tokenize(job), tokenize(location), normalizeAll(types), normalizeAll(remote),
+                    searchDate == null ? null : searchDate.toEpochDay());
+        }
+
+        boolean matches(IndexedJob document) {
+            if (types != null && !types.contains(document.jobType())) {
+                return false;
+            }
+            if (remote != null && !remote.contains(document.remote())) {
+                return false;
+            }
+            if (fromDay != null && isAfterDateRange(document)) {
+                return false;
+            }
+            return matchesAll(document.titleTerms(), titleTokens) && matchesAll(document.locationTerms(), locationTokens);
+        }
+
+        // Posted before the date filter; in listing order, so is every job post after it
+        boolean isAfterDateRange(IndexedJob document) {
+            return document.postedDay() == null || document.postedDay() < fromDay;
+        }
+    }
+
+    /**
+     * Merges posting lists in listing order, starting after a position, without copying them.
+     *
+     * A job post found in several of the lists (e.g. under "developer" and "devops" for "dev") sorts
+     * to the same place in each of them, so its copies come out one after the other and only the first
+     * is returned.
+     */
+    private static final class NewestFirstMerge implements Iterator<IndexedJob> {
+
+        private final PriorityQueue<Head> heads;
+
+        private NewestFirstMerge(List<NavigableSet<IndexedJob>> postingLists, IndexedJob from) {
+            heads = new PriorityQueue<>(Math.max(1, postingLists.size()), Comparator.comparing(Head::document, NEWEST_FIRST));
+            for (NavigableSet<IndexedJob> postingList : postingLists) {
+                push((from == null ? postingList : postingList.tailSet(from, false)).iterator());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public IndexedJob next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            push(head.rest());
+            while (!heads.isEmpty() && heads.peek().document().id().equals(head.document().id())) {
+                push(heads.poll().rest());
+            }
+            return head.document();
+        }
+
+        private void push(Iterator<IndexedJob> postingList) {
+            if (postingList.hasNext()) {
+                heads.add(new Head(postingList.next(), postingList));
+            }
+        }
+
+        private record Head(IndexedJob document, Iterator<IndexedJob> rest) {
+        }
+    }
+
+    private record IndexedJob(Long id, Set<String> titleTerms, Set<String> locationTerms,
+                              String jobType, String remote, long postedMillis, Long postedDay) {
+    }
+}
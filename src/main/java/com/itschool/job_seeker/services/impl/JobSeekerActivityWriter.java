@@ -0,0 +1,128 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobSeekerApply;
+import com.itschool.job_seeker.entity.JobSeekerSave;
+import com.itschool.job_seeker.model.JobApplicationRequest;
+import com.itschool.job_seeker.repository.JobPostActivityRepository;
+import com.itschool.job_seeker.repository.JobSeekerApplyRepository;
+import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
+import com.itschool.job_seeker.repository.JobSeekerSaveRepository;
+import com.itschool.job_seeker.services.JobPostStatsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes job applications and saves, each call in its own transaction.
+ *
+ * The job-seeker and job post are attached as references (getReferenceById), so a write needs no
+ * lookups of the profile or the job post, and with sequence IDs Hibernate sends the inserts of a
+ * batch as JDBC batches. Rows that already exist are skipped, so writing the same application or
+ * save twice is harmless. Kept apart from the services so that they can retry a failed batch row
+ * by row, each row in a new transaction.
+ */
+@Component
+public class JobSeekerActivityWriter {
+
+    private final JobSeekerApplyRepository jobSeekerApplyRepository;
+    private final JobSeekerSaveRepository jobSeekerSaveRepository;
+    private final JobSeekerProfileRepository jobSeekerProfileRepository;
+    private final JobPostActivityRepository jobPostActivityRepository;
+    private final JobPostStatsService jobPostStatsService;
+
+    public JobSeekerActivityWriter(JobSeekerApplyRepository jobSeekerApplyRepository,
+                                   JobSeekerSaveRepository jobSeekerSaveRepository,
+                                   JobSeekerProfileRepository jobSeekerProfileRepository,
+                                   JobPostActivityRepository jobPostActivityRepository,
+                                   JobPostStatsService jobPostStatsService) {
+        this.jobSeekerApplyRepository = jobSeekerApplyRepository;
+        this.jobSeekerSaveRepository = jobSeekerSaveRepository;
+        this.jobSeekerProfileRepository = jobSeekerProfileRepository;
+        this.jobPostActivityRepository = jobPostActivityRepository;
+        this.jobPostStatsService = jobPostStatsService;
+    }
+
+    /**
+     * Inserts a batch of job applications and counts them in the job posts' counters.
+     *
+     * Applications that are already stored, or repeated within the batch, are skipped.
+     *
+     * @param requests the applications to write
+     * @return int the number of applications inserted
+     */
+    @Transactional
+    public int insertApplications(List<JobApplicationRequest> requests) {
+        List<JobApplicationRequest> pending = withoutExistingApplications(requests);
+
+        List<JobSeekerApply> applications = new ArrayList<>(pending.size());
+        for (JobApplicationRequest request : pending) {
+            JobSeekerApply jobSeekerApply = new JobSeekerApply();
+            jobSeekerApply.setUserId(jobSeekerProfileRepository.getReferenceById(request.userAccountId()));
+            jobSeekerApply.setJob(jobPostActivityRepository.getReferenceById(request.jobPostId()));
+            jobSeekerApply.setApplyDate(request.applyDate());
+            jobSeekerApply.setCoverLetter(request.coverLetter());
+            applications.add(jobSeekerApply);
+        }
+        jobSeekerApplyRepository.saveAll(applications);
+        jobSeekerApplyRepository.flush(); // Send the batched inserts before the counters are touched
+
+        for (JobApplicationRequest request : pending) {
+            jobPostStatsService.recordApplication(request.jobPostId());
+        }
+        return pending.size();
+    }
+
+    /**
+     * Inserts a job save and counts it in the job post's counters, unless it is already stored.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostId the ID of the job post to save
+     * @return true if the save was inserted, false if it already existed
+     */
+    @Transactional
+    public boolean insertSave(Long userAccountId, Long jobPostId) {
+        if (jobSeekerSaveRepository.existsByUserIdUserAccountIdAndJobJobPostId(userAccountId, jobPostId)) {
+            return false;
+        }
+        JobSeekerSave jobSeekerSave = new JobSeekerSave();
+        jobSeekerSave.setUserId(jobSeekerProfileRepository.getReferenceById(userAccountId));
+        jobSeekerSave.setJob(jobPostActivityRepository.getReferenceById(jobPostId));
+        jobSeekerSaveRepository.saveAndFlush(jobSeekerSave);
+        jobPostStatsService.recordSave(jobPostId);
+        return true;
+    }
+
+    /**
+     * Drops the applications that are already stored or repeated within the batch.
+     *
+     * @param requests the applications to check
+     * @return the applications still to be inserted, in their original order
+     */
+    private List<JobApplicationRequest> withoutExistingApplications(List<JobApplicationRequest> requests) {
+        Set<Long> userAccountIds = new HashSet<>();
+        Set<Long> jobPostIds = new HashSet<>();
+        for (JobApplicationRequest request : requests) {
+            userAccountIds.add(request.userAccountId());
+            jobPostIds.add(request.jobPostId());
+        }
+
+        // One query for the whole batch; a (user, job) key per stored application
+        Set<List<Long>> seen = new HashSet<>();
+        for (Object[] pair : jobSeekerApplyRepository.findExistingApplications(userAccountIds, jobPostIds)) {
+            seen.add(List.of((Long) pair[0], (Long) pair[1]));
+        }
+
+        List<JobApplicationRequest> pending = new ArrayList<>(requests.size());
+        for (JobApplicationRequest request : requests) {
+            // add() is false for applications stored already or seen earlier in this batch
+            if (seen.add(List.of(request.userAccountId(), request.jobPostId()))) {
+                pending.add(request);
+            }
+        }
+        return pending;
+    }
+}
@@ -3,20 +3,57 @@ package com.itschool.job_seeker.services.impl;
 import com.itschool.job_seeker.entity.JobPostActivity;
 import com.itschool.job_seeker.entity.JobSeekerApply;
 import com.itschool.job_seeker.entity.JobSeekerProfile;
+import com.itschool.job_seeker.model.JobApplicationRequest;
 import com.itschool.job_seeker.repository.JobSeekerApplyRepository;
 import com.itschool.job_seeker.services.JobSeekerApplyService;
+import com.itschool.job_seeker.util.BatchingQueue;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 @Component
 public class JobSeekerApplyServiceImpl implements JobSeekerApplyService {
 
+    private static final Logger log = LoggerFactory.getLogger(JobSeekerApplyServiceImpl.class);
+
     private final JobSeekerApplyRepository jobSeekerApplyRepository;
+    private final JobSeekerActivityWriter jobSeekerActivityWriter;
+    private final BatchingQueue<JobApplicationRequest> applicationQueue; // null when applications are written synchronously
+    private final Duration writeTimeout;
 
-    public JobSeekerApplyServiceImpl(JobSeekerApplyRepository jobSeekerApplyRepository) {
+    // Constructor for injecting the repository, the writer and the application queue settings
+    public JobSeekerApplyServiceImpl(JobSeekerApplyRepository jobSeekerApplyRepository,
+                                     JobSeekerActivityWriter jobSeekerActivityWriter,
+                                     @Value("${apply.queue.enabled:false}") boolean queueEnabled,
+                                     @Value("${apply.queue.capacity:10000}") int queueCapacity,
+                                     @Value("${apply.queue.batch-size:50}") int batchSize,
+                                     @Value("${apply.queue.max-wait:PT0.05S}") Duration maxWait,
+                                     @Value("${apply.queue.offer-timeout:PT0.2S}") Duration offerTimeout,
+                                     @Value("${apply.queue.write-timeout:PT10S}") Duration writeTimeout,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.jobSeekerApplyRepository = jobSeekerApplyRepository;
+        this.jobSeekerActivityWriter = jobSeekerActivityWriter;
+        this.writeTimeout = writeTimeout;
+        this.applicationQueue = queueEnabled
+                ? new BatchingQueue<>("job-application-writer", virtualThreads, queueCapacity, batchSize, maxWait, offerTimeout, this::writeApplications)
+                : null;
     }
 
     /**
@@ -40,11 +77,134 @@ public class JobSeekerApplyServiceImpl implements JobSeekerApplyService {
     }
 
     /**
-     * Adds a new job application to the repository.
+     * Retrieves which of the given job postings a job-seeker has applied to.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostIds the IDs of the job postings to check
+     * @return a set with the IDs of the job postings the job-seeker has applied to
+     */
+    public Set<Long> getAppliedJobIds(Long userAccountId, Collection<Long> jobPostIds) {
+        if (userAccountId == null || jobPostIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jobSeekerApplyRepository.findAppliedJobIds(userAccountId, jobPostIds));
+    }
+
+    /**
+     * Checks whether a job-seeker has applied to a job posting.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostId the ID of the job posting
+     * @return true if the job-seeker has applied to the job posting
+     */
+    public boolean hasApplied(Long userAccountId, Long jobPostId) {
+        return jobSeekerApplyRepository.existsByUserIdUserAccountIdAndJobJobPostId(userAccountId, jobPostId);
+    }
+
+    /**
+     * Adds a new job application and counts it in the job post's counters.
+     *
+     * With the application queue enabled the application is written by the background writer in
+     * the next micro-batch, and this method waits for that batch to commit, so the caller only
+     * reports success once the application is stored. When the queue stays full it is written
+     * right away on this thread, which slows the caller down instead of growing the backlog.
+     * Applying twice to the same job post stores a single application.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostId the ID of the job post applied to
+     * @param coverLetter the cover letter, may be null
+     * @throws DataIntegrityViolationException if the application cannot be stored, e.g. the job post was deleted
+     * @throws TransientDataAccessResourceException if the queued application was not written within apply.queue.write-timeout
+     */
+    public void addNew(Long userAccountId, Long jobPostId, String coverLetter) {
+        JobApplicationRequest request = new JobApplicationRequest(userAccountId, jobPostId, new Date(), coverLetter);
+        CompletableFuture<Boolean> written = applicationQueue != null ? applicationQueue.submit(request) : null;
+        if (written != null) {
+            awaitWrite(request, written);
+            return;
+        }
+
+        try {
+            jobSeekerActivityWriter.insertApplications(List.of(request));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored the same application first, which is fine; anything else is an error
+            if (!hasApplied(userAccountId, jobPostId)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits until the background writer has written a queued application.
+     *
+     * A timed-out application may still be written later; applying again is harmless, as the
+     * writer skips applications that are already stored.
      *
-     * @param jobSeekerApply the JobSeekerApply entity to be saved
+     * @param request the queued application
+     * @param written the future of its write
+     */
+    private void awaitWrite(JobApplicationRequest request, CompletableFuture<Boolean> written) {
+        try {
+            if (!written.get(writeTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new DataIntegrityViolationException("Application of job-seeker " + request.userAccountId()
+                        + " to job post " + request.jobPostId() + " was rejected");
+            }
+        } catch (ExecutionException e) {
+            // The batch kept failing; the writer's own exception tells the caller why
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TransientDataAccessResourceException("Application of job-seeker " + request.userAccountId()
+                    + " to job post " + request.jobPostId() + " not written within " + writeTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted while waiting for an application to be written");
+        }
+    }
+
+    /**
+     * Writes a micro-batch of applications taken from the queue.
+     *
+     * The batch is written in one transaction. If it breaks a constraint (e.g. an application was
+     * stored by another instance in the meantime, or a job post was deleted), the applications are
+     * retried one by one so that only the offending ones are rejected. Any other failure, such as a
+     * deadlock or a lost connection, propagates so that the queue retries the whole batch.
+     *
+     * @param batch the applications to write
+     * @return List<JobApplicationRequest> the applications rejected, which their callers report as failed
+     */
+    private List<JobApplicationRequest> writeApplications(List<JobApplicationRequest> batch) {
+        try {
+            jobSeekerActivityWriter.insertApplications(batch);
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch of {} applications failed, retrying them one by one: {}", batch.size(), e.getMessage());
+        }
+
+        List<JobApplicationRequest> rejected = new ArrayList<>();
+        for (JobApplicationRequest request : batch) {
+            try {
+                jobSeekerActivityWriter.insertApplications(List.of(request));
+            } catch (DataIntegrityViolationException e) {
+                if (!hasApplied(request.userAccountId(), request.jobPostId())) {
+                    log.warn("Rejecting application of job-seeker {} to job post {}: {}",
+                            request.userAccountId(), request.jobPostId(), e.getMessage());
+                    rejected.add(request);
+                }
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Writes the applications still queued when the application shuts down.
      */
-    public void addNew(JobSeekerApply jobSeekerApply) {
-        jobSeekerApplyRepository.save(jobSeekerApply);
+    @PreDestroy
+    public void shutdown() {
+        if (applicationQueue != null) {
+            applicationQueue.close();
+        }
     }
 }
@@ -1,16 +1,12 @@
 package com.itschool.job_seeker.services.impl;
 
 import com.itschool.job_seeker.entity.JobSeekerProfile;
-import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.mapper.JobSeekerProfileMapper;
 import com.itschool.job_seeker.model.JobSeekerProfileDTO;
 import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
-import com.itschool.job_seeker.repository.UsersRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
 import com.itschool.job_seeker.services.JobSeekerProfileService;
-import org.modelmapper.ModelMapper;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import com.itschool.job_seeker.services.UsersService;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -19,13 +15,16 @@ import java.util.Optional;
 public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
 
     private final JobSeekerProfileRepository jobSeekerProfileRepository;
-    private final ModelMapper modelMapper;
-    private final UsersRepository usersRepository;
+    private final JobSeekerProfileMapper jobSeekerProfileMapper;
+    private final UsersService usersService;
+    private final BlobStoreService blobStoreService;
 
-    public JobSeekerProfileServiceImpl(JobSeekerProfileRepository jobSeekerProfileRepository, ModelMapper modelMapper, UsersRepository usersRepository) {
+    public JobSeekerProfileServiceImpl(JobSeekerProfileRepository jobSeekerProfileRepository, JobSeekerProfileMapper jobSeekerProfileMapper,
+                                       UsersService usersService, BlobStoreService blobStoreService) {
         this.jobSeekerProfileRepository = jobSeekerProfileRepository;
-        this.modelMapper = modelMapper;
-        this.usersRepository = usersRepository;
+        this.jobSeekerProfileMapper = jobSeekerProfileMapper;
+        this.usersService = usersService;
+        this.blobStoreService = blobStoreService;
     }
 
     /**
@@ -42,6 +41,8 @@ public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
     /**
      * Adds a new job-seeker profile.
      *
+     * When the photo or the resume changes, the reference moves from the old stored file to the new one.
+     *
      * @param jobSeekerProfileDTO the DTO containing the details of the new job-seeker profile
      * @return the newly created JobSeekerProfileDTO
      */
@@ -49,8 +50,15 @@ public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
     public JobSeekerProfileDTO addNew(JobSeekerProfileDTO jobSeekerProfileDTO) {
         // Convert DTO to Entity
         JobSeekerProfile jobSeekerProfile = mapToJobSeekerProfile(jobSeekerProfileDTO);
+        // Remember the stored files before the update overwrites them
+        Optional<JobSeekerProfile> existing = jobSeekerProfileDTO.getUserAccountId() == null ? Optional.empty()
+                : jobSeekerProfileRepository.findById(jobSeekerProfileDTO.getUserAccountId());
+        String oldPhoto = existing.map(JobSeekerProfile::getProfilePhoto).orElse(null);
+        String oldResume = existing.map(JobSeekerProfile::getResume).orElse(null);
         // Save entity to the database
         JobSeekerProfile savedJobSeekerProfile = jobSeekerProfileRepository.save(jobSeekerProfile);
+        blobStoreService.replaceReference(oldPhoto, savedJobSeekerProfile.getProfilePhoto());
+        blobStoreService.replaceReference(oldResume, savedJobSeekerProfile.getResume());
         // Convert saved entity back to DTO
         return mapToJobSeekerProfileDTO(savedJobSeekerProfile);
     }
@@ -58,19 +66,16 @@ public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
     /**
      * Retrieves the currently authenticated job-seeker’s profile.
      *
-     * @return the JobSeekerProfile if found, or null if the user is not authenticated
+     * The profile is shared with the rest of the request, so repeated calls do not query again.
+     *
+     * @return the JobSeekerProfile if found, or null if the user is not authenticated or not a job-seeker
      */
     @Override
     public JobSeekerProfile getCurrentSeekerProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName();
-            Users user = usersRepository.findByEmail(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found"));
-
-            return getOne(user.getUserId()).orElse(null); // Handle the absence appropriately
-        }
-        return null; // Handle unauthenticated users appropriately (throw an exception, return null, etc.)
+        return usersService.findCurrentUserProfile()
+                .filter(JobSeekerProfile.class::isInstance)
+                .map(JobSeekerProfile.class::cast)
+                .orElse(null); // Handle unauthenticated users and missing profiles alike
     }
 
     /**
@@ -80,7 +85,7 @@ public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
      * @return corresponding JobSeekerProfileDTO
      */
     public JobSeekerProfileDTO mapToJobSeekerProfileDTO(JobSeekerProfile jobSeekerProfile) {
-        return modelMapper.map(jobSeekerProfile, JobSeekerProfileDTO.class);
+        return jobSeekerProfileMapper.toDTO(jobSeekerProfile);
     }
 
     /**
@@ -90,6 +95,6 @@ public class JobSeekerProfileServiceImpl implements JobSeekerProfileService {
      * @return corresponding JobSeekerProfile entity
      */
     public JobSeekerProfile mapToJobSeekerProfile(JobSeekerProfileDTO jobSeekerProfileDTO) {
-        return modelMapper.map(jobSeekerProfileDTO, JobSeekerProfile.class);
+        return jobSeekerProfileMapper.toEntity(jobSeekerProfileDTO);
     }
 }
@@ -3,19 +3,30 @@ package com.itschool.job_seeker.services.impl;
 import com.itschool.job_seeker.entity.JobPostActivity;
 import com.itschool.job_seeker.entity.JobSeekerProfile;
 import com.itschool.job_seeker.entity.JobSeekerSave;
+import com.itschool.job_seeker.model.JobPostSummary;
+import com.itschool.job_seeker.repository.JobListingViewRepository;
 import com.itschool.job_seeker.repository.JobSeekerSaveRepository;
 import com.itschool.job_seeker.services.JobSeekerSaveService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class JobSeekerSaveServiceImpl implements JobSeekerSaveService {
 
     private final JobSeekerSaveRepository jobSeekerSaveRepository;
+    private final JobSeekerActivityWriter jobSeekerActivityWriter;
+    private final JobListingViewRepository jobListingViewRepository;
 
-    public JobSeekerSaveServiceImpl(JobSeekerSaveRepository jobSeekerSaveRepository) {
+    public JobSeekerSaveServiceImpl(JobSeekerSaveRepository jobSeekerSaveRepository, JobSeekerActivityWriter jobSeekerActivityWriter,
+                                    JobListingViewRepository jobListingViewRepository) {
         this.jobSeekerSaveRepository = jobSeekerSaveRepository;
+        this.jobSeekerActivityWriter = jobSeekerActivityWriter;
+        this.jobListingViewRepository = jobListingViewRepository;
     }
 
     /**
@@ -28,6 +39,16 @@ public class JobSeekerSaveServiceImpl implements JobSeekerSaveService {
         return jobSeekerSaveRepository.findByUserId(userAccountId);
     }
 
+    /**
+     * Retrieves the list view of the job postings saved by a job-seeker, from the job listing table.
+     *
+     * @param userAccountId the JobSeekerProfile associated with the job-seeker
+     * @return a list of JobPostSummary projections of the saved job postings
+     */
+    public List<JobPostSummary> getSavedJobSummaries(JobSeekerProfile userAccountId) {
+        return jobListingViewRepository.findSavedJobSummaries(userAccountId.getUserAccountId());
+    }
+
     /**
      * Retrieves a list of job-seekers who have saved a specific job posting.
      *
@@ -39,11 +60,47 @@ public class JobSeekerSaveServiceImpl implements JobSeekerSaveService {
     }
 
     /**
-     * Saves a new entry of a job-seeker saving a job posting.
+     * Retrieves which of the given job postings a job-seeker has saved.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostIds the IDs of the job postings to check
+     * @return a set with the IDs of the job postings the job-seeker has saved
+     */
+    public Set<Long> getSavedJobIds(Long userAccountId, Collection<Long> jobPostIds) {
+        if (userAccountId == null || jobPostIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jobSeekerSaveRepository.findSavedJobIds(userAccountId, jobPostIds));
+    }
+
+    /**
+     * Checks whether a job-seeker has saved a job posting.
+     *
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostId the ID of the job posting
+     * @return true if the job-seeker has saved the job posting
+     */
+    public boolean hasSaved(Long userAccountId, Long jobPostId) {
+        return jobSeekerSaveRepository.existsByUserIdUserAccountIdAndJobJobPostId(userAccountId, jobPostId);
+    }
+
+    /**
+     * Saves a new entry of a job-seeker saving a job posting and counts it in the job post's counters.
+     *
+     * Both writes happen in one transaction, so the save count only changes if the entry is stored.
+     * Saving the same job posting twice stores a single entry.
      *
-     * @param jobSeekerSave the JobSeekerSave entity to be saved
+     * @param userAccountId the ID of the job-seeker's profile
+     * @param jobPostId the ID of the job posting to save
      */
-    public void addNew(JobSeekerSave jobSeekerSave){
-        jobSeekerSaveRepository.save(jobSeekerSave);
+    public void addNew(Long userAccountId, Long jobPostId){
+        try {
+            jobSeekerActivityWriter.insertSave(userAccountId, jobPostId);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored the same entry first, which is fine; anything else is an error
+            if (!hasSaved(userAccountId, jobPostId)) {
+                throw e;
+            }
+        }
     }
 }
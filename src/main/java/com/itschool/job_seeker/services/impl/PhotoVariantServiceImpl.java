@@ -0,0 +1,283 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itschool.job_seeker.services.PhotoVariantService;
+import com.itschool.job_seeker.util.BlobKeys;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class PhotoVariantServiceImpl implements PhotoVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoVariantServiceImpl.class);
+
+    private final Path uploadRoot;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+    // Photos queued or in progress, so that a photo is never processed twice at the same time
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Photos whose variants could not be created, so that requests for their variants do not retry every time
+    private final Cache<String, Boolean> failed;
+
+    // Constructor for injecting the upload directory and the limits of the pipeline
+    public PhotoVariantServiceImpl(@Value("${upload.dir:photos}") String uploadDir,
+                                   @Value("${photo.variants.threads:2}") int threads,
+                                   @Value("${photo.variants.queue-capacity:100}") int queueCapacity,
+                                   @Value("${photo.variants.max-pixels:40000000}") long maxPixels,
+                                   @Value("${photo.variants.jpeg-quality:0.82}") float jpegQuality,
+                                   @Value("${photo.variants.failed.max-size:10000}") long failedMaxSize,
+                                   @Value("${photo.variants.failed.retry-after:PT1H}") Duration failedRetryAfter) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        // Blobs never change, so a photo that failed fails again; the expiry only covers transient read errors
+        this.failed = Caffeine.newBuilder()
+                .maximumSize(failedMaxSize)
+                .expireAfterWrite(failedRetryAfter)
+                .build();
+        // Bounded in threads and queue: decoding is CPU- and memory-heavy and must not starve the request threads.
+        // Platform threads even in virtual-thread mode: a virtual thread decoding an image never blocks, so it
+        // would hold one of the few carrier threads that all virtual-thread requests share for the whole decode.
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues the generation of the resized variants of an uploaded photo.
+     *
+     * When the queue is full the photo is skipped; it is queued again the first time one of its
+     * variants is requested. A photo whose variants could not be created (not an image, above the
+     * pixel limit) is not queued again until photo.variants.failed.retry-after has passed.
+     *
+     * @param blobKey the blob key of the photo
+     */
+    @Override
+    public void submit(String blobKey) {
+        if (!BlobKeys.isBlobKey(blobKey) || hasFailed(blobKey) || !pending.add(blobKey)) {
+            return; // Not a blob, failed before, or already queued
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    createVariants(blobKey);
+                } catch (IOException | RuntimeException e) {
+                    failed.put(blobKey, Boolean.TRUE);
+                    // Logged once per photo and retry period; the stack trace only helps with unexpected errors
+                    log.warn("Could not create the variants of photo {}, serving the original: {}", blobKey, e.toString());
+                    log.debug("Variant failure of photo {}", blobKey, e);
+                } finally {
+                    pending.remove(blobKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(blobKey);
+            log.warn("Photo variant queue is full, skipping {}", blobKey);
+        }
+    }
+
+    /**
+     * Tells whether the variants of a photo could not be created the last time they were tried.
+     *
+     * @param blobKey the blob key of the photo
+     * @return true if only the original photo can be served
+     */
+    @Override
+    public boolean hasFailed(String blobKey) {
+        return failed.getIfPresent(blobKey) != null;
+    }
+
+    /**
+     * Returns the number of photos waiting for or being processed.
+     *
+     * @return the number of pending photos
+     */
+    @Override
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Decodes a photo once and writes every missing variant, largest first, each one scaled down
+     * from the previous so that no step shrinks the image by much.
+     *
+     * @param blobKey the blob key of the photo
+     * @throws IOException if the photo cannot be read, is not an image or is too large, or a variant
+     *         cannot be written
+     */
+    void createVariants(String blobKey) throws IOException {
+        Path original = uploadRoot.resolve(BlobKeys.relativePath(blobKey));
+        if (!Files.isRegularFile(original)
+                || BlobKeys.PHOTO_VARIANT_SIZES.stream().allMatch(size -> Files.exists(variantFile(blobKey, size)))) {
+            return; // Collected in the meantime, or already done
+        }
+
+        BufferedImage image = decode(original);
+        if (image == null) {
+            throw new IOException("Not a decodable image");
+        }
+        for (int size : BlobKeys.PHOTO_VARIANT_SIZES) {
+            image = scaleToFit(image, size);
+            Path target = variantFile(blobKey, size);
+            if (!Files.exists(target)) {
+                writeJpeg(image, target);
+            }
+        }
+    }
+
+    /**
+     * Decodes an image, refusing images whose declared dimensions exceed the pixel limit before
+     * any pixel is decoded.
+     *
+     * @param file the image file
+     * @return the decoded image, or null if the file is not a supported image
+     * @throws IOException if the file cannot be read or the image is too large
+     */
+    private BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image has " + pixels + " pixels, more than the limit of " + maxPixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales an image so that its largest side is at most the given size, keeping its aspect ratio.
+     *
+     * The result is always an opaque RGB image (transparent areas become white), ready for JPEG.
+     *
+     * @param image the image to scale
+     * @param size the largest side of the result, in pixels
+     * @return the scaled image
+     */
+    static BufferedImage scaleToFit(BufferedImage image, int size) {
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        // Halve while the image is more than twice the target, bilinear filtering stays sharp that way
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != width || current.getHeight() != height || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    /**
+     * Draws an image onto a new white RGB canvas of the given size.
+     *
+     * @param image the image to draw
+     * @param width the width of the canvas
+     * @param height the height of the canvas
+     * @return the new image
+     */
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Writes an image as a JPEG file, atomically, so that a half-written variant is never served.
+     *
+     * @param image the image to write
+     * @param target the file to write
+     * @throws IOException if the file cannot be written
+     */
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the file of a variant of a photo.
+     *
+     * @param blobKey the blob key of the photo
+     * @param size the largest side of the variant
+     * @return the path of the variant
+     */
+    private Path variantFile(String blobKey, int size) {
+        return uploadRoot.resolve(BlobKeys.variantPath(blobKey, size));
+    }
+
+    /**
+     * Stops the pipeline when the application shuts down; queued photos are picked up again on demand.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
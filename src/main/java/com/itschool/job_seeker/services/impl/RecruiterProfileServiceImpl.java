@@ -1,16 +1,12 @@
 package com.itschool.job_seeker.services.impl;
 
 import com.itschool.job_seeker.entity.RecruiterProfile;
-import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.mapper.RecruiterProfileMapper;
 import com.itschool.job_seeker.model.RecruiterProfileDTO;
 import com.itschool.job_seeker.repository.RecruiterProfileRepository;
-import com.itschool.job_seeker.repository.UsersRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
 import com.itschool.job_seeker.services.RecruiterProfileService;
-import org.modelmapper.ModelMapper;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import com.itschool.job_seeker.services.UsersService;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -25,19 +21,24 @@ import java.util.Optional;
 public class RecruiterProfileServiceImpl implements RecruiterProfileService {
 
     private final RecruiterProfileRepository recruiterProfileRepository;
-    private final UsersRepository usersRepository;
-    private final ModelMapper modelMapper;
+    private final UsersService usersService;
+    private final RecruiterProfileMapper recruiterProfileMapper;
+    private final BlobStoreService blobStoreService;
 
     /**
      * Constructor for RecruiterProfileServiceImpl.
      *
      * @param recruiterProfileRepository repository for managing recruiter profiles
-     * @param modelMapper model mapper for converting between entity and DTO
+     * @param usersService service resolving the current user's profile
+     * @param recruiterProfileMapper mapper for converting between entity and DTO
+     * @param blobStoreService store keeping the reference counts of the uploaded files
      */
-    public RecruiterProfileServiceImpl(RecruiterProfileRepository recruiterProfileRepository, UsersRepository usersRepository, ModelMapper modelMapper) {
+    public RecruiterProfileServiceImpl(RecruiterProfileRepository recruiterProfileRepository, UsersService usersService,
+                                       RecruiterProfileMapper recruiterProfileMapper, BlobStoreService blobStoreService) {
         this.recruiterProfileRepository = recruiterProfileRepository;
-        this.usersRepository = usersRepository;
-        this.modelMapper = modelMapper;
+        this.usersService = usersService;
+        this.recruiterProfileMapper = recruiterProfileMapper;
+        this.blobStoreService = blobStoreService;
     }
 
     /**
@@ -55,6 +56,8 @@ public class RecruiterProfileServiceImpl implements RecruiterProfileService {
     /**
      * Adds a new recruiter profile.
      *
+     * When the profile photo changes, the reference moves from the old stored file to the new one.
+     *
      * @param recruiterProfileDTO the DTO containing the details of the new recruiter profile
      * @return the newly created RecruiterProfileDTO
      */
@@ -62,8 +65,13 @@ public class RecruiterProfileServiceImpl implements RecruiterProfileService {
     public RecruiterProfileDTO addNew(RecruiterProfileDTO recruiterProfileDTO) {
         // Convert DTO to Entity
         RecruiterProfile recruiterProfile = mapToRecruiterProfile(recruiterProfileDTO);
+        // Remember the stored photo before the update overwrites it
+        String oldPhoto = recruiterProfileDTO.getUserAccountId() == null ? null
+                : recruiterProfileRepository.findById(recruiterProfileDTO.getUserAccountId())
+                        .map(RecruiterProfile::getProfilePhoto).orElse(null);
         // Save entity to the database
         RecruiterProfile savedRecruiterProfile = recruiterProfileRepository.save(recruiterProfile);
+        blobStoreService.replaceReference(oldPhoto, savedRecruiterProfile.getProfilePhoto());
         // Convert saved entity back to DTO
         return mapToRecruiterProfileDTO(savedRecruiterProfile);
     }
@@ -71,24 +79,16 @@ public class RecruiterProfileServiceImpl implements RecruiterProfileService {
     /**
      * Retrieves the currently authenticated recruiter's profile.
      *
-     * @return the RecruiterProfileDTO of the current user, or null if the user is unauthorized
+     * The profile is shared with the rest of the request, so repeated calls do not query again.
+     *
+     * @return the RecruiterProfileDTO of the current user, or null if the user is unauthorized or not a recruiter
      */
     @Override
     public RecruiterProfileDTO getCurrentRecruiterProfile() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        // Check if the current auth token is not anonymous
-        if (!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName();
-
-            // Find the user by email
-            Users user = usersRepository.findByEmail(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found"));
-
-            // Retrieve the recruiter's profile using the found user's ID
-            return getOne(user.getUserId()).orElse(null); // Handle the absence appropriately
-        }
-        return null; // Return null for unauthenticated users
+        return usersService.findCurrentUserProfile()
+                .filter(RecruiterProfile.class::isInstance)
+                .map(profile -> mapToRecruiterProfileDTO((RecruiterProfile) profile))
+                .orElse(null); // Return null for unauthenticated users and missing profiles
     }
 
     /**
@@ -98,7 +98,7 @@ public class RecruiterProfileServiceImpl implements RecruiterProfileService {
      * @return corresponding RecruiterProfileDTO
      */
     private RecruiterProfileDTO mapToRecruiterProfileDTO(RecruiterProfile recruiterProfile) {
-        return modelMapper.map(recruiterProfile, RecruiterProfileDTO.class);
+        return recruiterProfileMapper.toDTO(recruiterProfile);
     }
 
     /**
@@ -108,6 +108,6 @@ public class RecruiterProfileServiceImpl implements RecruiterProfileService {
      * @return corresponding RecruiterProfile entity
      */
     private RecruiterProfile mapToRecruiterProfile(RecruiterProfileDTO recruiterProfileDTO) {
-        return modelMapper.map(recruiterProfileDTO, RecruiterProfile.class);
+        return recruiterProfileMapper.toEntity(recruiterProfileDTO);
     }
 }
@@ -0,0 +1,195 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
+import com.itschool.job_seeker.services.ResumeDownloadService;
+import com.itschool.job_seeker.util.BlobKeys;
+import com.itschool.job_seeker.util.FileDownloadUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ResumeDownloadServiceImpl implements ResumeDownloadService {
+
+    private final JobSeekerProfileRepository jobSeekerProfileRepository;
+    private final BlobStoreService blobStoreService;
+    private final String candidateDir; // Directory of each candidate's uploads, followed by the profile ID
+    private final Semaphore downloadPermits; // null when the number of downloads is not limited
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+
+    // Constructor for injecting the profile repository, the blob store and the concurrent download limit
+    public ResumeDownloadServiceImpl(JobSeekerProfileRepository jobSeekerProfileRepository,
+                                     BlobStoreService blobStoreService,
+                                     @Value("${upload.dir:photos}") String uploadDir,
+                                     @Value("${resume.download.max-concurrent:64}") int maxConcurrentDownloads) {
+        this.jobSeekerProfileRepository = jobSeekerProfileRepository;
+        this.blobStoreService = blobStoreService;
+        this.candidateDir = uploadDir + "/candidate/"; // Same layout as the upload
+        this.downloadPermits = maxConcurrentDownloads > 0 ? new Semaphore(maxConcurrentDownloads) : null;
+    }
+
+    /**
+     * Sends a job seeker's resume as a download.
+     *
+     * The file is found from the name stored in the profile, never from request parameters: a blob
+     * key is looked up in the blob store, any other name in the candidate's own directory.
+     * With a concurrent download limit, the default, the file is copied to the response through a
+     * buffer on the request thread, which holds its permit until the last byte is written. Sendfile
+     * would hand the transfer to the container after the permit is released, and Tomcat does not
+     * report when it ends, so the transfers would be unbounded. Only without a limit
+     * (resume.download.max-concurrent=0) is the file sent with the container's zero-copy sendfile.
+     *
+     * @param userAccountId the ID of the job seeker's profile
+     * @param request the download request
+     * @param response the response to write the resume to
+     * @throws IOException if the resume cannot be read or the client goes away
+     */
+    @Override
+    public void download(Long userAccountId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Refuse instead of queueing when too many downloads are in progress
+        if (downloadPermits != null && !downloadPermits.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent downloads");
+            return;
+        }
+        activeDownloads.incrementAndGet();
+        try {
+            String resume = jobSeekerProfileRepository.findResumeByUserAccountId(userAccountId).orElse(null);
+            Path file = null;
+            String downloadName = null;
+            if (BlobKeys.isBlobKey(resume)) {
+                file = blobStoreService.resolve(resume);
+                // Blob keys are hashes, so the download gets a readable name instead
+                downloadName = "resume-" + userAccountId + BlobKeys.extension(resume);
+            } else if (resume != null) {
+                file = FileDownloadUtil.resolve(candidateDir + userAccountId, resume);
+                downloadName = resume;
+            }
+            if (file == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "File not found");
+                return;
+            }
+            send(file, downloadName, request, response);
+        } finally {
+            activeDownloads.decrementAndGet();
+            if (downloadPermits != null) {
+                downloadPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of downloads currently being served.
+     *
+     * Without a limit, transfers handed to the container's sendfile are no longer counted.
+     *
+     * @return the number of active downloads
+     */
+    @Override
+    public int getActiveDownloads() {
+        return activeDownloads.get();
+    }
+
+    /**
+     * Answers a download request for a file: 304 when the client's copy is current, 206 for a
+     * satisfiable single byte range, 416 for an unsatisfiable one, and 200 with the whole file otherwise.
+     *
+     * @param file the file to send
+     * @param downloadName the file name offered to the client
+     * @param request the download request
+     * @param response the response to write to
+     * @throws IOException if the file cannot be read or the client goes away
+     */
+    private void send(Path file, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Strong validator from the size and modification time; uploads replace the file as a whole
+        String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // Cache-Control is set first so that it is part of a 304 response as well
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return; // 304 Not Modified, with ETag and Last-Modified set
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(downloadName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(downloadName, StandardCharsets.UTF_8).build().toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long count = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, eTag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of(); // Malformed ranges are ignored and the whole file is sent
+            }
+            // Only a single range is served partially; multiple ranges get the whole file
+            if (ranges.size() == 1) {
+                HttpRange httpRange = ranges.get(0);
+                start = httpRange.getRangeStart(length);
+                count = httpRange.getRangeEnd(length) - start + 1;
+                if (start >= length || count <= 0) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+            }
+        }
+
+        response.setContentLengthLong(count);
+        if (!"HEAD".equals(request.getMethod())) {
+            FileDownloadUtil.transfer(request, response, file, start, count, downloadPermits == null);
+        }
+    }
+
+    /**
+     * Tells whether the Range header applies, i.e. there is no If-Range header or it still matches
+     * the file (by ETag, or by date when a date is given). A date only matches when it is exactly
+     * the file's Last-Modified, to the second: any other date may be that of another version.
+     *
+     * @param request the download request
+     * @param eTag the current ETag of the file
+     * @param lastModified the modification time of the file, in milliseconds
+     * @return true if a partial response may be sent
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag); // Weak validators never match in If-Range
+        }
+        try {
+            return lastModified / 1000 == request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
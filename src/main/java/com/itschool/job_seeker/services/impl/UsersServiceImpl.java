@@ -10,6 +10,8 @@ import com.itschool.job_seeker.repository.RecruiterProfileRepository;
 import com.itschool.job_seeker.repository.UsersRepository;
 import com.itschool.job_seeker.repository.UsersTypeRepository;
 import com.itschool.job_seeker.services.UsersService;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import com.itschool.job_seeker.util.RequestIdentity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,13 +31,15 @@ public class UsersServiceImpl implements UsersService {
     private final JobSeekerProfileRepository jobSeekerProfileRepository;
     private final RecruiterProfileRepository recruiterProfileRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RequestIdentity requestIdentity; // Request-scoped memo of the current user's profile
 
-    public UsersServiceImpl(UsersRepository usersRepository, UsersTypeRepository usersTypeRepository, JobSeekerProfileRepository jobSeekerProfileRepository, RecruiterProfileRepository recruiterProfileRepository, PasswordEncoder passwordEncoder) {
+    public UsersServiceImpl(UsersRepository usersRepository, UsersTypeRepository usersTypeRepository, JobSeekerProfileRepository jobSeekerProfileRepository, RecruiterProfileRepository recruiterProfileRepository, PasswordEncoder passwordEncoder, RequestIdentity requestIdentity) {
         this.usersRepository = usersRepository;
         this.usersTypeRepository = usersTypeRepository;
         this.jobSeekerProfileRepository = jobSeekerProfileRepository;
         this.recruiterProfileRepository = recruiterProfileRepository;
         this.passwordEncoder = passwordEncoder;
+        this.requestIdentity = requestIdentity;
     }
 
     /**
@@ -107,23 +111,55 @@ public class UsersServiceImpl implements UsersService {
 
         // If the user is authenticated (not anonymous)
         if(!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName(); // Get the username of the authenticated user
-            Users users = usersRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("User not found")); // Find the user in the repository
-
-            Long userId = users.getUserId(); // Retrieve user ID
-
-            // Return the appropriate profile based on user type
-            if(authentication.getAuthorities().contains(new SimpleGrantedAuthority("Recruiter"))){
-                // If the user is a Recruiter
-                return recruiterProfileRepository.findById(userId).orElse(new RecruiterProfile()); // Return the RecruiterProfile
-            } else {
-                // If the user is a Job Seeker
-                return jobSeekerProfileRepository.findById(userId).orElse(new JobSeekerProfile()); // Return the JobSeekerProfile
-            }
+            // Return the stored profile, or an empty one of the user's type if none is stored yet
+            return findCurrentUserProfile().orElseGet(() -> isRecruiter(authentication) ? new RecruiterProfile() : new JobSeekerProfile());
         }
         return null;
     }
 
+    /**
+     * Retrieves the stored profile of the current logged-in user, at most once per request.
+     *
+     * The user ID and type are taken from the CustomUserDetails stored at login, so the only query
+     * is the profile lookup itself. Its result is kept in the request-scoped RequestIdentity.
+     *
+     * @return the user's RecruiterProfile or JobSeekerProfile, or empty if there is none
+     */
+    @Override
+    public Optional<Object> findCurrentUserProfile() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+
+        // Reuse the profile if it was already resolved earlier in this request
+        if (requestIdentity.isProfileResolved()) {
+            return Optional.ofNullable(requestIdentity.getProfile());
+        }
+
+        Long userId = currentUserId(authentication);
+        requestIdentity.recordQuery();
+        Object profile = isRecruiter(authentication)
+                ? recruiterProfileRepository.findById(userId).orElse(null) // If the user is a Recruiter
+                : jobSeekerProfileRepository.findById(userId).orElse(null); // If the user is a Job Seeker
+        requestIdentity.setProfile(profile);
+        return Optional.ofNullable(profile);
+    }
+
+    /**
+     * Retrieves the ID of the current logged-in job seeker from the login details.
+     *
+     * @return the job seeker's ID (also their profile's ID), or null for anonymous users and recruiters
+     */
+    @Override
+    public Long getCurrentJobSeekerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || isRecruiter(authentication)) {
+            return null;
+        }
+        return currentUserId(authentication);
+    }
+
     /**
      * Retrieves the current logged-in user
      *
@@ -135,13 +171,49 @@ public class UsersServiceImpl implements UsersService {
 
         // Check if the user is authenticated (not anonymous)
         if(!(authentication instanceof AnonymousAuthenticationToken)) {
-            String username = authentication.getName(); // Get the username of the authenticated user
-            return usersRepository.findByEmail(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("Could not find " + username));
+            // Reuse the user loaded with the profile earlier in this request, if any
+            if (requestIdentity.isProfileResolved() && requestIdentity.getProfile() != null) {
+                Object profile = requestIdentity.getProfile();
+                return profile instanceof RecruiterProfile recruiterProfile ? recruiterProfile.getUserId() : ((JobSeekerProfile) profile).getUserId();
+            }
+            // Otherwise a reference is enough to link records to the user, and needs no query
+            return usersRepository.getReferenceById(currentUserId(authentication));
         }
         return null;  // Return null if the user is not authenticated
     }
 
+    /**
+     * Tells whether the authenticated user is a recruiter.
+     *
+     * @param authentication the current authentication
+     * @return true for recruiters, false for job seekers
+     */
+    private boolean isRecruiter(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return "Recruiter".equals(userDetails.getUserTypeName());
+        }
+        return authentication.getAuthorities().contains(new SimpleGrantedAuthority("Recruiter"));
+    }
+
+    /**
+     * Returns the ID of the authenticated user, from the login details when available.
+     *
+     * @param authentication the current authentication
+     * @return the user ID
+     * @throws UsernameNotFoundException if the user has to be looked up and does not exist
+     */
+    private Long currentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails && userDetails.getUserId() != null) {
+            return userDetails.getUserId();
+        }
+        // Principals without the login details (e.g. sessions from before they were added) need a lookup
+        String username = authentication.getName();
+        requestIdentity.recordQuery();
+        return usersRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Could not find " + username))
+                .getUserId();
+    }
+
     /**
      * Find a user by their email and return the Users entity.
      *
@@ -157,6 +229,9 @@ public class UsersServiceImpl implements UsersService {
     /**
      * Converts a Users entity to UsersDTO.
      *
+     * The password hash is not copied: the DTO is only read, and hashing the hash again cost a full
+     * BCrypt round on every conversion.
+     *
      * @param users the Users entity to convert
      * @return the converted UsersDTO
      */
@@ -168,7 +243,6 @@ public class UsersServiceImpl implements UsersService {
         UsersDTO usersDTO = new UsersDTO();
         usersDTO.setUserId(users.getUserId());
         usersDTO.setEmail(users.getEmail());
-        usersDTO.setPassword(passwordEncoder.encode(users.getPassword()));
         usersDTO.setActive(true);
         usersDTO.setRegistrationDate(new Date(System.currentTimeMillis()));
 
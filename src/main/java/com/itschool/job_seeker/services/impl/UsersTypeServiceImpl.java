@@ -36,9 +36,9 @@ public class UsersTypeServiceImpl implements UsersTypeService {
     }
 
 
-    //Convert entity into DTO
+    //Convert entity into DTO; the users of each type are left out so listing the types never loads them
     private UsersTypeDTO mapToUsersTypeDTO(UsersType usersType) {
-        return modelMapper.map(usersType, UsersTypeDTO.class);
+        return new UsersTypeDTO(usersType.getUserTypeId(), usersType.getUserTypeName(), null);
     }
 
     //Convert DTO into entity
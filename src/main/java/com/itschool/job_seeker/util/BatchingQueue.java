@@ -0,0 +1,215 @@
+package com.itschool.job_seeker.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue drained by a single background thread that hands items to a writer in batches.
+ *
+ * A batch is written as soon as it is full, or when the oldest waiting item has waited maxWait.
+ * The queue is bounded: when it is full, submit waits up to offerTimeout and then gives up, so the
+ * caller can fall back to writing the item itself instead of letting the backlog grow.
+ * Each queued item comes with a future that completes once its batch is written, so a caller that
+ * must not report success before the write is durable can wait for it. A batch whose writer throws
+ * is retried a few times with a growing pause, which rides out deadlocks and brief outages; the
+ * writer must therefore be idempotent. The background thread is a virtual thread when the
+ * application runs in virtual-thread mode.
+ */
+public class BatchingQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingQueue.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_PAUSE_MILLIS = 200; // Doubled after each failed attempt
+    private static final long SHUTDOWN_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100); // How often an idle drainer looks at the shutdown flag
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Writes batches taken from the queue.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+
+        /**
+         * Writes a batch of items.
+         *
+         * @param batch the items to write, in the order they were submitted
+         * @return the items of the batch that were rejected and will never be written, empty if all were written
+         */
+        List<T> write(List<T> batch);
+    }
+
+    // A queued item and the future of its write: true once written, false if the writer rejected it
+    private record Pending<T>(T item, CompletableFuture<Boolean> written) {
+    }
+
+    private final String name;
+    private final BlockingQueue<Pending<T>> queue;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+    private final Writer<T> writer;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public BatchingQueue(String name, boolean virtualThread, int capacity, int batchSize, Duration maxWait,
+                         Duration offerTimeout, Writer<T> writer) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.writer = writer;
+        this.drainer = virtualThread
+                ? Thread.ofVirtual().name(name).unstarted(this::drain)
+                : Thread.ofPlatform().name(name).daemon().unstarted(this::drain);
+        this.drainer.start();
+    }
+
+    /**
+     * Queues an item for the next batch, waiting up to the offer timeout if the queue is full.
+     *
+     * @param item the item to write
+     * @return a future completing with true once the item is written, with false if the writer
+     *         rejected it, or exceptionally if its batch kept failing; null if the queue stayed full
+     *         or is shut down, in which case the item was not queued
+     */
+    public CompletableFuture<Boolean> submit(T item) {
+        if (!running) {
+            return null;
+        }
+        Pending<T> pending = new Pending<>(item, new CompletableFuture<>());
+        try {
+            return queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS) ? pending.written() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of items waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting items, writes whatever is still queued and stops the background thread.
+     *
+     * The background thread is not interrupted, so the batch it is writing completes normally: it
+     * sees the flag, writes the batch it holds without waiting for maxWait and stops. Only once it
+     * has stopped are the items left in the queue written, on the closing thread.
+     */
+    public void close() {
+        running = false;
+        try {
+            drainer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainer.isAlive()) {
+            // Writing alongside it could reorder or duplicate writes; it keeps what it holds
+            log.error("Writer {} still busy after {} ms, {} queued items not written", name, SHUTDOWN_TIMEOUT_MILLIS, queue.size());
+            return;
+        }
+
+        List<Pending<T>> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(remaining);
+            remaining = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Background loop: waits for a first item, collects up to a full batch within maxWait and writes it.
+     */
+    private void drain() {
+        while (running) {
+            List<Pending<T>> batch = new ArrayList<>(batchSize);
+            try {
+                Pending<T> first = queue.poll(SHUTDOWN_CHECK_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Top the batch up until it is full, the first item has waited long enough or the queue is closing
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize && running) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending<T> next = queue.poll(Math.min(remaining, SHUTDOWN_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Not interrupted by close(); stop as if closing, close() writes what is left in the queue
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * Hands a batch to the writer and completes the futures of its items.
+     *
+     * A failed batch is retried up to MAX_ATTEMPTS times; if it still fails, its items' futures
+     * complete with the last failure instead of the batch being dropped silently.
+     *
+     * @param batch the items to write
+     */
+    private void write(List<Pending<T>> batch) {
+        List<T> items = batch.stream().map(Pending::item).toList();
+        long pause = RETRY_PAUSE_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Set<T> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+                rejected.addAll(writer.write(items));
+                batch.forEach(pending -> pending.written().complete(!rejected.contains(pending.item())));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS || !pause(pause)) {
+                    log.error("Failed to write a batch of {} items after {} attempts", batch.size(), attempt, e);
+                    batch.forEach(pending -> pending.written().completeExceptionally(e));
+                    return;
+                }
+                log.warn("Failed to write a batch of {} items, retrying: {}", batch.size(), e.getMessage());
+                pause *= 2;
+            }
+        }
+    }
+
+    // Sleeps between two attempts; false if interrupted, in which case no more attempts are made
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
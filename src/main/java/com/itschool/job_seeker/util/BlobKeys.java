@@ -0,0 +1,106 @@
+package com.itschool.job_seeker.util;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming rules of the content-addressed upload store.
+ *
+ * A blob key is the URL-safe Base64 SHA-256 of the content followed by the lower-case extension of
+ * the uploaded file (e.g. "q1Vx...Zk.pdf"). The key is what profiles store in their file fields, and
+ * the blob lives at photos/blobs/{first two characters}/{key}, so it is served by the /photos handler.
+ * Resized copies of a photo live next to it as {key}.{size}.jpg.
+ */
+public final class BlobKeys {
+
+    // Root of the blob store, inside the directory served under /photos
+    public static final String BLOB_DIR = "blobs";
+
+    // Largest side, in pixels, of the thumbnail shown in page headers (50px avatars on 2x screens)
+    public static final int THUMBNAIL_SIZE = 100;
+    // Largest side, in pixels, of the medium variant for bigger photo displays
+    public static final int MEDIUM_SIZE = 400;
+    // Sizes of the variants generated for every photo, largest first
+    public static final List<Integer> PHOTO_VARIANT_SIZES = List.of(MEDIUM_SIZE, THUMBNAIL_SIZE);
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]{43}\\.[a-z0-9]{1,8}");
+    private static final Pattern VARIANT_PATH =
+            Pattern.compile("(?:.*/)?[A-Za-z0-9_-]{2}/([A-Za-z0-9_-]{43}\\.[a-z0-9]{1,8})\\.[0-9]{1,4}\\.jpg");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+
+    private BlobKeys() {
+    }
+
+    /**
+     * Builds the key of a blob from its content hash and the name it was uploaded under.
+     *
+     * @param sha256 the SHA-256 digest of the content
+     * @param originalFilename the client-supplied file name, used only for its extension
+     * @return the blob key
+     */
+    public static String of(byte[] sha256, String originalFilename) {
+        String extension = "bin";
+        if (originalFilename != null && originalFilename.lastIndexOf('.') >= 0) {
+            String candidate = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            if (EXTENSION.matcher(candidate).matches()) {
+                extension = candidate;
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256) + "." + extension;
+    }
+
+    /**
+     * Tells whether a stored file name is a blob key rather than a file name from before the blob store.
+     *
+     * @param value the stored file name
+     * @return true if the value is a blob key
+     */
+    public static boolean isBlobKey(String value) {
+        return value != null && KEY.matcher(value).matches();
+    }
+
+    /**
+     * Returns the path of a blob relative to the upload directory.
+     *
+     * @param blobKey the blob key
+     * @return the relative path, e.g. "blobs/q1/q1Vx...Zk.pdf"
+     */
+    public static String relativePath(String blobKey) {
+        return BLOB_DIR + "/" + blobKey.substring(0, 2) + "/" + blobKey;
+    }
+
+    /**
+     * Returns the extension part of a blob key, including the dot.
+     *
+     * @param blobKey the blob key
+     * @return the extension, e.g. ".pdf"
+     */
+    public static String extension(String blobKey) {
+        return blobKey.substring(blobKey.lastIndexOf('.'));
+    }
+
+    /**
+     * Returns the path of a resized variant of a photo relative to the upload directory.
+     *
+     * @param blobKey the blob key of the original photo
+     * @param size the largest side of the variant, in pixels
+     * @return the relative path, e.g. "blobs/q1/q1Vx...Zk.png.100.jpg"
+     */
+    public static String variantPath(String blobKey, int size) {
+        return relativePath(blobKey) + "." + size + ".jpg";
+    }
+
+    /**
+     * Returns the blob key of the original photo a variant path was derived from.
+     *
+     * @param path a path ending in a variant's directory and file name, e.g. "q1/q1Vx...Zk.png.100.jpg"
+     * @return the blob key of the original, or null if the path is not a variant path
+     */
+    public static String originalOfVariant(String path) {
+        Matcher matcher = VARIANT_PATH.matcher(path);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+}
@@ -1,48 +1,70 @@
 package com.itschool.job_seeker.util;
 
 
-import com.itschool.job_seeker.entity.Users;
-import com.itschool.job_seeker.entity.UsersType;
+import com.itschool.job_seeker.model.UserCredentials;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 public class CustomUserDetails implements UserDetails {
 
-    private final Users user;
+    private final Long userId; // Captured at login so later requests can find the profile without a user lookup
+    private final String email;
+    private final String password;
+    private final boolean active;
+    private final String userTypeName; // Captured at login so the profile type is known without a user lookup
+    // Built once: Spring Security asks for the authorities several times per request
+    private final List<GrantedAuthority> authorities;
 
-    public CustomUserDetails(Users user) {
-        this.user = user;
+    public CustomUserDetails(UserCredentials credentials) {
+        this.userId = credentials.userId();
+        this.email = credentials.email();
+        this.password = credentials.password();
+        this.active = credentials.active();
+        this.userTypeName = credentials.userTypeName();
+        this.authorities = userTypeName != null ? List.of(new SimpleGrantedAuthority(userTypeName)) : List.of();
+    }
+
+    /**
+     * Returns the ID of the authenticated user, as it was when the user logged in.
+     *
+     * @return the user ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns the name of the authenticated user's type ("Recruiter" or "Job Seeker").
+     *
+     * @return the user type name
+     */
+    public String getUserTypeName() {
+        return userTypeName;
     }
 
     /**
      * Returns the authorities granted to the user. In this case, it provides the
      * user type as an authority.
      *
-     * @return A collection of GrantedAuthority assigned to the user.
+     * @return An immutable collection of GrantedAuthority assigned to the user.
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        UsersType usersType = user.getUserTypeId();
-
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-
-        authorities.add(new SimpleGrantedAuthority(usersType.getUserTypeName()));
         return authorities;
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -62,6 +84,6 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return active;
     }
 }
@@ -0,0 +1,51 @@
+package com.itschool.job_seeker.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized keys of the location and company dimension tables.
+ *
+ * Two locations or companies with the same key are the same row: values are compared trimmed, with
+ * runs of whitespace collapsed to one space and lower-cased, so "Bucharest " and "bucharest" share an
+ * ID. A location key joins its city, county and country with '|'. This is the only place keys are
+ * computed: the entities, the upserts and the backfill of rows written before the keys existed all
+ * use it, so a key never depends on the database's locale.
+ */
+public final class DimensionKeys {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private DimensionKeys() {
+    }
+
+    /**
+     * Builds the key of a location.
+     *
+     * @param city the city
+     * @param county the county, may be null
+     * @param country the country
+     * @return the normalized key of the location
+     */
+    public static String location(String city, String county, String country) {
+        return normalize(city) + "|" + normalize(county) + "|" + normalize(country);
+    }
+
+    /**
+     * Builds the key of a company.
+     *
+     * @param name the name of the company
+     * @return the normalized key of the company
+     */
+    public static String company(String name) {
+        return normalize(name);
+    }
+
+    // A missing value has the same key as an empty one
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,48 +1,97 @@
 package com.itschool.job_seeker.util;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
-
-
+/**
+ * Utility class for handling file downloads.
+ * Provides functionality to locate an uploaded file and stream (part of) it to the client.
+ */
 public class FileDownloadUtil {
 
-    // Holds the reference to the found file path
-    private Path foundPath;
+    // Request attributes of Tomcat's sendfile support (see org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private FileDownloadUtil() {
+    }
 
     /**
-     * Fetches the file from the specified directory based on the given file name.
+     * Resolves a stored file directly from its directory and name, without listing the directory.
      *
-     * @param downloadDir The directory where the file is located.
-     * @param fileName The name or the prefix of the file to be searched.
-     * @return A Resource representing the file if found; otherwise, null.
-     * @throws IOException If an I/O error occurs while reading the directory.
+     * @param downloadDir the directory where the file is stored
+     * @param fileName the stored name of the file
+     * @return the path of the file, or null if the name is blank, points outside the directory,
+     *         or no readable regular file exists there
      */
-    public Resource getFileAsResource(String downloadDir, String fileName) throws IOException {
-
-        // Convert the download directory string to a Path object
-        Path path = Paths.get(downloadDir);
+    public static Path resolve(String downloadDir, String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return null;
+        }
+        Path directory = Paths.get(downloadDir).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
 
-        // List all files in the specified directory
-        Files.list(path).forEach(file -> {
-            // Check if the file starts with the given fileName
-            if(file.getFileName().toString().startsWith(fileName)) {
-                // If a matching file is found, store its path in foundPath
-                foundPath = file;
-            }
-        });
+        // Reject names such as "../other/file" that escape the directory
+        if (!file.getParent().equals(directory) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            return null;
+        }
+        return file;
+    }
 
-        // If a file was found, create a UrlResource from the found path
-        if (foundPath == null) {
-            return new UrlResource(foundPath.toUri());
+    /**
+     * Sends a byte range of a file as the response body.
+     *
+     * When sendfile is allowed and the servlet container supports it (Tomcat's NIO connector), the
+     * range is handed to the container, which lets the kernel copy it from the page cache to the
+     * socket after this request has returned, without copying it through the heap. Otherwise the
+     * range is copied to the response before this method returns: FileChannel.transferTo into the
+     * channel of a servlet output stream is a copy loop through a buffer, not a zero-copy transfer.
+     * The Content-Length header must already be set to the length of the range.
+     *
+     * @param request the current request
+     * @param response the response to write the range to
+     * @param file the file to send
+     * @param start the offset of the first byte to send
+     * @param length the number of bytes to send
+     * @param allowSendfile false if the transfer must be over when this method returns
+     * @throws IOException if the file cannot be read or the client goes away
+     */
+    public static void transfer(HttpServletRequest request, HttpServletResponse response, Path file,
+                                long start, long length, boolean allowSendfile) throws IOException {
+        if (allowSendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length); // Exclusive
+            return;
         }
 
-        // Return null if no matching file was found
-        return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            // transferTo may send fewer bytes than asked for, so loop until the range is done
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break; // The file was truncated while being sent
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.itschool.job_seeker.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Per-request memo of the current user's profile.
+ *
+ * The profile is resolved from the database at most once per request and then shared by every
+ * service and controller that asks for it. The number of identity queries made during the request
+ * is counted so it can be checked (see IdentityQueryInterceptor).
+ */
+@Component
+@RequestScope // One instance per HTTP request, reached through a scoped proxy from the singleton services
+public class RequestIdentity {
+
+    private boolean profileResolved; // Whether the profile lookup has already run in this request
+    private Object profile; // The RecruiterProfile or JobSeekerProfile found, or null if none is stored
+    private int identityQueries; // Number of user/profile queries made in this request
+
+    public boolean isProfileResolved() {
+        return profileResolved;
+    }
+
+    public Object getProfile() {
+        return profile;
+    }
+
+    /**
+     * Stores the resolved profile for the rest of the request.
+     *
+     * @param profile the profile found (may be null when the user has no stored profile)
+     */
+    public void setProfile(Object profile) {
+        this.profile = profile;
+        this.profileResolved = true;
+    }
+
+    /**
+     * Records that an identity query was sent to the database.
+     */
+    public void recordQuery() {
+        identityQueries++;
+    }
+
+    public int getIdentityQueries() {
+        return identityQueries;
+    }
+}
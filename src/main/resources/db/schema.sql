@@ -0,0 +1,34 @@
+-- Schema adjustments Hibernate's ddl-auto=update does not make on its own.
+-- Every statement is idempotent, the script runs on each startup after Hibernate has updated the schema.
+
+-- job_seeker_apply and job_seeker_save moved from IDENTITY to sequence IDs (allocated 50 at a time).
+-- Hibernate creates the sequences starting at 1, so move them past the IDs already in use.
+SELECT setval('job_seeker_apply_seq', (SELECT MAX(id) + 50 FROM job_seeker_apply))
+WHERE (SELECT MAX(id) FROM job_seeker_apply) + 50 > (SELECT last_value FROM job_seeker_apply_seq);
+
+SELECT setval('job_seeker_save_seq', (SELECT MAX(id) + 50 FROM job_seeker_save))
+WHERE (SELECT MAX(id) FROM job_seeker_save) + 50 > (SELECT last_value FROM job_seeker_save_seq);
+
+-- Covering indexes of job_listing_view, so the list pages are answered from the index alone:
+-- the newest-first listing (keyset pagination) and the recruiter dashboard.
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_posted
+    ON job_listing_view (posted_date DESC, job_post_id DESC)
+    INCLUDE (job_title, job_type, remote, salary, location_id, city, county, country, company_id, company_name);
+
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_posted_by
+    ON job_listing_view (posted_by_id)
+    INCLUDE (job_post_id, job_title, location_id, city, county, country, company_id, company_name);
+
+-- job_location and job_company hold one canonical row per normalized key. The keys are computed
+-- in Java only (DimensionKeys), and rows written before they existed are keyed or merged at startup
+-- by JobDimensionServiceImpl.backfillKeys, so nothing here depends on the database's locale.
+-- A location key joins three values of up to 255 characters. Hibernate does not widen an existing
+-- column, so it is widened here. Widening a varchar neither rewrites the table nor rebuilds its index.
+ALTER TABLE job_location ALTER COLUMN normalized_key TYPE varchar(767);
+
+-- The unique keys are the ON CONFLICT target of the upserts. Hibernate declares it as a unique constraint of the same name,
+-- but ignores a failure to add it to an existing table, so make sure it exists. Rows still without a key
+-- do not conflict, since NULLs are distinct.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_job_location_normalized_key ON job_location (normalized_key);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_job_company_normalized_key ON job_company (normalized_key);
@@ -0,0 +1,32 @@
+-- Trigram indexes backing the "trigram" search engine (profile: trgm).
+-- Every statement is idempotent, the script runs on each startup after Hibernate has updated the schema.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_job_post_activity_title_trgm
+    ON job_post_activity USING gin (job_title gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_location_city_trgm
+    ON job_location USING gin (city gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_location_county_trgm
+    ON job_location USING gin (county gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_location_country_trgm
+    ON job_location USING gin (country gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_post_activity_location
+    ON job_post_activity (job_location_id);
+
+-- The paginated search reads job_listing_view, where the searched columns sit in one table
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_title_trgm
+    ON job_listing_view USING gin (job_title gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_city_trgm
+    ON job_listing_view USING gin (city gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_county_trgm
+    ON job_listing_view USING gin (county gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_job_listing_view_country_trgm
+    ON job_listing_view USING gin (country gin_trgm_ops);
@@ -3,7 +3,7 @@ package com.itschool.job_seeker;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "security.session-token.allow-random-key=true")
 class JobSeekerApplicationTests {
 
 	@Test
@@ -0,0 +1,55 @@
+package com.itschool.job_seeker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HibernateRequestStatistics statistics = new HibernateRequestStatistics();
+    private final HandlerMetricsInterceptor interceptor = new HandlerMetricsInterceptor(registry, statistics);
+
+    @Test
+    void recordsLatencyAndQueriesPerHandler() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new SampleController(), "searchJobs");
+        statistics.inspect("SELECT 1"); // Before the request: not counted
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, handler));
+        statistics.inspect("SELECT 1");
+        statistics.inspect("SELECT 2");
+        statistics.onLoad(new Object(), (Object) 1L, null, null, null);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        Timer timer = registry.get(HandlerMetricsInterceptor.REQUESTS)
+                .tag("handler", "SampleController.searchJobs").tag("outcome", "success").timer();
+        assertEquals(1, timer.count());
+        DistributionSummary queries = registry.get(HandlerMetricsInterceptor.QUERIES).summary();
+        assertEquals(2, queries.totalAmount());
+        assertEquals(1, registry.get(HandlerMetricsInterceptor.ENTITY_LOADS).summary().totalAmount());
+    }
+
+    @Test
+    void ignoresHandlersOtherThanControllerMethods() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    static class SampleController {
+        public String searchJobs() {
+            return "dashboard";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.services.PhotoVariantService;
+import com.itschool.job_seeker.util.RequestIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(MvcConfigTest.Config.class)
+class MvcConfigTest {
+
+    @Configuration
+    @EnableWebMvc
+    @Import(MvcConfig.class)
+    static class Config {
+
+        @Bean
+        HandlerMetricsInterceptor handlerMetricsInterceptor() {
+            return new HandlerMetricsInterceptor(new SimpleMeterRegistry(), new HibernateRequestStatistics());
+        }
+
+        @Bean
+        IdentityQueryInterceptor identityQueryInterceptor() {
+            return new IdentityQueryInterceptor(mock(RequestIdentity.class));
+        }
+
+        @Bean
+        StaticResourceCacheInterceptor staticResourceCacheInterceptor() {
+            return new StaticResourceCacheInterceptor();
+        }
+
+        @Bean
+        PhotoVariantResourceResolver photoVariantResourceResolver() {
+            return new PhotoVariantResourceResolver(mock(PhotoVariantService.class));
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void servesVersionedUrlsAsImmutable() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/css/styles.css");
+        assertTrue(url.matches("/css/styles-[0-9a-f]{32}\\.css"), url);
+
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void revalidatesPlainUrlsWithTheirETag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/css/styles.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn();
+
+        mockMvc.perform(get("/css/styles.css").header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void versionsWebjarsResolvedWithoutTheirVersion() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/webjars/jquery/jquery.min.js");
+        assertNotNull(url);
+        assertNotEquals("/webjars/jquery/jquery.min.js", url);
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void servesPrecompressedFilesToClientsAcceptingThem() throws Exception {
+        // The build writes a .gz next to every static file with Ant's gzip task
+        assertTrue(new ClassPathResource("static/js/main.js.gz").exists(), "static/js/main.js.gz was not built");
+        String url = resourceUrlProvider.getForLookupPath("/js/main.js");
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.itschool.job_seeker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    @Test
+    void rehashesLegacyAndLowerCostHashesOnly() throws Exception {
+        PooledPasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder(
+                5, Duration.ZERO, 4, 14, 1, 10, Duration.ofSeconds(5));
+        try {
+            String current = encoder.encode("secret");
+            assertTrue(current.startsWith("{bcrypt}$2a$05$"), current);
+            assertTrue(encoder.matches("secret", current));
+            assertFalse(encoder.upgradeEncoding(current));
+
+            // Hashes stored before the id prefix, or with a lower cost, still match and are upgraded
+            String legacy = new BCryptPasswordEncoder(4).encode("secret");
+            assertTrue(encoder.matches("secret", legacy));
+            assertTrue(encoder.upgradeEncoding(legacy));
+            assertTrue(encoder.upgradeEncoding("{bcrypt}" + legacy));
+
+            // A higher cost is kept rather than rehashed down
+            String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret");
+            assertTrue(encoder.matches("secret", stronger));
+            assertFalse(encoder.upgradeEncoding(stronger));
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void calibratesTheCostOnlyWhenNoneIsConfigured() throws Exception {
+        PooledPasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder(
+                0, Duration.ZERO, 4, 14, 1, 10, Duration.ofSeconds(5));
+        try {
+            // With a target of zero the calibration stays at the minimum cost
+            assertTrue(encoder.encode("secret").startsWith("{bcrypt}$2a$04$"));
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void refusesHashesWhenThePoolIsSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PooledPasswordEncoder encoder = new PooledPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5));
+        try {
+            // The first hash occupies the only thread, the second one waits in the queue
+            Thread first = new Thread(() -> encoder.encode("first"));
+            Thread second = new Thread(() -> encoder.encode("second"));
+            first.start();
+            while (encoder.getActiveCount() == 0) {
+                Thread.onSpinWait();
+            }
+            second.start();
+            while (encoder.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(AuthenticationServiceException.class, () -> encoder.encode("third"));
+
+            release.countDown();
+            first.join();
+            second.join();
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.itschool.job_seeker.config;
+
+import com.itschool.job_seeker.model.UserCredentials;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenCodecTest {
+
+    private static final String OLD_KEY = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String NEW_KEY = "k2:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final CustomUserDetails user = new CustomUserDetails(new UserCredentials(42L, "ana@example.com", "hash", true, "Recruiter"));
+
+    @Test
+    void verifiesItsOwnTokensUntilTheyExpire() {
+        SessionTokenCodec codec = new SessionTokenCodec(List.of(OLD_KEY), Duration.ofHours(1), true, false);
+        String token = codec.encode(user, NOW);
+
+        SessionTokenCodec.Token verified = codec.decode(token, NOW.plusSeconds(60)).orElseThrow();
+        assertEquals(42L, verified.user().getUserId());
+        assertEquals("ana@example.com", verified.user().getUsername());
+        assertEquals("Recruiter", verified.user().getUserTypeName());
+        assertNull(verified.user().getPassword());
+        assertEquals(NOW.plus(Duration.ofHours(1)), verified.expiresAt());
+
+        assertTrue(codec.decode(token, NOW.plus(Duration.ofHours(1))).isEmpty());
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        SessionTokenCodec codec = new SessionTokenCodec(List.of(OLD_KEY), Duration.ofHours(1), true, false);
+        String token = codec.encode(user, NOW);
+        String[] parts = token.split("\\.");
+        String otherPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1|" + NOW.plusSeconds(3600).getEpochSecond() + "|Recruiter|ana@example.com").getBytes());
+
+        assertTrue(codec.decode(parts[0] + "." + otherPayload + "." + parts[2], NOW).isEmpty());
+        assertTrue(codec.decode("k9." + parts[1] + "." + parts[2], NOW).isEmpty());
+        assertTrue(codec.decode("garbage", NOW).isEmpty());
+    }
+
+    @Test
+    void acceptsTokensOfRetiredKeysWhileSigningWithTheNewOne() {
+        String oldToken = new SessionTokenCodec(List.of(OLD_KEY), Duration.ofHours(1), true, false).encode(user, NOW);
+        SessionTokenCodec rotated = new SessionTokenCodec(List.of(NEW_KEY, OLD_KEY), Duration.ofHours(1), true, false);
+
+        assertTrue(rotated.decode(oldToken, NOW).isPresent());
+        assertTrue(rotated.encode(user, NOW).startsWith("k2."));
+        // Once the old key is dropped, its tokens are no longer accepted
+        assertTrue(new SessionTokenCodec(List.of(NEW_KEY), Duration.ofHours(1), true, false).decode(oldToken, NOW).isEmpty());
+    }
+
+    @Test
+    void refusesToStartWithoutKeysUnlessARandomKeyIsAllowed() {
+        assertThrows(IllegalStateException.class, () -> new SessionTokenCodec(List.of(), Duration.ofHours(1), true, false));
+
+        SessionTokenCodec local = new SessionTokenCodec(List.of(), Duration.ofHours(1), true, true);
+        assertTrue(local.decode(local.encode(user, NOW), NOW).isPresent());
+        new SessionTokenCodec(List.of(), Duration.ofHours(1), false, false); // Not used with HTTP sessions
+    }
+}
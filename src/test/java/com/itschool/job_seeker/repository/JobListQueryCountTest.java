@@ -0,0 +1,163 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the list use cases against N+1 loading: the number of SQL statements each one sends must
+ * not grow with the number of rows listed.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never", // db/schema.sql is written for PostgreSQL
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class JobListQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobPostActivityRepository jobPostActivityRepository;
+
+    @Autowired
+    private JobSeekerApplyRepository jobSeekerApplyRepository;
+
+    @Autowired
+    private JobSeekerSaveRepository jobSeekerSaveRepository;
+
+    private UsersType recruiterType;
+    private UsersType jobSeekerType;
+    private JobPostActivity firstJob;
+    private JobSeekerProfile firstCandidate;
+    private int rows;
+
+    @BeforeEach
+    void setUp() {
+        recruiterType = persist(new UsersType(null, "Recruiter", null));
+        jobSeekerType = persist(new UsersType(null, "Job Seeker", null));
+    }
+
+    @Test
+    void listingJobPostsTakesAConstantNumberOfStatements() {
+        assertConstantStatements(repository -> repository.findAll().forEach(this::render));
+        assertConstantStatements(repository -> repository.findAll(PageRequest.of(0, 100)).forEach(this::render));
+        assertConstantStatements(repository -> repository.findListingByJobPostIdIn(
+                repository.searchIdsWithoutDate("Developer", "Cluj", List.of("Remote-Only"), List.of("Full-Time"))).forEach(this::render));
+    }
+
+    @Test
+    void listingApplicationsAndSavesTakesAConstantNumberOfStatements() {
+        // Candidates of a job post, as shown to its recruiter
+        assertConstantStatements(repository -> jobSeekerApplyRepository.findByJob(firstJob)
+                .forEach(apply -> apply.getUserId().getFirstName()));
+        assertConstantStatements(repository -> jobSeekerSaveRepository.findByJob(firstJob)
+                .forEach(save -> save.getUserId().getFirstName()));
+        // Jobs a job seeker applied to or saved
+        assertConstantStatements(repository -> jobSeekerApplyRepository.findUserByUserId(firstCandidate)
+                .forEach(apply -> render(apply.getJob())));
+        assertConstantStatements(repository -> jobSeekerSaveRepository.findByUserId(firstCandidate)
+                .forEach(save -> render(save.getJob())));
+    }
+
+    /**
+     * Runs a use case with 2 rows, then with 8, and checks that it sent as many statements both times.
+     *
+     * @param useCase the use case, reading the rows and everything its page renders
+     */
+    private void assertConstantStatements(Consumer<JobPostActivityRepository> useCase) {
+        addRows(2 - rows);
+        long withFewRows = countStatements(useCase);
+        addRows(8 - rows);
+        long withMoreRows = countStatements(useCase);
+        assertEquals(withFewRows, withMoreRows, "statements with 2 rows vs 8 rows");
+    }
+
+    private long countStatements(Consumer<JobPostActivityRepository> useCase) {
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll(); // Count cold reads, not second-level cache hits
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        useCase.accept(jobPostActivityRepository);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Reads what the list pages render of a job post
+    private void render(JobPostActivity job) {
+        job.getJobLocationId().getCity();
+        job.getJobCompanyId().getName();
+    }
+
+    /**
+     * Adds job posts, each with its own recruiter, location and company, and a job seeker who
+     * applied to and saved both the new job post and the first one.
+     */
+    private void addRows(int count) {
+        // The counting clears the persistence context, so the shared rows are attached again first
+        recruiterType = entityManager.merge(recruiterType);
+        jobSeekerType = entityManager.merge(jobSeekerType);
+        if (firstJob != null) {
+            firstJob = entityManager.find(JobPostActivity.class, firstJob.getJobPostId());
+            firstCandidate = entityManager.find(JobSeekerProfile.class, firstCandidate.getUserAccountId());
+        }
+        for (int i = 0; i < count; i++) {
+            rows++;
+            Users recruiter = persist(user("recruiter" + rows, recruiterType));
+            JobLocation location = persist(new JobLocation(null, "Cluj " + rows, "Cluj", "Romania"));
+            JobCompany company = persist(new JobCompany(null, "Company " + rows, null));
+            JobPostActivity job = persist(new JobPostActivity(null, recruiter, location, company, null, null,
+                    "Description", "Developer " + rows, "Full-Time", "1000", "Remote-Only", new Date()));
+
+            JobSeekerProfile candidate = new JobSeekerProfile();
+            candidate.setUserId(persist(user("seeker" + rows, jobSeekerType)));
+            candidate.setFirstName("Seeker " + rows);
+            persist(candidate);
+
+            if (firstJob == null) {
+                firstJob = job;
+                firstCandidate = candidate;
+            }
+            persist(new JobSeekerApply(null, candidate, job, new Date(), null));
+            persist(new JobSeekerSave(null, candidate, job));
+            if (job != firstJob) {
+                persist(new JobSeekerApply(null, candidate, firstJob, new Date(), null));
+                persist(new JobSeekerSave(null, candidate, firstJob));
+                persist(new JobSeekerApply(null, firstCandidate, job, new Date(), null));
+                persist(new JobSeekerSave(null, firstCandidate, job));
+            }
+        }
+    }
+
+    private Users user(String name, UsersType type) {
+        Users user = new Users();
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret");
+        user.setActive(true);
+        user.setRegistrationDate(new Date());
+        user.setUserTypeId(type);
+        return user;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,72 @@
+package com.itschool.job_seeker.repository;
+
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.UsersType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the reference data is served from the second-level cache once it has been loaded.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never", // db/schema.sql is written for PostgreSQL
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "metrics.hibernate.enabled=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Entries written by an open transaction are not cached yet
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loadsReferenceDataFromTheDatabaseOnlyOnce() {
+        JobLocation location = new JobLocation(null, "Bucharest", "Ilfov", "Romania");
+        UsersType usersType = new UsersType(null, "Recruiter", null);
+        inTransaction(entityManager -> {
+            entityManager.persist(location);
+            entityManager.persist(usersType);
+        });
+        entityManagerFactory.getCache().evictAll(); // Start cold, as after a restart
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            // A new persistence context each time, as for the next request
+            inTransaction(entityManager -> {
+                assertEquals("Bucharest", entityManager.find(JobLocation.class, location.getId()).getCity());
+                assertEquals("Recruiter", entityManager.find(UsersType.class, usersType.getUserTypeId()).getUserTypeName());
+            });
+        }
+
+        assertEquals(2, statistics.getPrepareStatementCount()); // The first find of each entity
+        assertEquals(4, statistics.getSecondLevelCacheHitCount());
+
+        inTransaction(entityManager -> {
+            entityManager.remove(entityManager.find(JobLocation.class, location.getId()));
+            entityManager.remove(entityManager.find(UsersType.class, usersType.getUserTypeId()));
+        });
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            work.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.StoredBlobRepository;
+import com.itschool.job_seeker.util.BlobKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlobStoreServiceImplTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private StoredBlobRepository repository;
+    private BlobStoreServiceImpl store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StoredBlobRepository.class);
+        store = new BlobStoreServiceImpl(repository, uploadDir.toString(), Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void storesIdenticalContentOnce() throws IOException {
+        byte[] content = "%PDF-1.7 resume".getBytes(StandardCharsets.UTF_8);
+        String first = store.store(new MockMultipartFile("pdf", "My Resume.PDF", "application/pdf", content));
+        String second = store.store(new MockMultipartFile("pdf", "copy.pdf", "application/pdf", content));
+
+        assertEquals(first, second);
+        assertTrue(BlobKeys.isBlobKey(first));
+        assertTrue(first.endsWith(".pdf"));
+        assertArrayEquals(content, Files.readAllBytes(store.resolve(first)));
+        verify(repository, times(2)).register(first, content.length);
+
+        String other = store.store(new MockMultipartFile("pdf", "other.pdf", "application/pdf", new byte[]{1}));
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void movesReferencesOnlyForBlobKeys() throws IOException {
+        String key = store.store(new MockMultipartFile("image", "photo.png", "image/png", new byte[]{1, 2, 3}));
+
+        store.replaceReference("legacy.png", key);
+        store.replaceReference(key, key);
+        store.replaceReference(key, null);
+
+        verify(repository).acquire(key);
+        verify(repository).release(key);
+        verify(repository, never()).release("legacy.png");
+    }
+
+    @Test
+    void collectsOnlyBlobsStillUnreferenced() throws IOException {
+        String kept = store.store(new MockMultipartFile("image", "a.png", "image/png", new byte[]{1}));
+        String deleted = store.store(new MockMultipartFile("image", "b.png", "image/png", new byte[]{2}));
+        when(repository.findCollectable(any())).thenReturn(List.of(kept, deleted));
+        // The first blob was referenced again between the query and the delete
+        when(repository.deleteIfCollectable(eq(kept), any())).thenReturn(0);
+        when(repository.deleteIfCollectable(eq(deleted), any())).thenReturn(1);
+
+        assertEquals(1, store.collectGarbage());
+        verify(repository).reconcile();
+        assertNotNull(store.resolve(kept));
+        assertNull(store.resolve(deleted));
+    }
+}
@@ -0,0 +1,94 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.repository.JobCompanyRepository;
+import com.itschool.job_seeker.repository.JobLocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JobDimensionServiceImplTest {
+
+    private final JobLocationRepository jobLocationRepository = mock(JobLocationRepository.class);
+    private final JobCompanyRepository jobCompanyRepository = mock(JobCompanyRepository.class);
+    private final JobDimensionServiceImpl jobDimensionService =
+            new JobDimensionServiceImpl(jobLocationRepository, jobCompanyRepository, 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolvesEachNormalizedValueOnce() {
+        when(jobLocationRepository.upsert(anyString(), any(), anyString(), anyString())).thenReturn(5L);
+        when(jobCompanyRepository.upsert(anyString(), anyString())).thenReturn(9L);
+
+        assertEquals(5L, jobDimensionService.getLocationId("Bucharest", null, "Romania"));
+        assertEquals(5L, jobDimensionService.getLocationId("  bucharest ", "", "ROMANIA"));
+        assertEquals(9L, jobDimensionService.getCompanyId("Acme  Inc"));
+        assertEquals(9L, jobDimensionService.getCompanyId("acme inc"));
+
+        verify(jobLocationRepository).upsert("Bucharest", null, "Romania", "bucharest||romania");
+        verify(jobCompanyRepository).upsert("Acme  Inc", "acme inc");
+        verifyNoMoreInteractions(jobLocationRepository, jobCompanyRepository);
+    }
+
+    @Test
+    void cachesTheIdsOfATransactionOnlyOnceItHasCommitted() {
+        when(jobCompanyRepository.upsert(anyString(), anyString())).thenReturn(9L, 10L, 11L);
+
+        // Rolled back: the row the upsert inserted is gone, so its ID must not be kept
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(9L, jobDimensionService.getCompanyId("Acme"));
+        assertEquals(9L, jobDimensionService.getCompanyId("Acme")); // Kept for the rest of the transaction
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(10L, jobDimensionService.getCompanyId("Acme"));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(10L, jobDimensionService.getCompanyId("Acme"));
+        verify(jobCompanyRepository, times(2)).upsert("Acme", "acme");
+    }
+
+    @Test
+    void backfillKeysUnkeyedRowsAndMergesDuplicates() {
+        when(jobLocationRepository.existsByNormalizedKeyIsNull()).thenReturn(true);
+        when(jobLocationRepository.findByNormalizedKeyIsNull()).thenReturn(List.of(
+                new JobLocation(1L, "Cluj", null, "Romania"),
+                new JobLocation(2L, "Iași ", null, "ROMANIA"),
+                new JobLocation(3L, " IAȘI", "", "Romania")));
+        when(jobLocationRepository.findIdByNormalizedKey("cluj||romania")).thenReturn(7L); // Keyed since
+        when(jobLocationRepository.findIdByNormalizedKey("iași||romania")).thenReturn(null, 2L);
+
+        jobDimensionService.backfillKeys();
+
+        // Keys come from DimensionKeys, so the upper-case Ș matches whatever the database locale is
+        verify(jobLocationRepository).mergeInto(1L, 7L);
+        verify(jobLocationRepository).assignKey(2L, "iași||romania");
+        verify(jobLocationRepository).mergeInto(3L, 2L);
+        verify(jobCompanyRepository).existsByNormalizedKeyIsNull();
+        verifyNoMoreInteractions(jobCompanyRepository);
+    }
+
+    // Ends the transaction the way the transaction manager does
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,105 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostImportReport;
+import com.itschool.job_seeker.model.JobPostImportRow;
+import com.itschool.job_seeker.services.JobSearchIndexService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobPostImportServiceImplTest {
+
+    private final JobPostImportWriter writer = mock(JobPostImportWriter.class);
+    private final JobSearchIndexService jobSearchIndexService = mock(JobSearchIndexService.class);
+    private final JobPostImportServiceImpl importService = new JobPostImportServiceImpl(writer, jobSearchIndexService,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2, 10);
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importsValidCsvRowsInChunksAndReportsTheOthers() throws Exception {
+        List<List<JobPostImportRow>> chunks = new ArrayList<>();
+        when(writer.insert(anyList(), eq(7L), any())).thenAnswer(invocation -> {
+            List<JobPostImportRow> chunk = invocation.getArgument(0);
+            chunks.add(List.copyOf(chunk));
+            return chunk.stream().map(row -> ids.incrementAndGet()).toList();
+        });
+        String csv = """
+                jobTitle,jobType,remote,salary,city,county,country,company
+                Java Developer,full-time,Hybrid,5000,Cluj-Napoca,Cluj,Romania,Acme
+                ,Full-Time,Hybrid,,Iasi,,Romania,Acme
+                QA Engineer,Part-Time,Remote-Only,,Iasi,,Romania,"Acme, Inc."
+                Data Engineer,Contract,Hybrid,,Berlin,,Germany,Acme
+                DevOps Engineer,Freelance,office-only,,Berlin,,Germany,Acme
+                """;
+
+        JobPostImportReport report = importService.importJobPosts(stream(csv), "jobs.CSV", 7L);
+
+        assertEquals(3, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of(2L, 4L), report.errors().stream().map(JobPostImportReport.RowError::row).toList());
+        assertTrue(report.errors().get(0).message().contains("jobTitle"));
+        assertTrue(report.errors().get(1).message().contains("jobType"));
+
+        // Chunks of two, with the values trimmed and the spelling of the search filters
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        JobPostImportRow first = chunks.get(0).get(0);
+        assertEquals("Full-Time", first.getJobType());
+        assertNull(chunks.get(0).get(1).getSalary());
+        assertEquals("Acme, Inc.", chunks.get(0).get(1).getCompany());
+        assertEquals("Office-Only", chunks.get(1).get(0).getRemote());
+
+        ArgumentCaptor<JobPostActivity> indexed = ArgumentCaptor.forClass(JobPostActivity.class);
+        verify(jobSearchIndexService, times(3)).index(indexed.capture());
+        assertEquals(List.of(101L, 102L, 103L), indexed.getAllValues().stream().map(JobPostActivity::getJobPostId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesAFailedChunkRowByRowAndReportsUnreadableLines() throws Exception {
+        when(writer.insert(anyList(), eq(7L), any())).thenAnswer(invocation -> {
+            List<JobPostImportRow> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(row -> row.getJobTitle().equals("Broken"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return chunk.stream().map(row -> ids.incrementAndGet()).toList();
+        });
+        String jsonLines = """
+                {"jobTitle":"Broken","jobType":"Full-Time","remote":"Hybrid","city":"Iasi","country":"Romania","company":"Acme"}
+                {"jobTitle":"Tester","jobType":"Full-Time","remote":"Hybrid","city":"Iasi","country":"Romania","company":"Acme"}
+
+                {"jobTitle": oops}
+                """;
+
+        JobPostImportReport report = importService.importJobPosts(stream(jsonLines), "jobs.jsonl", 7L);
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(1L, 3L), report.errors().stream().map(JobPostImportReport.RowError::row).toList());
+        assertTrue(report.errors().get(0).message().contains("value too long"));
+        verify(writer, times(3)).insert(anyList(), eq(7L), any()); // The chunk, then each of its rows
+    }
+
+    @Test
+    void rejectsOtherFileTypes() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importJobPosts(stream(""), "jobs.xlsx", 7L));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobPostStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobPostStatsServiceImplTest {
+
+    private final JobPostStatsRepository repository = mock(JobPostStatsRepository.class);
+
+    @Test
+    void countsViewsInTheBackgroundOneUpdatePerJobPost() {
+        JobPostStatsServiceImpl statsService = new JobPostStatsServiceImpl(repository, false, 100, 100,
+                Duration.ofMinutes(1), false);
+
+        statsService.recordView(7L, 1L, null); // Anonymous visitor
+        statsService.recordView(7L, 1L, 2L);
+        statsService.recordView(8L, 1L, 2L);
+        statsService.recordView(7L, 1L, 1L); // The recruiter looking at their own job post
+        verify(repository, after(200).never()).addViews(anyLong(), anyLong()); // Not on the viewer's thread
+
+        statsService.shutdown();
+        verify(repository).addViews(7L, 2L);
+        verify(repository).addViews(8L, 1L);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void keepsTheOtherViewsWhenAJobPostCannotBeUpdated() {
+        when(repository.addViews(eq(7L), anyLong())).thenThrow(new DataIntegrityViolationException("job post deleted"));
+        JobPostStatsServiceImpl statsService = new JobPostStatsServiceImpl(repository, false, 100, 100,
+                Duration.ofMillis(10), false);
+
+        statsService.recordView(7L, 1L, null);
+        statsService.recordView(8L, 1L, null);
+
+        verify(repository, timeout(2000)).addViews(8L, 1L);
+        statsService.shutdown();
+    }
+}
@@ -0,0 +1,172 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobCompany;
+import com.itschool.job_seeker.entity.JobLocation;
+import com.itschool.job_seeker.entity.JobPostActivity;
+import com.itschool.job_seeker.model.JobPostCursor;
+import com.itschool.job_seeker.model.SearchIndexConsistencyReport;
+import com.itschool.job_seeker.repository.JobPostActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JobSearchIndexServiceImplTest {
+
+    private final List<JobPostActivity> jobs = new ArrayList<>();
+    private Runnable duringRead = () -> { };
+    private JobSearchIndexServiceImpl index;
+
+    @BeforeEach
+    void setUp() {
+        JobPostActivityRepository repository = mock(JobPostActivityRepository.class);
+        when(repository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            PageImpl<JobPostActivity> page = new PageImpl<>(new ArrayList<>(jobs));
+            duringRead.run();
+            return page;
+        });
+
+        jobs.add(job(1L, "Senior Java Developer", "Bucharest", "Ilfov", "Romania", "Full-Time", "Remote-Only", 0));
+        jobs.add(job(2L, "Java Backend Engineer", "Cluj-Napoca", "Cluj", "Romania", "Part-Time", "Office-Only", 10));
+        jobs.add(job(3L, "Frontend Developer", "Berlin", "Berlin", "Germany", "Full-Time", "Hybrid", 40));
+
+        index = new JobSearchIndexServiceImpl(repository, "index");
+        index.rebuild();
+    }
+
+    @Test
+    void matchesTitleAndLocationKeywordsByPrefix() {
+        assertEquals(List.of(1L, 2L), index.search("jav", "roman", null, null, null));
+        assertEquals(List.of(2L), index.search("java", "cluj", null, null, null));
+        assertEquals(List.of(), index.search("python", "", null, null, null));
+    }
+
+    @Test
+    void returnsAJobPostOnceWhenSeveralOfItsTermsMatchAKeyword() {
+        index.index(job(4L, "DevOps Developer", "Bucharest", "Ilfov", "Romania", "Full-Time", "Hybrid", 5));
+        assertEquals(List.of(1L, 4L, 3L), index.search("dev", null, List.of("Full-Time"), null, null));
+    }
+
+    @Test
+    void ranksWholeTermMatchesFirstThenNewest() {
+        index.index(job(4L, "Javascript Developer", "Bucharest", "Ilfov", "Romania", "Full-Time", "Hybrid", 0));
+        assertEquals(List.of(1L, 2L, 4L), index.search("java", null, null, null, null));
+        index.remove(4L);
+
+        assertEquals(List.of(1L, 2L, 3L), index.search(null, null, null, null, null));
+    }
+
+    @Test
+    void filtersByTypeRemoteAndPostedDate() {
+        List<String> allRemote = List.of("Remote-Only", "Office-Only", "Hybrid");
+        assertEquals(List.of(1L, 3L), index.search("", "", List.of("Full-Time"), allRemote, null));
+        assertEquals(List.of(2L), index.search("", "", List.of("Part-Time", "Full-Time"), List.of("Office-Only"), null));
+        assertEquals(List.of(1L, 2L), index.search("", "", null, null, LocalDate.now().minusDays(30)));
+    }
+
+    @Test
+    void pagesNewestFirstAfterTheCursor() {
+        assertEquals(List.of(1L, 2L), index.searchPage(null, null, null, null, null, JobPostCursor.FIRST, 2));
+
+        JobPostActivity last = jobs.get(1);
+        JobPostCursor next = JobPostCursor.decode(new JobPostCursor(last.getPostedDate(), last.getJobPostId()).encode());
+        assertEquals(List.of(3L), index.searchPage(null, null, null, null, null, next, 2));
+        assertEquals(List.of(), index.searchPage("java", null, null, null, null, next, 2));
+    }
+
+    @Test
+    void pagesThroughFilteredMatchesAndStopsAtThePostedDateFilter() {
+        jobs.add(job(4L, "DevOps Developer", "Bucharest", "Ilfov", "Romania", "Full-Time", "Hybrid", 5));
+        index.index(jobs.get(3));
+
+        // One job post per page, each page starting after the last job post of the previous one
+        List<Long> ids = new ArrayList<>();
+        JobPostCursor cursor = JobPostCursor.FIRST;
+        List<Long> page;
+        while (!(page = index.searchPage("dev", null, null, null, null, cursor, 1)).isEmpty()) {
+            ids.addAll(page);
+            JobPostActivity last = jobs.get(page.get(0).intValue() - 1);
+            cursor = new JobPostCursor(last.getPostedDate(), last.getJobPostId());
+        }
+        assertEquals(List.of(1L, 4L, 3L), ids);
+
+        assertEquals(List.of(1L, 4L), index.searchPage("dev", null, null, null, LocalDate.now().minusDays(30),
+                JobPostCursor.FIRST, 5));
+        assertEquals(List.of(4L), index.searchPage(null, "ilfov", List.of("Full-Time"), List.of("Hybrid"), null,
+                JobPostCursor.FIRST, 5));
+    }
+
+    @Test
+    void keepsUpWithEditsAndRemovals() {
+        index.index(job(2L, "Python Engineer", "Iasi", "Iasi", "Romania", "Part-Time", "Office-Only", 0));
+        assertEquals(List.of(1L), index.search("java", null, null, null, null));
+        assertEquals(List.of(2L), index.search("python", "iasi", null, null, null));
+
+        index.remove(2L);
+        assertEquals(List.of(), index.search("python", null, null, null, null));
+    }
+
+    @Test
+    void consistencyCheckFindsAndRepairsDrift() {
+        index.remove(1L);
+        index.index(job(9L, "Ghost", "Nowhere", null, null, "Full-Time", "Hybrid", 0));
+        jobs.set(1, job(2L, "Renamed Title", "Cluj-Napoca", "Cluj", "Romania", "Part-Time", "Office-Only", 10));
+
+        SearchIndexConsistencyReport report = index.checkConsistency(true);
+        assertEquals(List.of(1L), report.getMissing());
+        assertEquals(List.of(2L), report.getStale());
+        assertEquals(List.of(9L), report.getOrphaned());
+
+        assertTrue(index.checkConsistency(false).isConsistent());
+        assertEquals(List.of(2L), index.search("renamed", null, null, null, null));
+    }
+
+    @Test
+    void consistencyCheckKeepsUpdatesMadeWhileItReadsTheDatabase() {
+        // Committed and indexed after the check has read the database
+        duringRead = () -> {
+            index.index(job(2L, "Edited Title", "Cluj-Napoca", "Cluj", "Romania", "Part-Time", "Office-Only", 10));
+            index.index(job(7L, "Kotlin Developer", "Iasi", "Iasi", "Romania", "Full-Time", "Hybrid", 0));
+            index.remove(3L);
+        };
+
+        assertTrue(index.checkConsistency(true).isConsistent());
+        assertEquals(List.of(2L), index.search("edited", null, null, null, null));
+        assertEquals(List.of(), index.search("java backend", null, null, null, null));
+        assertEquals(List.of(7L), index.search("kotlin", null, null, null, null));
+        assertEquals(List.of(), index.search("frontend", null, null, null, null));
+    }
+
+    @Test
+    void isNeitherBuiltNorUpdatedForTheOtherSearchEngines() {
+        JobPostActivityRepository repository = mock(JobPostActivityRepository.class);
+        JobSearchIndexServiceImpl unused = new JobSearchIndexServiceImpl(repository, "trigram");
+
+        unused.bootstrap();
+        unused.scheduledConsistencyCheck();
+        unused.index(job(5L, "Java Developer", "Iasi", "Iasi", "Romania", "Full-Time", "Hybrid", 0));
+
+        assertFalse(unused.isReady());
+        assertEquals(List.of(), unused.search("java", null, null, null, null));
+        verifyNoInteractions(repository);
+    }
+
+    private static JobPostActivity job(Long id, String title, String city, String county, String country,
+                                       String type, String remote, int daysAgo) {
+        Date postedDate = Date.from(LocalDate.now().minusDays(daysAgo).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return new JobPostActivity(id, null, new JobLocation(id, city, county, country), new JobCompany(id, "Company", ""),
+                null, null, "", title, type, "", remote, postedDate);
+    }
+}
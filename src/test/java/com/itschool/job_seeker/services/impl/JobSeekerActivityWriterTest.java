@@ -0,0 +1,78 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobSeekerApply;
+import com.itschool.job_seeker.entity.JobSeekerSave;
+import com.itschool.job_seeker.model.JobApplicationRequest;
+import com.itschool.job_seeker.repository.JobPostActivityRepository;
+import com.itschool.job_seeker.repository.JobSeekerApplyRepository;
+import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
+import com.itschool.job_seeker.repository.JobSeekerSaveRepository;
+import com.itschool.job_seeker.services.JobPostStatsService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class JobSeekerActivityWriterTest {
+
+    private final JobSeekerApplyRepository jobSeekerApplyRepository = mock(JobSeekerApplyRepository.class);
+    private final JobSeekerSaveRepository jobSeekerSaveRepository = mock(JobSeekerSaveRepository.class);
+    private final JobPostStatsService jobPostStatsService = mock(JobPostStatsService.class);
+    private final JobSeekerActivityWriter writer = new JobSeekerActivityWriter(jobSeekerApplyRepository,
+            jobSeekerSaveRepository, mock(JobSeekerProfileRepository.class), mock(JobPostActivityRepository.class),
+            jobPostStatsService);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsApplicationsAlreadyStoredOrRepeatedInTheBatch() {
+        when(jobSeekerApplyRepository.findExistingApplications(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 10L}));
+
+        int inserted = writer.insertApplications(List.of(
+                application(1L, 10L), // Already stored
+                application(2L, 10L),
+                application(2L, 10L), // Applied twice in the same batch
+                application(2L, 11L)));
+
+        assertEquals(2, inserted);
+        ArgumentCaptor<List<JobSeekerApply>> saved = ArgumentCaptor.forClass(List.class);
+        verify(jobSeekerApplyRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        verify(jobPostStatsService).recordApplication(10L);
+        verify(jobPostStatsService).recordApplication(11L);
+        verifyNoMoreInteractions(jobPostStatsService);
+    }
+
+    @Test
+    void writingTheSameBatchTwiceStoresAndCountsItOnce() {
+        List<JobApplicationRequest> batch = List.of(application(1L, 10L));
+        when(jobSeekerApplyRepository.findExistingApplications(any(), any()))
+                .thenReturn(List.of(), List.<Object[]>of(new Object[]{1L, 10L}));
+
+        assertEquals(1, writer.insertApplications(batch));
+        assertEquals(0, writer.insertApplications(batch)); // e.g. the queue retrying a batch that had committed
+
+        verify(jobPostStatsService, times(1)).recordApplication(10L);
+    }
+
+    @Test
+    void savesAJobPostOnce() {
+        when(jobSeekerSaveRepository.existsByUserIdUserAccountIdAndJobJobPostId(1L, 10L)).thenReturn(false, true);
+
+        assertTrue(writer.insertSave(1L, 10L));
+        assertFalse(writer.insertSave(1L, 10L));
+
+        verify(jobSeekerSaveRepository, times(1)).saveAndFlush(any(JobSeekerSave.class));
+        verify(jobPostStatsService, times(1)).recordSave(anyLong());
+    }
+
+    private static JobApplicationRequest application(Long userAccountId, Long jobPostId) {
+        return new JobApplicationRequest(userAccountId, jobPostId, new Date(), null);
+    }
+}
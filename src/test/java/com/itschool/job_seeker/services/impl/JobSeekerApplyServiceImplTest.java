@@ -0,0 +1,64 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.model.JobApplicationRequest;
+import com.itschool.job_seeker.repository.JobSeekerApplyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class JobSeekerApplyServiceImplTest {
+
+    private final JobSeekerApplyRepository jobSeekerApplyRepository = mock(JobSeekerApplyRepository.class);
+    private final JobSeekerActivityWriter writer = mock(JobSeekerActivityWriter.class);
+    private final JobSeekerApplyServiceImpl applyService = new JobSeekerApplyServiceImpl(jobSeekerApplyRepository, writer,
+            true, 100, 50, Duration.ofMillis(10), Duration.ZERO, Duration.ofSeconds(5), false);
+
+    @AfterEach
+    void shutdown() {
+        applyService.shutdown();
+    }
+
+    @Test
+    void returnsOnlyOnceTheQueuedApplicationIsWritten() {
+        applyService.addNew(1L, 10L, "Hello");
+
+        // Written on the background writer, but before addNew returned
+        verify(writer).insertApplications(argThat((List<JobApplicationRequest> batch) -> batch.size() == 1
+                && batch.get(0).jobPostId() == 10L && "Hello".equals(batch.get(0).coverLetter())));
+    }
+
+    @Test
+    void retriesABatchThatFailedForAnotherReasonThanAConstraint() {
+        when(writer.insertApplications(anyList()))
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenReturn(1);
+
+        applyService.addNew(1L, 10L, null);
+
+        verify(writer, times(2)).insertApplications(anyList());
+    }
+
+    @Test
+    void failsWhenTheQueuedApplicationIsRejected() {
+        when(writer.insertApplications(anyList())).thenThrow(new DataIntegrityViolationException("job post deleted"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> applyService.addNew(1L, 10L, null));
+    }
+
+    @Test
+    void treatsAnApplicationStoredConcurrentlyAsWritten() {
+        when(writer.insertApplications(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(jobSeekerApplyRepository.existsByUserIdUserAccountIdAndJobJobPostId(1L, 10L)).thenReturn(true);
+
+        applyService.addNew(1L, 10L, null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobListingViewRepository;
+import com.itschool.job_seeker.repository.JobSeekerSaveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class JobSeekerSaveServiceImplTest {
+
+    private final JobSeekerSaveRepository jobSeekerSaveRepository = mock(JobSeekerSaveRepository.class);
+    private final JobSeekerActivityWriter writer = mock(JobSeekerActivityWriter.class);
+    private final JobSeekerSaveServiceImpl saveService = new JobSeekerSaveServiceImpl(jobSeekerSaveRepository, writer,
+            mock(JobListingViewRepository.class));
+
+    @Test
+    void treatsASaveStoredConcurrentlyAsSaved() {
+        when(writer.insertSave(1L, 10L)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(jobSeekerSaveRepository.existsByUserIdUserAccountIdAndJobJobPostId(1L, 10L)).thenReturn(true);
+
+        saveService.addNew(1L, 10L);
+    }
+
+    @Test
+    void failsWhenTheSaveCannotBeStored() {
+        when(writer.insertSave(1L, 10L)).thenThrow(new DataIntegrityViolationException("job post deleted"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> saveService.addNew(1L, 10L));
+    }
+}
@@ -0,0 +1,89 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.util.BlobKeys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoVariantServiceImplTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void writesEveryVariantSizeKeepingTheAspectRatio() throws IOException {
+        String key = storePhoto(new BufferedImage(1000, 600, BufferedImage.TYPE_INT_ARGB), "png");
+
+        service(40_000_000).createVariants(key);
+
+        BufferedImage medium = ImageIO.read(uploadDir.resolve(BlobKeys.variantPath(key, BlobKeys.MEDIUM_SIZE)).toFile());
+        BufferedImage thumbnail = ImageIO.read(uploadDir.resolve(BlobKeys.variantPath(key, BlobKeys.THUMBNAIL_SIZE)).toFile());
+        assertEquals(400, medium.getWidth());
+        assertEquals(240, medium.getHeight());
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(60, thumbnail.getHeight());
+        assertEquals(key, BlobKeys.originalOfVariant(BlobKeys.variantPath(key, BlobKeys.THUMBNAIL_SIZE)));
+    }
+
+    @Test
+    void neverUpscalesSmallPhotos() throws IOException {
+        String key = storePhoto(new BufferedImage(80, 40, BufferedImage.TYPE_INT_RGB), "jpg");
+
+        service(40_000_000).createVariants(key);
+
+        BufferedImage thumbnail = ImageIO.read(uploadDir.resolve(BlobKeys.variantPath(key, BlobKeys.THUMBNAIL_SIZE)).toFile());
+        assertEquals(80, thumbnail.getWidth());
+        assertEquals(40, thumbnail.getHeight());
+    }
+
+    @Test
+    void refusesPhotosAboveThePixelLimitBeforeDecoding() throws IOException {
+        String key = storePhoto(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "png");
+
+        assertThrows(IOException.class, () -> service(10_000).createVariants(key));
+        assertFalse(Files.exists(uploadDir.resolve(BlobKeys.variantPath(key, BlobKeys.THUMBNAIL_SIZE))));
+    }
+
+    @Test
+    void remembersPhotosWhoseVariantsFailedAndStopsRetryingThem() throws Exception {
+        String key = storePhoto(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "png");
+        Files.writeString(uploadDir.resolve(BlobKeys.relativePath(key)), "not an image");
+        PhotoVariantServiceImpl service = service(40_000_000);
+
+        service.submit(key);
+        for (int i = 0; i < 100 && (!service.hasFailed(key) || service.getPending() > 0); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(service.hasFailed(key));
+        assertEquals(0, service.getPending());
+
+        service.submit(key); // Not queued again
+        assertEquals(0, service.getPending());
+        assertFalse(Files.exists(uploadDir.resolve(BlobKeys.variantPath(key, BlobKeys.THUMBNAIL_SIZE))));
+        service.shutdown();
+    }
+
+    private PhotoVariantServiceImpl service(long maxPixels) {
+        return new PhotoVariantServiceImpl(uploadDir.toString(), 1, 10, maxPixels, 0.8f, 100, Duration.ofHours(1));
+    }
+
+    private String storePhoto(BufferedImage image, String format) throws IOException {
+        byte[] hash = new byte[32];
+        byte[] name = (format + image.getWidth()).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(name, 0, hash, 0, name.length);
+        String key = BlobKeys.of(hash, "photo." + format);
+        Path file = uploadDir.resolve(BlobKeys.relativePath(key));
+        Files.createDirectories(file.getParent());
+        ImageIO.write(image, format, file.toFile());
+        return key;
+    }
+}
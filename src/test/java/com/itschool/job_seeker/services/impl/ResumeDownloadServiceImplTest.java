@@ -0,0 +1,115 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
+import com.itschool.job_seeker.services.BlobStoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResumeDownloadServiceImplTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final JobSeekerProfileRepository repository = mock(JobSeekerProfileRepository.class);
+    private ResumeDownloadServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path candidateDir = Files.createDirectories(uploadDir.resolve("candidate/7"));
+        Files.writeString(candidateDir.resolve("cv.pdf"), "0123456789", StandardCharsets.US_ASCII);
+        Files.writeString(uploadDir.resolve("candidate/secret.pdf"), "secret", StandardCharsets.US_ASCII);
+        when(repository.findResumeByUserAccountId(7L)).thenReturn(Optional.of("cv.pdf"));
+        when(repository.findResumeByUserAccountId(8L)).thenReturn(Optional.of("../secret.pdf"));
+        service = new ResumeDownloadServiceImpl(repository, mock(BlobStoreService.class), uploadDir.toString(), 1);
+    }
+
+    @Test
+    void sendsTheWholeFileAndThenNotModified() throws IOException {
+        MockHttpServletResponse response = download(7L, new MockHttpServletRequest("GET", "/"));
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertTrue(response.getHeader("Content-Disposition").contains("cv.pdf"));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+        conditional.addHeader("If-None-Match", response.getHeader("ETag"));
+        assertEquals(304, download(7L, conditional).getStatus());
+    }
+
+    @Test
+    void sendsSatisfiableRangesOnly() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = download(7L, request);
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/");
+        stale.addHeader("Range", "bytes=2-5");
+        stale.addHeader("If-Range", "\"other\"");
+        assertEquals(200, download(7L, stale).getStatus());
+
+        // A date only matches the file's exact Last-Modified, a later one may be that of another version
+        MockHttpServletResponse whole = download(7L, new MockHttpServletRequest("GET", "/"));
+        long lastModified = whole.getDateHeader("Last-Modified");
+        MockHttpServletRequest sameDate = new MockHttpServletRequest("GET", "/");
+        sameDate.addHeader("Range", "bytes=2-5");
+        sameDate.addHeader("If-Range", whole.getHeader("Last-Modified"));
+        assertEquals(206, download(7L, sameDate).getStatus());
+        MockHttpServletRequest laterDate = new MockHttpServletRequest("GET", "/");
+        laterDate.addHeader("Range", "bytes=2-5");
+        laterDate.addHeader("If-Range", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                Instant.ofEpochMilli(lastModified + 60_000).atZone(ZoneOffset.UTC)));
+        assertEquals(200, download(7L, laterDate).getStatus());
+
+        MockHttpServletRequest beyond = new MockHttpServletRequest("GET", "/");
+        beyond.addHeader("Range", "bytes=50-");
+        MockHttpServletResponse unsatisfiable = download(7L, beyond);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */10", unsatisfiable.getHeader("Content-Range"));
+    }
+
+    @Test
+    void refusesNamesOutsideTheCandidateDirectory() throws IOException {
+        assertEquals(404, download(8L, new MockHttpServletRequest("GET", "/")).getStatus());
+        assertEquals(0, service.getActiveDownloads());
+    }
+
+    @Test
+    void streamsTheFileItselfWhileDownloadsAreLimited() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+        assertEquals("0123456789", download(7L, request).getContentAsString());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+
+        // Without a limit the bytes are left to the container's sendfile
+        service = new ResumeDownloadServiceImpl(repository, mock(BlobStoreService.class), uploadDir.toString(), 0);
+        MockHttpServletRequest unlimited = new MockHttpServletRequest("GET", "/");
+        unlimited.setAttribute("org.apache.tomcat.sendfile.support", true);
+        assertEquals("", download(7L, unlimited).getContentAsString());
+        assertNotNull(unlimited.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    private MockHttpServletResponse download(Long userAccountId, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.download(userAccountId, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,77 @@
+package com.itschool.job_seeker.services.impl;
+
+import com.itschool.job_seeker.entity.JobSeekerProfile;
+import com.itschool.job_seeker.entity.Users;
+import com.itschool.job_seeker.entity.UsersType;
+import com.itschool.job_seeker.model.UserCredentials;
+import com.itschool.job_seeker.repository.JobSeekerProfileRepository;
+import com.itschool.job_seeker.repository.RecruiterProfileRepository;
+import com.itschool.job_seeker.repository.UsersRepository;
+import com.itschool.job_seeker.repository.UsersTypeRepository;
+import com.itschool.job_seeker.util.CustomUserDetails;
+import com.itschool.job_seeker.util.RequestIdentity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UsersServiceImplTest {
+
+    private final UsersRepository usersRepository = mock(UsersRepository.class);
+    private final JobSeekerProfileRepository jobSeekerProfileRepository = mock(JobSeekerProfileRepository.class);
+    private final RecruiterProfileRepository recruiterProfileRepository = mock(RecruiterProfileRepository.class);
+    private final RequestIdentity requestIdentity = new RequestIdentity();
+    private UsersServiceImpl usersService;
+    private Users user;
+
+    @BeforeEach
+    void setUp() {
+        usersService = new UsersServiceImpl(usersRepository, mock(UsersTypeRepository.class), jobSeekerProfileRepository,
+                recruiterProfileRepository, mock(PasswordEncoder.class), requestIdentity);
+
+        user = new Users(7L, "seeker@example.com", "secret", true, new Date(), new UsersType(2L, "Job Seeker", null));
+        CustomUserDetails userDetails = new CustomUserDetails(new UserCredentials(7L, "seeker@example.com", "secret", true, "Job Seeker"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesTheProfileOncePerRequestWithoutLookingUpTheUser() {
+        JobSeekerProfile profile = new JobSeekerProfile(user);
+        profile.setUserAccountId(7L);
+        when(jobSeekerProfileRepository.findById(7L)).thenReturn(Optional.of(profile));
+
+        assertSame(profile, usersService.getCurrentUserProfile());
+        assertSame(profile, usersService.findCurrentUserProfile().orElseThrow());
+        assertSame(user, usersService.getCurrentUser());
+
+        assertEquals(1, requestIdentity.getIdentityQueries());
+        verify(jobSeekerProfileRepository, times(1)).findById(7L);
+        verify(usersRepository, never()).findByEmail(any());
+        verifyNoInteractions(recruiterProfileRepository);
+    }
+
+    @Test
+    void remembersAMissingProfileToo() {
+        when(jobSeekerProfileRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertTrue(usersService.findCurrentUserProfile().isEmpty());
+        assertInstanceOf(JobSeekerProfile.class, usersService.getCurrentUserProfile());
+
+        assertEquals(1, requestIdentity.getIdentityQueries());
+    }
+}
@@ -0,0 +1,132 @@
+package com.itschool.job_seeker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingQueueTest {
+
+    @Test
+    void writesFullBatchesAndFlushesTheRestOnClose() throws InterruptedException {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingQueue<Integer> queue = new BatchingQueue<>("test-writer", false, 100, 3, Duration.ofMinutes(1), Duration.ZERO,
+                batch -> {
+                    batches.add(new ArrayList<>(batch));
+                    awaitQuietly(release);
+                    return List.of();
+                });
+
+        List<CompletableFuture<Boolean>> written = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            written.add(queue.submit(i));
+        }
+        release.countDown();
+        queue.close();
+
+        // Everything is written in order and in batches of at most 3; close() does not wait for maxWait
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), batches.stream().flatMap(List::stream).toList());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 3));
+        assertTrue(written.stream().allMatch(future -> future.getNow(false)));
+        assertNull(queue.submit(8));
+    }
+
+    @Test
+    void rejectsItemsWhenFullSoTheCallerCanWriteThemItself() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingQueue<Integer> queue = new BatchingQueue<>("test-writer", true, 1, 1, Duration.ZERO, Duration.ofMillis(10),
+                batch -> {
+                    writing.countDown();
+                    awaitQuietly(release);
+                    return List.of();
+                });
+
+        assertNotNull(queue.submit(1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS)); // The writer is busy with item 1
+        assertNotNull(queue.submit(2)); // Fills the only slot
+        assertNull(queue.submit(3));
+
+        release.countDown();
+        queue.close();
+    }
+
+    @Test
+    void retriesAFailedBatchAndTellsTheCallersWhatWasWritten() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        BatchingQueue<Integer> queue = new BatchingQueue<>("test-writer", false, 100, 10, Duration.ofMillis(50), Duration.ZERO,
+                batch -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("deadlock");
+                    }
+                    return batch.stream().filter(item -> item == 2).toList(); // Item 2 is rejected
+                });
+
+        CompletableFuture<Boolean> first = queue.submit(1);
+        CompletableFuture<Boolean> second = queue.submit(2);
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertFalse(second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        queue.close();
+    }
+
+    @Test
+    void failsTheCallersOfABatchThatKeepsFailing() {
+        BatchingQueue<Integer> queue = new BatchingQueue<>("test-writer", false, 100, 10, Duration.ZERO, Duration.ZERO,
+                batch -> {
+                    throw new IllegalStateException("database down");
+                });
+
+        CompletableFuture<Boolean> written = queue.submit(1);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> written.get(5, TimeUnit.SECONDS));
+        assertEquals("database down", e.getCause().getMessage());
+        queue.close();
+    }
+
+    @Test
+    void closeLetsTheBatchBeingWrittenFinishWithoutInterruptingIt() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BatchingQueue<Integer> queue = new BatchingQueue<>("test-writer", false, 100, 1, Duration.ZERO, Duration.ZERO,
+                batch -> {
+                    writing.countDown();
+                    try {
+                        Thread.sleep(200); // Still writing when close() is called
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                    written.addAll(batch);
+                    return List.of();
+                });
+
+        queue.submit(1);
+        queue.submit(2);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        queue.close();
+
+        assertFalse(interrupted.get());
+        assertEquals(List.of(1, 2), written);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}